@@ -0,0 +1,373 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing platform and virtual thread
+ * mode. Runs with the JDK source launcher, no build needed:
+ *
+ * <pre>
+ * java LoadTest.java openai-stub &lt;port&gt; &lt;tokens&gt; &lt;tokenDelayMillis&gt;
+ * java LoadTest.java run &lt;baseUrl&gt; &lt;submit|request-detail|chat&gt; &lt;concurrency&gt; &lt;seconds&gt; [requestId]
+ * java LoadTest.java sse &lt;baseUrl&gt; &lt;streams&gt; &lt;readDelayMillis&gt; [appPid]
+ * </pre>
+ *
+ * The stub mode stands in for the OpenAI streaming API so the chat path can be
+ * measured without an API key. The run mode starts one virtual user per
+ * connection, each sending requests back to back, and prints one result line:
+ * {@code scenario concurrency requests errors throughput p50 p99 max}.
+ * <p>
+ * The sse mode opens all chat streams at once and reads each one slowly,
+ * pausing after every event. It prints how the streams ended, time to first
+ * event and, given the app's process id, the app's heap and platform threads
+ * while all streams are open, measured with {@code jcmd} after a full GC.
+ */
+public class LoadTest {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 4 && args[0].equals("openai-stub")) {
+            startOpenAiStub(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
+            return;
+        }
+        if (args.length >= 5 && args[0].equals("run")) {
+            run(args[1], args[2], Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                    args.length > 5 ? args[5] : null);
+            return;
+        }
+        if (args.length >= 4 && args[0].equals("sse")) {
+            sse(args[1], Integer.parseInt(args[2]), Long.parseLong(args[3]),
+                    args.length > 4 ? Long.parseLong(args[4]) : -1);
+            return;
+        }
+        System.err.println("Usage: java LoadTest.java openai-stub <port> <tokens> <tokenDelayMillis>");
+        System.err.println("       java LoadTest.java run <baseUrl> <submit|request-detail|chat> <concurrency> <seconds> [requestId]");
+        System.err.println("       java LoadTest.java sse <baseUrl> <streams> <readDelayMillis> [appPid]");
+        System.exit(2);
+    }
+
+    // ---------------------------------------------------------------- OpenAI stub
+
+    private static void startOpenAiStub(int port, int tokens, long tokenDelayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 1000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/chat/completions", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < tokens; i++) {
+                    sleep(tokenDelayMillis);
+                    out.write(chunk("\"content\":\"tok" + i + " \"", "null"));
+                    out.flush();
+                }
+                out.write(chunk("", "\"stop\""));
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // Client went away
+            }
+        });
+        server.start();
+        System.out.println("OpenAI stub listening on http://localhost:" + port);
+    }
+
+    private static byte[] chunk(String delta, String finishReason) {
+        return ("data: {\"id\":\"stub\",\"object\":\"chat.completion.chunk\",\"created\":0,\"model\":\"stub\","
+                + "\"choices\":[{\"index\":0,\"delta\":{" + delta + "},\"finish_reason\":" + finishReason + "}]}\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ---------------------------------------------------------------- Load generator
+
+    private static void run(String baseUrl, String scenario, int concurrency, int seconds, String requestId)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<long[]> latencies = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < concurrency; user++) {
+                int userId = user;
+                LatencyLog log = new LatencyLog();
+                synchronized (latencies) {
+                    latencies.add(log.values);
+                }
+                users.submit(() -> {
+                    try {
+                        VirtualUser virtualUser = new VirtualUser(client, baseUrl, scenario, userId, requestId);
+                        virtualUser.init();
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            boolean ok = virtualUser.execute();
+                            log.add(System.nanoTime() - start);
+                            if (!ok) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            done.await();
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(v -> v > 0).sorted().toArray();
+        double throughput = all.length / (double) seconds;
+        System.out.printf("%-15s %5d %8d %6d %9.1f %8.1f %8.1f %8.1f%n", scenario, concurrency, all.length,
+                errors.get(), throughput, millis(percentile(all, 50)), millis(percentile(all, 99)),
+                millis(all.length > 0 ? all[all.length - 1] : 0));
+    }
+
+    // ---------------------------------------------------------------- Open SSE streams
+
+    private static void sse(String baseUrl, int streams, long readDelayMillis, long appPid) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long[] baseline = appPid > 0 ? measureApp(appPid) : null;
+        long[] firstEvent = new long[streams];
+        long[] duration = new long[streams];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger fallback = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(streams);
+        CountDownLatch done = new CountDownLatch(streams);
+
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < streams; i++) {
+                int stream = i;
+                readers.submit(() -> {
+                    long start = System.nanoTime();
+                    boolean first = true;
+                    boolean sawFallback = false;
+                    try {
+                        String path = "/api/chat/stream?conversationId=" + UUID.randomUUID()
+                                + "&message=" + URLEncoder.encode("Câu hỏi số " + stream, StandardCharsets.UTF_8);
+                        HttpResponse<InputStream> response = client.send(
+                                HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                            for (String line; (line = reader.readLine()) != null;) {
+                                if (!line.startsWith("data:")) {
+                                    continue;
+                                }
+                                if (first) {
+                                    firstEvent[stream] = System.nanoTime() - start;
+                                    first = false;
+                                    connected.countDown();
+                                }
+                                // The controller's fallback answer for a failed model stream
+                                sawFallback |= line.contains("kết nối với AI");
+                                sleep(readDelayMillis);
+                            }
+                        }
+                        duration[stream] = System.nanoTime() - start;
+                        if (response.statusCode() != 200 || first) {
+                            failed.incrementAndGet();
+                        } else if (sawFallback) {
+                            fallback.incrementAndGet();
+                        } else {
+                            completed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    } finally {
+                        if (first) {
+                            connected.countDown();
+                        }
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+
+            // Measure while every stream is open, before the first ones finish
+            connected.await(60, TimeUnit.SECONDS);
+            long[] open = appPid > 0 ? measureApp(appPid) : null;
+            done.await();
+
+            long[] ttfe = Arrays.stream(firstEvent).filter(v -> v > 0).sorted().toArray();
+            long[] total = Arrays.stream(duration).filter(v -> v > 0).sorted().toArray();
+            String heapPerStream = open != null ? String.format("%.1f", (open[0] - baseline[0]) / (double) streams) : "-";
+            System.out.printf("%7d %9d %8d %6d %10.1f %10.1f %10.1f %12s %8s%n", streams, completed.get(),
+                    fallback.get(), failed.get(), millis(percentile(ttfe, 50)), millis(percentile(ttfe, 99)),
+                    millis(percentile(total, 99)), heapPerStream, open != null ? open[1] : "-");
+        }
+    }
+
+    /** Heap used in KB after a full GC and the number of platform threads. */
+    private static long[] measureApp(long pid) throws Exception {
+        jcmd(pid, "GC.run");
+        Matcher used = Pattern.compile("used (\\d+)K").matcher(jcmd(pid, "GC.heap_info"));
+        long heap = used.find() ? Long.parseLong(used.group(1)) : -1;
+        long threads = jcmd(pid, "Thread.print").lines().filter(line -> line.startsWith("\"")).count();
+        return new long[] { heap, threads };
+    }
+
+    private static String jcmd(long pid, String command) throws Exception {
+        Path java = Path.of(ProcessHandle.current().info().command().orElse("java"));
+        Path jcmd = java.getParent() != null ? java.resolveSibling("jcmd") : Path.of("jcmd");
+        Process process = new ProcessBuilder(jcmd.toString(), Long.toString(pid), command)
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+        return output;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Latencies of one virtual user, grown as needed. */
+    private static final class LatencyLog {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /** One simulated client with its own session. */
+    private static final class VirtualUser {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final String scenario;
+        private final int userId;
+        private final String requestId;
+        private String session;
+        private String csrf;
+        private long sequence;
+
+        VirtualUser(HttpClient client, String baseUrl, String scenario, int userId, String requestId) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.scenario = scenario;
+            this.userId = userId;
+            this.requestId = requestId;
+        }
+
+        void init() throws Exception {
+            if (!scenario.equals("submit")) {
+                return;
+            }
+            // The submit form needs a session and its CSRF token
+            HttpResponse<String> form = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/submit")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher csrfMatcher = CSRF.matcher(form.body());
+            Matcher sessionMatcher = SESSION.matcher(String.join(";", form.headers().allValues("Set-Cookie")));
+            if (!csrfMatcher.find() || !sessionMatcher.find()) {
+                throw new IllegalStateException("No CSRF token or session on /submit");
+            }
+            csrf = csrfMatcher.group(1);
+            session = sessionMatcher.group(1);
+        }
+
+        boolean execute() {
+            try {
+                return switch (scenario) {
+                    case "submit" -> submit();
+                    case "request-detail" -> get("/public/request/" + requestId, requestId);
+                    // The controller answers a failed model call with a fallback message, so check for stub tokens
+                    case "chat" -> get("/api/chat/stream?message=" + encode("Máy tôi không lên nguồn"), "\"tok0 \"");
+                    default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+                };
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private boolean submit() throws Exception {
+            sequence++;
+            String form = "_csrf=" + encode(csrf)
+                    + "&name=" + encode("Khách tải " + userId)
+                    + "&phone=" + encode(String.format("09%08d", (userId * 100000L + sequence) % 100000000L))
+                    + "&brandModel=" + encode("Dell Latitude 7420")
+                    + "&description=" + encode("Máy không lên nguồn sau khi bị vào nước")
+                    + "&appointmentDate=" + encode("2030-01-10T10:00");
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/submit"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .header("Cookie", "JSESSIONID=" + session)
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            // A successful submission redirects back to the form
+            return response.statusCode() == 302
+                    && response.headers().firstValue("Location").orElse("").endsWith("/submit");
+        }
+
+        private boolean get(String path, String expectedContent) throws Exception {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 && response.body().contains(expectedContent);
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
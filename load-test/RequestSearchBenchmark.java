@@ -0,0 +1,333 @@
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.repository.RequestRepository;
+import com.laptoprepair.utils.VietnameseTextUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Latency of the staff request search on PostgreSQL with and without the
+ * trigram index of {@code schema-postgresql.sql}. Needs the app's classes and
+ * the JDBC driver on the class path, see {@code search.sh}:
+ *
+ * <pre>
+ * java -cp &lt;classpath&gt; RequestSearchBenchmark.java &lt;jdbcUrl&gt; &lt;user&gt; &lt;password&gt; &lt;rows&gt;
+ * </pre>
+ *
+ * Creates the app's tables from {@code schema.sql} in a scratch schema
+ * {@code search_bench}, fills {@code request} with generated customers whose
+ * search text is built by {@link Request#updateSearchText()}, then runs the
+ * repository's own first search page and count queries for a set of terms.
+ * Each term is timed without the index and again after the statements of
+ * {@code schema-postgresql.sql} have been applied, and prints one line:
+ * {@code index term matches page-p50 page-p95 count-p50 count-p95 plan}.
+ * Both rounds run on a connection of their own: the driver prepares a
+ * statement on the server once it has been used a few times, and a plan
+ * cached without the index can outlive the index being created.
+ * The schema is dropped at the end.
+ */
+public class RequestSearchBenchmark {
+
+    private static final String SCHEMA = "search_bench";
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 15;
+
+    // The staff list asks for one row more than a page to find out whether a next page exists
+    private static final String FIRST_PAGE = RequestRepository.RANKED_SEARCH
+            + "ORDER BY s.search_rank ASC, s.appointment_date DESC, s.id DESC LIMIT " + (PAGE_SIZE + 1);
+    private static final String COUNT = "SELECT COUNT(*) FROM request r WHERE " + RequestRepository.FILTER_CONDITIONS;
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    private static final String[] FAMILY_NAMES = { "Nguyễn", "Nguyễn", "Nguyễn", "Trần", "Trần", "Lê", "Lê", "Phạm",
+            "Hoàng", "Huỳnh", "Phan", "Vũ", "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý" };
+    private static final String[] MIDDLE_NAMES = { "Văn", "Thị", "Hữu", "Minh", "Thanh", "Ngọc", "Quốc", "Đức",
+            "Thu", "Gia", "Bảo", "Xuân" };
+    private static final String[] GIVEN_NAMES = { "An", "Bình", "Cường", "Dũng", "Hà", "Hải", "Hạnh", "Hoa", "Hùng",
+            "Hương", "Khánh", "Lan", "Linh", "Long", "Mai", "Nam", "Nga", "Phong", "Phương", "Quang", "Sơn", "Tâm",
+            "Thảo", "Trang", "Tuấn", "Vy", "Yến", "Đạt", "Hiếu", "Khoa" };
+    private static final String[] DEVICES = { "Dell Inspiron 15 3520", "Dell Latitude 5420", "Dell XPS 13 9310",
+            "HP Pavilion 15", "HP EliteBook 840 G8", "HP Victus 16", "Lenovo ThinkPad T14", "Lenovo IdeaPad 5",
+            "Lenovo Legion 5", "Asus VivoBook 15", "Asus ZenBook 14", "Asus ROG Strix G15", "Acer Aspire 7",
+            "Acer Nitro 5", "Acer Swift 3", "MacBook Air M1", "MacBook Pro 14 M3", "MSI Modern 14", "MSI Katana GF66",
+            "LG Gram 16" };
+    private static final String[] STATUSES = { "SCHEDULED", "QUOTED", "APPROVE_QUOTED", "IN_PROGRESS", "COMPLETED",
+            "COMPLETED", "COMPLETED", "CANCELLED", "UNDER_WARRANTY" };
+
+    // A customer that appears once, so that exact phone and serial lookups have a known answer
+    private static final String KNOWN_NAME = "Trịnh Công Sơn";
+    private static final String KNOWN_PHONE = "0987654321";
+    private static final String KNOWN_SERIAL = "5CD1234XYZ";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java RequestSearchBenchmark.java <jdbcUrl> <user> <password> <rows>");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[3]);
+        try (Connection connection = connect(args)) {
+            if (!connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+                System.err.println("The trigram index needs PostgreSQL");
+                System.exit(2);
+            }
+            try {
+                createSchema(connection);
+                long start = System.nanoTime();
+                fill(connection, rows);
+                System.out.printf("Inserted %d requests in %.1f s%n%n", rows, (System.nanoTime() - start) / 1e9);
+
+                List<String> terms = List.of(
+                        "nguyen",                                  // common family name, about a third of rows
+                        "tran thi hanh",                           // full name, a few hundred rows
+                        VietnameseTextUtils.fold(KNOWN_NAME),      // full name, one row
+                        KNOWN_PHONE,                               // exact phone, ranked first
+                        KNOWN_PHONE.substring(4),                  // phone fragment
+                        KNOWN_SERIAL.toLowerCase(),                // exact serial
+                        "thinkpad t14",                            // device model, a twentieth of rows
+                        "khong co ai");                            // no match
+
+                System.out.printf("%-5s %-16s %8s %9s %9s %9s %9s  %s%n", "index", "term", "matches",
+                        "page p50", "page p95", "count p50", "count p95", "plan");
+                measure(args, "no", terms);
+                long indexStart = System.nanoTime();
+                applyScript(connection, "schema-postgresql.sql");
+                analyze(connection);
+                System.out.printf("%n(trigram index built in %.1f s, %d MB)%n",
+                        (System.nanoTime() - indexStart) / 1e9, indexMegabytes(connection));
+                measure(args, "yes", terms);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                }
+            }
+        }
+    }
+
+    private static Connection connect(String[] args) throws Exception {
+        Connection connection = DriverManager.getConnection(args[0], args[1], args[2]);
+        try (Statement statement = connection.createStatement()) {
+            // Keeps pg_trgm usable if it is already installed in public
+            statement.execute("SET search_path = " + SCHEMA + ", public");
+        }
+        return connection;
+    }
+
+    private static void createSchema(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+        applyScript(connection, "schema.sql");
+    }
+
+    /**
+     * Runs the statements of an SQL script from the app's class path, one at a
+     * time.
+     */
+    private static void applyScript(Connection connection, String resource) throws Exception {
+        String script;
+        try (InputStream in = RequestSearchBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException(resource + " is not on the class path");
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.stripLeading().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : withoutComments.toString().split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void fill(Connection connection, int rows) throws Exception {
+        Random random = new Random(42);
+        LocalDateTime firstAppointment = LocalDateTime.of(2020, 1, 1, 8, 0);
+        int knownRow = rows / 2;
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO request (id, name, phone, email, "
+                + "brand_model, serial_number, appointment_date, description, status, search_text, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)")) {
+            for (int i = 0; i < rows; i++) {
+                Request request = new Request();
+                if (i == knownRow) {
+                    request.setName(KNOWN_NAME);
+                    request.setPhone(KNOWN_PHONE);
+                    request.setSerialNumber(KNOWN_SERIAL);
+                } else {
+                    request.setName(pick(random, FAMILY_NAMES) + " " + pick(random, MIDDLE_NAMES) + " "
+                            + pick(random, GIVEN_NAMES));
+                    request.setPhone(String.format("0%d%08d", 3 + random.nextInt(7), random.nextInt(100_000_000)));
+                    request.setSerialNumber(serial(random));
+                }
+                request.setBrandModel(pick(random, DEVICES));
+                request.updateSearchText();
+
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, request.getName());
+                insert.setString(3, request.getPhone());
+                insert.setString(4, i % 3 == 0 ? null : "khach" + i + "@email.com");
+                insert.setString(5, request.getBrandModel());
+                insert.setString(6, request.getSerialNumber());
+                // Spread over five years, as on a shop's list after some time in use
+                insert.setTimestamp(7, Timestamp.valueOf(firstAppointment.plusMinutes(random.nextInt(5 * 365 * 24 * 60))));
+                insert.setString(8, "Máy chạy chậm, cần kiểm tra và vệ sinh");
+                insert.setString(9, pick(random, STATUSES));
+                insert.setString(10, request.getSearchText());
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        analyze(connection);
+    }
+
+    private static void measure(String[] args, String index, List<String> terms) throws Exception {
+        try (Connection connection = connect(args)) {
+            for (String term : terms) {
+                measure(connection, index, term);
+            }
+        }
+    }
+
+    private static void measure(Connection connection, String index, String term) throws Exception {
+        long matches = 0;
+        long[] pageNanos = new long[RUNS];
+        long[] countNanos = new long[RUNS];
+        for (int run = -WARMUP; run < RUNS; run++) {
+            long start = System.nanoTime();
+            int pageRows = query(connection, FIRST_PAGE, term);
+            long pageDone = System.nanoTime();
+            matches = count(connection, term);
+            long countDone = System.nanoTime();
+            if (run >= 0) {
+                pageNanos[run] = pageDone - start;
+                countNanos[run] = countDone - pageDone;
+            }
+            if (pageRows != Math.min(matches, PAGE_SIZE + 1)) {
+                throw new IllegalStateException("Page of " + pageRows + " rows for " + matches + " matches");
+            }
+        }
+        System.out.printf("%-5s %-16s %8d %9.1f %9.1f %9.1f %9.1f  %s%n", index, term, matches,
+                percentile(pageNanos, 50), percentile(pageNanos, 95),
+                percentile(countNanos, 50), percentile(countNanos, 95), plan(connection, term));
+    }
+
+    private static int query(Connection connection, String sql, String term) throws Exception {
+        try (PreparedStatement statement = prepare(connection, sql, term); ResultSet rs = statement.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            return rows;
+        }
+    }
+
+    private static long count(Connection connection, String term) throws Exception {
+        try (PreparedStatement statement = prepare(connection, COUNT, term); ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Scan node used for the request table by the first page query, e.g.
+     * "Bitmap Index Scan on idx_request_search_text_trgm" or "Seq Scan".
+     */
+    private static String plan(Connection connection, String term) throws Exception {
+        try (PreparedStatement statement = prepare(connection, "EXPLAIN " + FIRST_PAGE, term);
+                ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String line = rs.getString(1);
+                if (line.contains("Index Scan on idx_request_search_text_trgm") || line.contains("Seq Scan on request")) {
+                    return line.replaceAll("^[\\s>-]*", "").replaceAll("\\s+\\(cost.*", "");
+                }
+            }
+        }
+        return "other";
+    }
+
+    /**
+     * Prepares a native repository query, binding its named parameters in
+     * order: the term for :search and no status filter.
+     */
+    private static PreparedStatement prepare(Connection connection, String sql, String term) throws Exception {
+        List<String> parameters = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            parameters.add(matcher.group(1));
+        }
+        PreparedStatement statement = connection.prepareStatement(matcher.replaceAll("?"));
+        for (int i = 0; i < parameters.size(); i++) {
+            switch (parameters.get(i)) {
+                case "search" -> statement.setString(i + 1, term);
+                case "status" -> statement.setNull(i + 1, Types.VARCHAR);
+                default -> throw new IllegalStateException("Unexpected parameter :" + parameters.get(i));
+            }
+        }
+        return statement;
+    }
+
+    private static void analyze(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE request");
+        }
+    }
+
+    private static long indexMegabytes(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT pg_relation_size('" + SCHEMA + ".idx_request_search_text_trgm')")) {
+            rs.next();
+            return rs.getLong(1) / (1024 * 1024);
+        }
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String serial(Random random) {
+        String alphabet = "ABCDEFGHJKLMNPQRSTUVWXYZ0123456789";
+        StringBuilder serial = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            serial.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return serial.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
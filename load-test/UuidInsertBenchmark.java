@@ -0,0 +1,107 @@
+import com.laptoprepair.entity.UuidV7Generator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput with random (version 4) versus time-ordered (version 7)
+ * primary keys. Needs the app's classes and the JDBC driver on the class path,
+ * see {@code uuid.sh}:
+ *
+ * <pre>
+ * java -cp &lt;classpath&gt; UuidInsertBenchmark.java &lt;jdbcUrl&gt; &lt;user&gt; &lt;password&gt; &lt;rows&gt;
+ * </pre>
+ *
+ * For each generator it recreates a table shaped like {@code request_items},
+ * inserts the rows in transactions of 1000 and prints one line:
+ * {@code generator rows seconds rows/s last10%-rows/s pkey-MB}. The rate of
+ * the last tenth shows how inserts slow down once the index outgrows the
+ * cache. The index size is only reported on PostgreSQL.
+ */
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java UuidInsertBenchmark.java <jdbcUrl> <user> <password> <rows>");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[3]);
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            connection.setAutoCommit(false);
+            boolean postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+            System.out.printf("%-8s %9s %8s %9s %13s %8s%n", "ids", "rows", "seconds", "rows/s", "last10% r/s", "pkey MB");
+            run(connection, postgres, "random", UUID::randomUUID, rows);
+            run(connection, postgres, "v7", UuidV7Generator::generate, rows);
+        }
+    }
+
+    private static void run(Connection connection, boolean postgres, String name, Supplier<UUID> ids, int rows)
+            throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS uuid_bench");
+            statement.execute("""
+                    CREATE TABLE uuid_bench (
+                        id UUID PRIMARY KEY,
+                        request_id UUID NOT NULL,
+                        name VARCHAR(255),
+                        price NUMERIC(15, 2),
+                        quantity INT,
+                        created_at TIMESTAMP)""");
+        }
+        connection.commit();
+
+        UUID requestId = ids.get();
+        long start = System.nanoTime();
+        long tailStart = start;
+        int tailFrom = rows - rows / 10;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO uuid_bench (id, request_id, name, price, quantity, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                if (i == tailFrom) {
+                    tailStart = System.nanoTime();
+                }
+                if (i % 5 == 0) {
+                    requestId = ids.get();
+                }
+                insert.setObject(1, ids.get());
+                insert.setObject(2, requestId);
+                insert.setString(3, "Thay bàn phím " + i);
+                insert.setBigDecimal(4, BigDecimal.valueOf(750000));
+                insert.setInt(5, 1);
+                insert.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long end = System.nanoTime();
+
+        String indexMb = "-";
+        if (postgres) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet size = statement.executeQuery("SELECT pg_relation_size('uuid_bench_pkey')")) {
+                size.next();
+                indexMb = String.format("%.1f", size.getLong(1) / 1048576.0);
+            }
+        }
+        int tailRows = rows - tailFrom;
+        System.out.printf("%-8s %9d %8.1f %9.0f %13.0f %8s%n", name, rows, (end - start) / 1e9,
+                rows / ((end - start) / 1e9), tailRows / ((end - tailStart) / 1e9), indexMb);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE uuid_bench");
+        }
+        connection.commit();
+    }
+}
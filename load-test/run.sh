@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Compares platform and virtual thread mode on /submit, /public/request/{id}
+# and /api/chat/stream. Builds the jar, starts an OpenAI stub, then runs each
+# scenario against the app once per thread mode.
+#
+# Usage: load-test/run.sh [seconds] [concurrency levels...]
+#   e.g. load-test/run.sh 20 50 400
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DURATION=${1:-20}
+shift || true
+LEVELS=("$@")
+[[ ${#LEVELS[@]} -eq 0 ]] && LEVELS=(50 400)
+
+APP_PORT=${APP_PORT:-18080}
+STUB_PORT=${STUB_PORT:-18090}
+REQUEST_ID=${REQUEST_ID:-6ba7b810-9dad-11d1-80b4-00c04fd430c8}
+JAR=$PWD/target/laptop-repair-app-0.0.1-SNAPSHOT.jar
+WORK=$(mktemp -d)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cleanup() {
+    [[ -n "${APP_PID:-}" ]] && kill "$APP_PID" 2>/dev/null || true
+    [[ -n "${STUB_PID:-}" ]] && kill "$STUB_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+mvn -B -q ${MVN_OPTS:-} package -DskipTests
+
+# 20 tokens, 25 ms apart: about half a second per chat answer
+"$JAVA" load-test/LoadTest.java openai-stub "$STUB_PORT" 20 25 > "$WORK/stub.log" 2>&1 &
+STUB_PID=$!
+
+start_app() {
+    # Run from the work directory so the app's log files stay out of the tree
+    (cd "$WORK" && exec env VIRTUAL_THREADS_ENABLED=$1 OPENAI_API_KEY=stub OPENAI_MODEL=stub STAFF_USERS=staff:password \
+        "$JAVA" -jar "$JAR" \
+        --spring.profiles.active=dev \
+        --server.port="$APP_PORT" \
+        --spring.jpa.show-sql=false \
+        --logging.level.root=WARN \
+        --spring.ai.openai.base-url="http://localhost:$STUB_PORT" \
+        --app.chat.response-cache.enabled=false \
+        --app.rate-limiter.public.max-requests-per-minute=100000000 \
+        --app.rate-limiter.chat.max-requests-per-minute=100000000 \
+        > "$WORK/app-$1.log" 2>&1) &
+    APP_PID=$!
+    for _ in $(seq 1 90); do
+        curl -s -o /dev/null "http://localhost:$APP_PORT/submit" && return 0
+        sleep 1
+    done
+    echo "App did not start, see $WORK/app-$1.log" >&2
+    exit 1
+}
+
+printf "%-8s %-15s %5s %8s %6s %9s %8s %8s %8s\n" \
+    mode scenario conc requests errors "req/s" "p50 ms" "p99 ms" "max ms"
+for virtual in false true; do
+    mode=$([[ $virtual == true ]] && echo virtual || echo platform)
+    start_app "$virtual"
+    for scenario in submit request-detail chat; do
+        for level in "${LEVELS[@]}"; do
+            # Short warm-up so JIT and connection pools are settled
+            "$JAVA" load-test/LoadTest.java run "http://localhost:$APP_PORT" "$scenario" "$level" 5 "$REQUEST_ID" > /dev/null
+            printf "%-8s " "$mode"
+            "$JAVA" load-test/LoadTest.java run "http://localhost:$APP_PORT" "$scenario" "$level" "$DURATION" "$REQUEST_ID"
+        done
+    done
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+done
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Staff request search latency on PostgreSQL with and without the trigram
+# index of schema-postgresql.sql. Works in a scratch schema that is dropped
+# afterwards; the user needs to be allowed to create the pg_trgm extension.
+#
+# Usage: PG_URL=jdbc:postgresql://localhost:5432/laptop PG_USER=postgres load-test/search.sh [rows]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+if [[ -z "${PG_URL:-}" ]]; then
+    echo "Set PG_URL (and PG_USER, PG_PASSWORD) to a PostgreSQL database" >&2
+    exit 2
+fi
+
+ROWS=${1:-1000000}
+JAR=$PWD/target/laptop-repair-app-0.0.1-SNAPSHOT.jar
+WORK=$(mktemp -d)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR_TOOL=${JAVA_HOME:+$JAVA_HOME/bin/}jar
+trap 'rm -rf "$WORK"' EXIT
+
+mvn -B -q ${MVN_OPTS:-} package -DskipTests
+
+# The benchmark, the app's schema scripts and the JDBC driver come from the boot jar
+(cd "$WORK" && "$JAR_TOOL" xf "$JAR")
+CP="$WORK/BOOT-INF/classes:$WORK/BOOT-INF/lib/*"
+
+"$JAVA" -cp "$CP" load-test/RequestSearchBenchmark.java "$PG_URL" "${PG_USER:-postgres}" "${PG_PASSWORD:-}" "$ROWS"
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Measures how many chat SSE streams the app holds open, what each open
+# stream costs in heap and threads, and how failed model streams end while
+# clients read slowly. The app runs with the fake-llm profile, so no OpenAI
+# calls are made, once per thread mode.
+#
+# Usage: load-test/sse.sh [stream counts...]
+#   e.g. load-test/sse.sh 200 1000 2000
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+COUNTS=("$@")
+[[ ${#COUNTS[@]} -eq 0 ]] && COUNTS=(200 1000 2000)
+
+APP_PORT=${APP_PORT:-18080}
+# Answers of about 45 chunks, 200 ms apart: each stream stays open ~9 s
+TOKEN_DELAY_MILLIS=${TOKEN_DELAY_MILLIS:-200}
+# Clients pause longer than that after each event, so they fall behind the model
+READ_DELAY_MILLIS=${READ_DELAY_MILLIS:-300}
+ERROR_EVERY=${ERROR_EVERY:-10}
+JAR=$PWD/target/laptop-repair-app-0.0.1-SNAPSHOT.jar
+WORK=$(mktemp -d)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+cleanup() {
+    [[ -n "${APP_PID:-}" ]] && kill "$APP_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+mvn -B -q ${MVN_OPTS:-} package -DskipTests
+
+start_app() {
+    # Run from the work directory so the app's log files stay out of the tree
+    (cd "$WORK" && exec env VIRTUAL_THREADS_ENABLED=$1 STAFF_USERS=staff:password \
+        "$JAVA" -jar "$JAR" \
+        --spring.profiles.active=dev,fake-llm \
+        --server.port="$APP_PORT" \
+        --spring.jpa.show-sql=false \
+        --logging.level.root=WARN \
+        --app.fake-llm.token-delay-millis="$TOKEN_DELAY_MILLIS" \
+        --app.fake-llm.error-every="$ERROR_EVERY" \
+        --app.rate-limiter.chat.max-requests-per-minute=100000000 \
+        > "$WORK/app-$1.log" 2>&1) &
+    APP_PID=$!
+    for _ in $(seq 1 90); do
+        curl -s -o /dev/null "http://localhost:$APP_PORT/submit" && break
+        sleep 1
+    done
+    curl -s -o /dev/null "http://localhost:$APP_PORT/submit" || { echo "App did not start, see $WORK/app-$1.log" >&2; exit 1; }
+    # The subshell execs java, so its pid is the app's
+    APP_JVM_PID=$(pgrep -f -n "$JAR")
+}
+
+printf "%-8s %7s %9s %8s %6s %10s %10s %10s %12s %8s\n" \
+    mode streams completed fallback failed "ttfe p50" "ttfe p99" "total p99" "heap KB/str" threads
+for virtual in false true; do
+    mode=$([[ $virtual == true ]] && echo virtual || echo platform)
+    start_app "$virtual"
+    # Warm-up so JIT and the chat memory path are settled
+    "$JAVA" load-test/LoadTest.java sse "http://localhost:$APP_PORT" 50 0 > /dev/null
+    for count in "${COUNTS[@]}"; do
+        printf "%-8s " "$mode"
+        "$JAVA" load-test/LoadTest.java sse "http://localhost:$APP_PORT" "$count" "$READ_DELAY_MILLIS" "$APP_JVM_PID"
+    done
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+done
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Compares insert throughput with random and time-ordered (v7) UUID primary
+# keys on an H2 file database and, when PG_URL is set, on PostgreSQL.
+#
+# Usage: load-test/uuid.sh [rows]
+#   e.g. PG_URL=jdbc:postgresql://localhost:5432/laptop PG_USER=postgres load-test/uuid.sh 2000000
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+ROWS=${1:-1000000}
+JAR=$PWD/target/laptop-repair-app-0.0.1-SNAPSHOT.jar
+WORK=$(mktemp -d)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR_TOOL=${JAVA_HOME:+$JAVA_HOME/bin/}jar
+trap 'rm -rf "$WORK"' EXIT
+
+mvn -B -q ${MVN_OPTS:-} package -DskipTests
+
+# The generator and the JDBC drivers come from the boot jar
+(cd "$WORK" && "$JAR_TOOL" xf "$JAR")
+CP="$WORK/BOOT-INF/classes:$WORK/BOOT-INF/lib/*"
+
+echo "H2 (file)"
+"$JAVA" -cp "$CP" load-test/UuidInsertBenchmark.java "jdbc:h2:file:$WORK/bench" sa "" "$ROWS"
+
+if [[ -n "${PG_URL:-}" ]]; then
+    echo
+    echo "PostgreSQL"
+    "$JAVA" -cp "$CP" load-test/UuidInsertBenchmark.java "$PG_URL" "${PG_USER:-postgres}" "${PG_PASSWORD:-}" "$ROWS"
+fi
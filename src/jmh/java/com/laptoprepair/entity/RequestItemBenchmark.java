@@ -0,0 +1,95 @@
+package com.laptoprepair.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestItem#equals} and {@link RequestItem#hashCode} normalise every
+ * amount with {@code stripTrailingZeros}, so an item loaded from the database
+ * (scale 2) equals the same item posted by the edit form (scale 0). The
+ * {@code compareTo} benchmark runs the same field comparison without
+ * allocating, to show what the normalisation costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestItemBenchmark {
+
+    private RequestItem stored;
+    private RequestItem posted;
+    private RequestItem repriced;
+
+    @Setup
+    public void setUp() {
+        UUID serviceItemId = UUID.randomUUID();
+        stored = item(serviceItemId, "1250000.00", "0.10", "50000.00");
+        posted = item(serviceItemId, "1250000", "0.1", "50000");
+        repriced = item(serviceItemId, "1300000", "0.1", "50000");
+    }
+
+    @Benchmark
+    public boolean equalsSameValueOtherScale() {
+        return stored.equals(posted);
+    }
+
+    @Benchmark
+    public boolean equalsDifferentPrice() {
+        return stored.equals(repriced);
+    }
+
+    @Benchmark
+    public int hashCodeStored() {
+        return stored.hashCode();
+    }
+
+    @Benchmark
+    public boolean compareToSameValueOtherScale() {
+        return CompareToEquality.equal(stored, posted);
+    }
+
+    private static RequestItem item(UUID serviceItemId, String price, String vatRate, String discount) {
+        RequestItem item = new RequestItem();
+        item.setServiceItemId(serviceItemId);
+        item.setName("Thay màn hình 15.6 inch");
+        item.setPrice(new BigDecimal(price));
+        item.setVatRate(new BigDecimal(vatRate));
+        item.setDiscount(new BigDecimal(discount));
+        item.setWarrantyDays(90);
+        item.setQuantity(1);
+        return item;
+    }
+
+    /** The fields of {@link RequestItem#equals}, with amounts compared by value. */
+    static final class CompareToEquality {
+
+        static boolean equal(RequestItem a, RequestItem b) {
+            return a.getQuantity() == b.getQuantity()
+                    && Objects.equals(a.getWarrantyDays(), b.getWarrantyDays())
+                    && Objects.equals(a.getServiceItemId(), b.getServiceItemId())
+                    && Objects.equals(a.getName(), b.getName())
+                    && sameValue(a.getPrice(), b.getPrice())
+                    && sameValue(a.getVatRate(), b.getVatRate())
+                    && sameValue(a.getDiscount(), b.getDiscount());
+        }
+
+        private static boolean sameValue(BigDecimal a, BigDecimal b) {
+            return a == null ? b == null : b != null && a.compareTo(b) == 0;
+        }
+    }
+}
\ No newline at end of file
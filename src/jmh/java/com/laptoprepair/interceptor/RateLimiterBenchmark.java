@@ -0,0 +1,122 @@
+package com.laptoprepair.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate limiter throughput with 64 threads. {@code hotKey} sends every thread
+ * through one client's bucket, the worst case for the compare-and-set loop;
+ * {@code spreadKeys} spreads threads over 1024 clients. The {@code legacy}
+ * benchmarks run the previous fixed-window limiter for comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    /** Requests per minute; the small limit mostly exercises the deny path. */
+    @Param({ "10", "1000000" })
+    public int limit;
+
+    private TokenBucketTable table;
+    private LegacyFixedWindowLimiter legacy;
+    private RateLimiter rateLimiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        table = new TokenBucketTable(60_000, 10_000, () -> System.nanoTime() / 1_000_000);
+        legacy = new LegacyFixedWindowLimiter();
+        rateLimiter = new RateLimiter(new InMemoryRateLimitStore(10_000), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "publicMaxRequestsPerMinute", limit);
+        rateLimiter.setRouteLimits("");
+        clientKeys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientKeys[i] = "public:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    /** Per-thread request, as Tomcat hands each worker its own request object. */
+    @State(Scope.Thread)
+    public static class ClientRequest {
+        MockHttpServletRequest request;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("POST", "/submit");
+            request.setRemoteAddr("10.1." + ThreadLocalRandom.current().nextInt(4) + ".1");
+        }
+    }
+
+    @Benchmark
+    public boolean tokenBucketHotKey() {
+        return table.tryAcquire(clientKeys[0], limit);
+    }
+
+    @Benchmark
+    public boolean tokenBucketSpreadKeys() {
+        return table.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)], limit);
+    }
+
+    @Benchmark
+    public boolean legacyHotKey() {
+        return legacy.isAllowed(clientKeys[0], limit);
+    }
+
+    @Benchmark
+    public boolean legacySpreadKeys() {
+        return legacy.isAllowed(clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)], limit);
+    }
+
+    @Benchmark
+    public boolean rateLimiterIsAllowed(ClientRequest client) {
+        return rateLimiter.isAllowed(client.request, "public");
+    }
+
+    /** The limiter as it was before the token bucket: compute, then get. */
+    static final class LegacyFixedWindowLimiter {
+
+        private record Bucket(Instant windowStart, AtomicInteger count) {
+        }
+
+        private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        boolean isAllowed(String clientKey, int maxRequests) {
+            Instant now = Instant.now();
+            buckets.compute(clientKey, (key, bucket) -> {
+                if (bucket == null || now.isAfter(bucket.windowStart.plusSeconds(60))) {
+                    return new Bucket(now, new AtomicInteger(1));
+                }
+                bucket.count.incrementAndGet();
+                return bucket;
+            });
+            return buckets.get(clientKey).count.get() <= maxRequests;
+        }
+    }
+}
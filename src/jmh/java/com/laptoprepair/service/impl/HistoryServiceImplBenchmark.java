@@ -0,0 +1,103 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.entity.RequestItem;
+import com.laptoprepair.enums.RequestStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History diff computed on every request edit. The stored request has
+ * amounts at scale 2 as loaded from the database; the edited copy is what the
+ * form posts back, either unchanged or with a new status and one repriced
+ * item, which also formats the new total.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryServiceImplBenchmark {
+
+    @Param({ "3", "20" })
+    public int items;
+
+    private HistoryServiceImpl historyService;
+    private Request stored;
+    private Request unchanged;
+    private Request edited;
+
+    @Setup
+    public void setUp() {
+        historyService = new HistoryServiceImpl(new VietnamTimeProvider());
+        LocalDateTime appointment = LocalDateTime.of(2025, 7, 2, 9, 0);
+        List<UUID> serviceItemIds = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            serviceItemIds.add(UUID.randomUUID());
+        }
+
+        stored = request(RequestStatus.QUOTED, appointment, serviceItemIds, 2);
+        unchanged = request(RequestStatus.QUOTED, appointment, serviceItemIds, 0);
+        edited = request(RequestStatus.IN_PROGRESS, appointment, serviceItemIds, 0);
+        edited.getItems().get(items - 1).setPrice(new BigDecimal("990000"));
+    }
+
+    @Benchmark
+    public boolean areRequestItemsEqualUnchanged() {
+        return historyService.areRequestItemsEqual(stored.getItems(), unchanged.getItems());
+    }
+
+    @Benchmark
+    public boolean areRequestItemsEqualOneChanged() {
+        return historyService.areRequestItemsEqual(stored.getItems(), edited.getItems());
+    }
+
+    @Benchmark
+    public String computeRequestChangesUnchanged() {
+        return historyService.computeRequestChanges(stored, unchanged);
+    }
+
+    @Benchmark
+    public String computeRequestChangesEdited() {
+        return historyService.computeRequestChanges(stored, edited);
+    }
+
+    private static Request request(RequestStatus status, LocalDateTime appointment, List<UUID> serviceItemIds,
+            int scale) {
+        Request request = new Request();
+        request.setStatus(status);
+        request.setAppointmentDate(appointment);
+        for (int i = 0; i < serviceItemIds.size(); i++) {
+            RequestItem item = new RequestItem();
+            item.setServiceItemId(serviceItemIds.get(i));
+            item.setName("Linh kiện " + i);
+            item.setPrice(BigDecimal.valueOf(150000 + i * 10000L).setScale(scale));
+            BigDecimal vatRate = new BigDecimal(i % 2 == 0 ? "0.1" : "0.08");
+            item.setVatRate(scale > 0 ? vatRate.setScale(scale) : vatRate);
+            item.setDiscount(BigDecimal.ZERO.setScale(scale));
+            item.setWarrantyDays(30);
+            item.setQuantity(1 + i % 3);
+            request.getItems().add(item);
+        }
+        return request;
+    }
+}
\ No newline at end of file
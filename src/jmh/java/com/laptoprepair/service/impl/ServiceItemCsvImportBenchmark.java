@@ -0,0 +1,106 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.exception.CSVImportException;
+import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.service.BackgroundJobService;
+import com.laptoprepair.service.ServiceCatalogService;
+import com.laptoprepair.validation.ServiceItemValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * CSV import cost per row, without the database: the repository, entity
+ * manager and transaction manager are stub-only mocks that do not record
+ * calls. {@code importCsv} runs {@link ServiceItemServiceImpl#importCSV} end to
+ * end, i.e. parsing, validating and chunking; {@code parseOnly} only reads the
+ * same records with Commons CSV, which is the floor for the import.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceItemCsvImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ServiceItemServiceImpl serviceItemService;
+    private MockMultipartFile file;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        StringBuilder content = new StringBuilder("name,price,vatRate,warrantyDays,active\n");
+        for (int i = 0; i < ROWS; i++) {
+            content.append("[LK] Linh kiện thay thế ").append(i).append(',')
+                    .append(100000 + i * 100).append(',')
+                    .append(i % 2 == 0 ? "0.10" : "0.08").append(',')
+                    .append(i % 4 == 0 ? 90 : 30).append(',')
+                    .append(i % 10 != 0).append('\n');
+        }
+        csv = content.toString().getBytes(StandardCharsets.UTF_8);
+        file = new MockMultipartFile("file", "service-items.csv", "text/csv", csv);
+
+        ServiceItemRepository repository = mock(ServiceItemRepository.class, withSettings().stubOnly());
+        serviceItemService = new ServiceItemServiceImpl(repository, new ServiceItemValidator(repository),
+                mock(ServiceCatalogService.class, withSettings().stubOnly()),
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()),
+                mock(EntityManager.class, withSettings().stubOnly()),
+                mock(BackgroundJobService.class, withSettings().stubOnly()),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void importCsv() throws CSVImportException {
+        serviceItemService.importCSV(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parseOnly(Blackhole blackhole) throws IOException {
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8));
+                CSVParser parser = new CSVParser(reader, CSVFormat.Builder.create()
+                        .setHeader("name", "price", "vatRate", "warrantyDays", "active")
+                        .setSkipHeaderRecord(true).build())) {
+            for (CSVRecord csvRecord : parser) {
+                blackhole.consume(csvRecord.get("name"));
+                blackhole.consume(csvRecord.get("price"));
+                blackhole.consume(csvRecord.get("vatRate"));
+                blackhole.consume(csvRecord.get("warrantyDays"));
+                blackhole.consume(csvRecord.get("active"));
+            }
+        }
+    }
+}
\ No newline at end of file
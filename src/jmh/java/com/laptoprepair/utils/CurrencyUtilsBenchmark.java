@@ -0,0 +1,87 @@
+package com.laptoprepair.utils;
+
+import com.laptoprepair.entity.RequestItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the money calculations run on every request save and every list of
+ * line totals. Amounts carry scale 2 as they come back from the database, and
+ * {@code items} is the number of lines on the request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurrencyUtilsBenchmark {
+
+    private BigDecimal price;
+    private BigDecimal discount;
+    private int quantity;
+    private BigDecimal vatRate;
+
+    @Setup
+    public void setUp() {
+        price = new BigDecimal("1250000.00");
+        discount = new BigDecimal("50000.00");
+        quantity = 2;
+        vatRate = new BigDecimal("0.10");
+    }
+
+    /** The lines of one request; only the request benchmarks run per size. */
+    @State(Scope.Benchmark)
+    public static class RequestLines {
+        @Param({ "3", "20" })
+        public int items;
+
+        List<RequestItem> requestItems;
+
+        @Setup
+        public void setUp() {
+            requestItems = new ArrayList<>();
+            for (int i = 0; i < items; i++) {
+                RequestItem item = new RequestItem();
+                item.setServiceItemId(UUID.randomUUID());
+                item.setName("Linh kiện " + i);
+                item.setPrice(new BigDecimal(150000 + i * 10000).setScale(2));
+                item.setVatRate(new BigDecimal(i % 2 == 0 ? "0.10" : "0.08"));
+                item.setDiscount(i % 3 == 0 ? new BigDecimal("10000.00") : BigDecimal.ZERO.setScale(2));
+                item.setQuantity(1 + i % 3);
+                requestItems.add(item);
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateLineTotal() {
+        return CurrencyUtils.calculateLineTotal(price, discount, quantity, vatRate);
+    }
+
+    @Benchmark
+    public BigDecimal calculateRequestSubtotal(RequestLines lines) {
+        return CurrencyUtils.calculateRequestSubtotal(lines.requestItems);
+    }
+
+    @Benchmark
+    public BigDecimal calculateRequestTotal(RequestLines lines) {
+        return CurrencyUtils.calculateRequestTotal(lines.requestItems);
+    }
+}
\ No newline at end of file
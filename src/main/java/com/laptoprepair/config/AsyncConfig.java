@@ -2,15 +2,22 @@ package com.laptoprepair.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 /**
- * Configuration for async task execution
+ * Configuration for async task execution.
+ * With {@code spring.threads.virtual.enabled}, Spring Boot runs Tomcat request
+ * handling and scheduled tasks on virtual threads; the executors below follow
+ * the same setting.
  */
 @Configuration
 @EnableAsync
@@ -18,18 +25,85 @@ public class AsyncConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Runs Spring MVC async work: streamed chat responses and CSV exports.
+     * Spring Boot only creates this executor when no other executor is
+     * defined, so it is declared here: a virtual thread per task in
+     * virtual-thread mode, Spring Boot's default pool otherwise.
+     */
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor(SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+            ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+        if (virtualThreads) {
+            return simpleAsyncTaskExecutorBuilder.build();
+        }
+        return threadPoolTaskExecutorBuilder.build();
+    }
+
+    /**
+     * Drains the email outbox. Emails are stored before they are sent and only
+     * one drain loop runs at a time, so a single thread is enough; a rejected
+     * task just leaves the emails for the next outbox poll.
+     */
     @Bean(name = "emailTaskExecutor")
     public Executor emailTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        applyThreadMode(executor, "Email-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs long background jobs such as CSV imports. Kept small so a burst of
+     * imports cannot starve the database pool; submissions beyond the queue are
+     * rejected and reported to the user instead of being dropped silently.
+     */
+    @Bean(name = "jobTaskExecutor")
+    public Executor jobTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        applyThreadMode(executor, "Job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Generates resized image variants. Decoding photos is memory-heavy, so
+     * only a couple run at once; rejected tasks just leave the original image
+     * in use.
+     */
+    @Bean(name = "imageTaskExecutor")
+    public Executor imageTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
         executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Email-");
+        applyThreadMode(executor, "Image-");
         executor.setRejectedExecutionHandler((r, executor1) -> {
             // Log the rejection and continue
-            logger.error("Email task rejected: {}", r.toString());
+            logger.error("Image task rejected: {}", r.toString());
         });
         executor.initialize();
         return executor;
     }
+
+    /**
+     * In virtual-thread mode the pool keeps its size and queue limits, which
+     * protect the database pool and memory, but runs each task on a virtual
+     * thread so blocking I/O does not hold a platform thread.
+     */
+    private void applyThreadMode(ThreadPoolTaskExecutor executor, String threadNamePrefix) {
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        }
+    }
 }
\ No newline at end of file
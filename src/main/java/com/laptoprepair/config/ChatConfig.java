@@ -4,9 +4,12 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepository;
+import org.springframework.ai.chat.memory.repository.jdbc.JdbcChatMemoryRepositoryDialect;
 import org.springframework.ai.chat.memory.repository.jdbc.PostgresChatMemoryRepositoryDialect;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 
+import com.laptoprepair.repository.CachingChatMemoryRepository;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +32,16 @@ public class ChatConfig {
     @Value("${app.chat.max-user-messages}")
     private int maxUserMessages;
 
+    @Value("${app.chat.memory.cache.max-conversations:1000}")
+    private int maxCachedConversations;
+
+    @Value("${app.chat.memory.max-write-delay-millis:10000}")
+    private long maxWriteDelayMillis;
+
+    // Defaults to the flush interval, within which another instance writes a finished turn
+    @Value("${app.chat.memory.cache.revalidate-after-millis:${app.chat.memory.flush-interval-millis:1000}}")
+    private long revalidateAfterMillis;
+
     private final JdbcTemplate jdbcTemplate;
     private final Environment environment;
 
@@ -42,21 +55,36 @@ public class ChatConfig {
         return promptResource.getContentAsString(StandardCharsets.UTF_8);
     }
 
-    @Bean
-    public ChatMemory chatMemory() {
-        JdbcChatMemoryRepository.Builder builder = JdbcChatMemoryRepository.builder()
-                .jdbcTemplate(jdbcTemplate);
-
+    /**
+     * Chat memory repository that caches conversations and writes new messages
+     * in batches; pending messages are written on shutdown.
+     */
+    @Bean(destroyMethod = "flushAll")
+    public CachingChatMemoryRepository chatMemoryRepository() {
         // Configure dialect based on active profile
+        JdbcChatMemoryRepositoryDialect dialect = null;
         for (String profile : environment.getActiveProfiles()) {
             if ("prod".equals(profile)) {
-                builder.dialect(new PostgresChatMemoryRepositoryDialect());
+                dialect = new PostgresChatMemoryRepositoryDialect();
                 break;
             }
         }
+        if (dialect == null) {
+            dialect = JdbcChatMemoryRepositoryDialect.from(jdbcTemplate.getDataSource());
+        }
 
+        JdbcChatMemoryRepository jdbcRepository = JdbcChatMemoryRepository.builder()
+                .jdbcTemplate(jdbcTemplate)
+                .dialect(dialect)
+                .build();
+        return new CachingChatMemoryRepository(jdbcRepository, jdbcTemplate, dialect.getInsertMessageSql(),
+                maxCachedConversations, maxWriteDelayMillis, revalidateAfterMillis);
+    }
+
+    @Bean
+    public ChatMemory chatMemory(CachingChatMemoryRepository chatMemoryRepository) {
         return MessageWindowChatMemory.builder()
-                .chatMemoryRepository(builder.build())
+                .chatMemoryRepository(chatMemoryRepository)
                 .maxMessages(maxUserMessages * 3)
                 .build();
     }
@@ -0,0 +1,72 @@
+package com.laptoprepair.config;
+
+import com.sendgrid.Client;
+import com.sendgrid.SendGrid;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the email transports. The SendGrid client is created once
+ * and shares a pool of keep-alive HTTPS connections, instead of opening a new
+ * HTTP client and TLS handshake for every message.
+ */
+@Configuration
+public class EmailConfig {
+
+    @Value("${sendgrid.api.key}")
+    private String sendGridApiKey;
+
+    // Points the client at a local stand-in when set, e.g. localhost:8025
+    @Value("${sendgrid.api.host:api.sendgrid.com}")
+    private String sendGridHost;
+
+    @Value("${sendgrid.api.plain-http:false}")
+    private boolean sendGridPlainHttp;
+
+    @Value("${sendgrid.http.max-connections:10}")
+    private int maxConnections;
+
+    @Value("${sendgrid.http.connect-timeout-millis:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${sendgrid.http.socket-timeout-millis:30000}")
+    private int socketTimeoutMillis;
+
+    @Bean(destroyMethod = "close")
+    @Profile("prod")
+    public CloseableHttpClient sendGridHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                60, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        // Drop connections the server closed while they sat idle in the pool
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(socketTimeoutMillis)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    @Profile("prod")
+    public SendGrid sendGrid(CloseableHttpClient sendGridHttpClient) {
+        SendGrid sendGrid = new SendGrid(sendGridApiKey, new Client(sendGridHttpClient, sendGridPlainHttp));
+        sendGrid.setHost(sendGridHost);
+        return sendGrid;
+    }
+}
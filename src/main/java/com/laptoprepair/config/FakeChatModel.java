@@ -0,0 +1,103 @@
+package com.laptoprepair.config;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in for the OpenAI chat model, active with the {@code fake-llm}
+ * profile, so the chat endpoint can be load tested without API calls.
+ * Answers {@code app.fake-llm.response} (a canned answer by default) with
+ * {@code {message}} replaced by the customer's message, one word per chunk:
+ * the first after {@code first-token-delay-millis}, the rest
+ * {@code token-delay-millis} apart. Every {@code error-every}-th answer fails after
+ * {@code error-after-tokens} chunks, so the same run always fails the same
+ * answers.
+ */
+@Component
+@Profile("fake-llm")
+public class FakeChatModel implements ChatModel {
+
+    private static final Pattern TOKEN = Pattern.compile("\\S+\\s*");
+
+    // Kept here rather than in the properties file, which is read as ISO-8859-1
+    private static final String DEFAULT_RESPONSE = "Cảm ơn bạn đã liên hệ cửa hàng. Về câu hỏi \"{message}\", "
+            + "nhân viên kỹ thuật sẽ kiểm tra máy và báo giá trước khi sửa. Bạn có thể gửi yêu cầu sửa chữa "
+            + "trên trang web hoặc mang máy đến cửa hàng.";
+
+    @Value("${app.fake-llm.response:}")
+    private String response;
+
+    @Value("${app.fake-llm.first-token-delay-millis:300}")
+    private long firstTokenDelayMillis;
+
+    @Value("${app.fake-llm.token-delay-millis:25}")
+    private long tokenDelayMillis;
+
+    @Value("${app.fake-llm.error-every:0}")
+    private int errorEvery;
+
+    @Value("${app.fake-llm.error-after-tokens:3}")
+    private int errorAfterTokens;
+
+    private final AtomicLong answers = new AtomicLong();
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String text = stream(prompt)
+                .map(chunk -> chunk.getResult().getOutput().getText())
+                .collect(Collectors.joining())
+                .block();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        List<String> tokens = tokens(prompt);
+        boolean fail = errorEvery > 0 && answers.incrementAndGet() % errorEvery == 0;
+        if (fail) {
+            tokens = tokens.subList(0, Math.min(errorAfterTokens, tokens.size()));
+        }
+
+        Flux<ChatResponse> chunks = Flux.concat(
+                Mono.just(tokens.get(0)).delayElement(Duration.ofMillis(firstTokenDelayMillis)),
+                Flux.fromIterable(tokens.subList(1, tokens.size())).delayElements(Duration.ofMillis(tokenDelayMillis)))
+                .map(token -> new ChatResponse(List.of(new Generation(new AssistantMessage(token)))));
+        if (fail) {
+            return chunks.concatWith(Flux.error(new NonTransientAiException("Injected fake model error")));
+        }
+        ChatGenerationMetadata stop = ChatGenerationMetadata.builder().finishReason("STOP").build();
+        return chunks.concatWithValues(new ChatResponse(List.of(new Generation(new AssistantMessage(""), stop))));
+    }
+
+    private List<String> tokens(Prompt prompt) {
+        String message = prompt.getUserMessage() != null ? prompt.getUserMessage().getText() : "";
+        String template = response.isBlank() ? DEFAULT_RESPONSE : response;
+        Matcher matcher = TOKEN.matcher(template.replace("{message}", message));
+        List<String> tokens = new ArrayList<>();
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        if (tokens.isEmpty()) {
+            tokens.add("");
+        }
+        return tokens;
+    }
+}
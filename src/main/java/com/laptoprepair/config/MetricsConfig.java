@@ -0,0 +1,76 @@
+package com.laptoprepair.config;
+
+import com.laptoprepair.service.ChatResponseCacheService;
+import com.laptoprepair.service.ServiceCatalogService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for application metrics.
+ * Spring Boot exposes everything registered with the {@link MeterRegistry} at
+ * {@code /actuator/prometheus}; this class enables {@code @Timed} on service
+ * methods and publishes the counters the in-memory caches already keep.
+ * Business meters are named {@code repair.*} and recorded where the work
+ * happens.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String CACHE_GETS = "repair.cache.gets";
+    private static final String CACHE_SIZE = "repair.cache.size";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Reads the cache counters on every scrape, tagged with the cache name.
+     * The hit rate is gets{result="hit"} over all gets.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(ServiceCatalogService serviceCatalog,
+            ChatResponseCacheService chatResponseCache) {
+        return registry -> {
+            String catalog = "service-catalog";
+            FunctionCounter.builder(CACHE_GETS, serviceCatalog, cache -> cache.getStats().hits())
+                    .tags("cache", catalog, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder(CACHE_GETS, serviceCatalog, cache -> cache.getStats().misses())
+                    .tags("cache", catalog, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("repair.cache.invalidations", serviceCatalog,
+                    cache -> cache.getStats().invalidations())
+                    .tags("cache", catalog)
+                    .register(registry);
+            Gauge.builder(CACHE_SIZE, serviceCatalog, cache -> cache.getStats().size())
+                    .tags("cache", catalog)
+                    .register(registry);
+
+            String chat = "chat-response";
+            FunctionCounter.builder(CACHE_GETS, chatResponseCache, cache -> cache.getStats().hits())
+                    .tags("cache", chat, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder(CACHE_GETS, chatResponseCache, cache -> cache.getStats().misses())
+                    .tags("cache", chat, "result", "miss")
+                    .register(registry);
+            // Part of the hits: answers served for a similar rather than the same question
+            FunctionCounter.builder("repair.cache.similar.hits", chatResponseCache,
+                    cache -> cache.getStats().similarHits())
+                    .tags("cache", chat)
+                    .register(registry);
+            FunctionCounter.builder("repair.cache.evictions", chatResponseCache,
+                    cache -> cache.getStats().evictions())
+                    .tags("cache", chat)
+                    .register(registry);
+            Gauge.builder(CACHE_SIZE, chatResponseCache, cache -> cache.getStats().size())
+                    .tags("cache", chat)
+                    .register(registry);
+        };
+    }
+}
\ No newline at end of file
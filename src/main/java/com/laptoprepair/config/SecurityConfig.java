@@ -2,12 +2,19 @@ package com.laptoprepair.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -51,10 +58,39 @@ public class SecurityConfig {
                         "/images/**",
                         "/public/**",
                         "/api/chat/**",
-                        "/actuator/**",
         };
 
+        /**
+         * Actuator endpoints get a chain of their own. Health stays open for the
+         * platform's health checks; the Prometheus scrape endpoint shows request,
+         * email and import volumes, so it needs HTTP Basic credentials from
+         * {@code app.security.metrics.users}. Staff logins are not accepted here,
+         * and scrape credentials are not accepted anywhere else.
+         */
         @Bean
+        @Order(1)
+        public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder)
+                        throws Exception {
+                // Own manager without the global one as parent, so staff users do not fall through
+                DaoAuthenticationProvider metricsUsers = new DaoAuthenticationProvider();
+                metricsUsers.setUserDetailsService(new InMemoryUserDetailsManager(
+                                parseUsers("app.security.metrics.users", "METRICS", passwordEncoder)));
+                metricsUsers.setPasswordEncoder(passwordEncoder);
+                return http
+                                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                                .authorizeHttpRequests(auth -> auth
+                                                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                                                .anyRequest().hasRole("METRICS"))
+                                .authenticationManager(new ProviderManager(metricsUsers))
+                                .httpBasic(Customizer.withDefaults())
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                                .csrf(csrf -> csrf.disable())
+                                .build();
+        }
+
+        @Bean
+        @Order(2)
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 return http
                                 .authorizeHttpRequests(auth -> auth
@@ -99,7 +135,19 @@ public class SecurityConfig {
 
         @Bean
         public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
-                String usersConfig = environment.getProperty("app.security.staff.users");
+                return new InMemoryUserDetailsManager(parseUsers("app.security.staff.users", "STAFF", passwordEncoder));
+        }
+
+        /**
+         * Reads users from a comma-separated list of username:password pairs.
+         *
+         * @param property        The property holding the list.
+         * @param role            The role given to every user of the list.
+         * @param passwordEncoder The encoder for the configured passwords.
+         * @return The users, empty if the property is not set.
+         */
+        private List<UserDetails> parseUsers(String property, String role, PasswordEncoder passwordEncoder) {
+                String usersConfig = environment.getProperty(property);
                 List<UserDetails> users = new ArrayList<>();
 
                 if (usersConfig != null && !usersConfig.isEmpty()) {
@@ -113,19 +161,19 @@ public class SecurityConfig {
                                         UserDetails user = User.builder()
                                                         .username(username)
                                                         .password(encodedPassword)
-                                                        .roles("STAFF")
+                                                        .roles(role)
                                                         .build();
                                         users.add(user);
                                 } else {
-                                        logger.warn("Invalid user config format: {}", userConfig);
+                                        logger.warn("Invalid user config format in {}: {}", property, userConfig);
                                 }
                         }
                 } else {
-                        logger.warn("No STAFF_USERS configuration found - no users will be created");
+                        logger.warn("No {} configuration found - no {} users will be created", property, role);
                 }
 
-                logger.info("Created {} users for authentication", users.size());
-                return new InMemoryUserDetailsManager(users);
+                logger.info("Created {} {} users for authentication", users.size(), role);
+                return users;
         }
 
 }
@@ -1,12 +1,18 @@
 package com.laptoprepair.config;
 
 import com.laptoprepair.interceptor.RateLimitInterceptor;
+import jakarta.servlet.MultipartConfigElement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.format.DateTimeFormatter;
@@ -15,13 +21,9 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
-    private final RateLimitInterceptor rateLimitInterceptor;
+    private static final String SERVICE_ITEM_IMPORT_PATH = "/staff/service-items/import";
 
-    @Override
-    public void addResourceHandlers(@org.springframework.lang.NonNull ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:uploads/");
-    }
+    private final RateLimitInterceptor rateLimitInterceptor;
 
     @Override
     public void addFormatters(@org.springframework.lang.NonNull FormatterRegistry registry) {
@@ -37,4 +39,25 @@ public class WebConfig implements WebMvcConfigurer {
                 .addPathPatterns("/submit", "/lookup", "/recover", "/login");
     }
 
+    /**
+     * Serves the service item CSV import through a second dispatcher servlet
+     * with a multipart limit of its own. Tomcat applies the multipart limits
+     * of the servlet a request is mapped to, before any authorization, so the
+     * application-wide spring.servlet.multipart limits stay low for the public
+     * forms and only this staff endpoint accepts large files. The servlet
+     * shares the application context, so the request still goes through the
+     * security filters and ServiceItemController.
+     */
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> serviceItemImportServletRegistration(
+            WebApplicationContext webApplicationContext,
+            @Value("${app.service-items.import.max-file-size:100MB}") DataSize maxFileSize) {
+        ServletRegistrationBean<DispatcherServlet> registration = new ServletRegistrationBean<>(
+                new DispatcherServlet(webApplicationContext), SERVICE_ITEM_IMPORT_PATH);
+        registration.setName("serviceItemImportServlet");
+        registration.setMultipartConfig(new MultipartConfigElement(null, maxFileSize.toBytes(),
+                maxFileSize.toBytes(), 0));
+        return registration;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.laptoprepair.controller;
+
+import com.laptoprepair.dto.BackgroundJobProgress;
+import com.laptoprepair.exception.NotFoundException;
+import com.laptoprepair.service.BackgroundJobService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Controller for following background jobs.
+ * Provides a JSON endpoint that the staff UI polls for job progress.
+ * Requires STAFF role for access.
+ */
+@Controller
+@RequestMapping("/staff/jobs")
+@PreAuthorize("hasRole('STAFF')")
+@RequiredArgsConstructor
+public class BackgroundJobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<BackgroundJobProgress> progress(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(BackgroundJobProgress.from(backgroundJobService.findById(id)));
+        } catch (NotFoundException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.laptoprepair.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,39 +9,52 @@ import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import com.laptoprepair.interceptor.RateLimiter;
+import com.laptoprepair.repository.CachingChatMemoryRepository;
+import com.laptoprepair.service.ChatResponseCacheService;
 
 import reactor.core.publisher.Flux;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * REST controller for handling chat interactions with an AI model.
- * Provides an endpoint for streaming chat responses with rate limiting and
- * conversation memory.
+ * Provides an endpoint for streaming chat responses with rate limiting,
+ * conversation memory and cached answers to common opening questions.
  */
 @RestController
 @RequestMapping("/api/chat")
 public class ChatController {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+    // Token counts are recorded by Spring AI as gen_ai.client.token.usage
+    private static final String FIRST_TOKEN_TIMER = "repair.chat.first.token";
     private final ChatClient chatClient;
     private final RateLimiter rateLimiter;
+    private final CachingChatMemoryRepository chatMemoryRepository;
     private final ChatMemory chatMemory;
+    private final ChatResponseCacheService chatResponseCacheService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.chat.max-user-messages}")
     private int maxUserMessages;
 
-    public ChatController(ChatClient chatClient, RateLimiter rateLimiter, ChatMemory chatMemory) {
+    public ChatController(ChatClient chatClient, RateLimiter rateLimiter,
+            CachingChatMemoryRepository chatMemoryRepository, ChatMemory chatMemory,
+            ChatResponseCacheService chatResponseCacheService, MeterRegistry meterRegistry) {
         this.chatClient = chatClient;
         this.rateLimiter = rateLimiter;
+        this.chatMemoryRepository = chatMemoryRepository;
         this.chatMemory = chatMemory;
+        this.chatResponseCacheService = chatResponseCacheService;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -72,29 +86,63 @@ public class ChatController {
                 ? conversationId.trim()
                 : UUID.randomUUID().toString();
 
+        int userMessageCount = 0;
         if (conversationId != null && !conversationId.trim().isEmpty()) {
-            List<Message> existingMessages = chatMemory.get(sessionId);
-            long userMessageCount = existingMessages.stream()
-                    .filter(msg -> msg.getMessageType() == MessageType.USER)
-                    .count();
+            userMessageCount = chatMemoryRepository.countUserMessages(sessionId);
 
             if (userMessageCount >= maxUserMessages) {
                 return Flux.just(createErrorResponse("Đã đạt giới hạn " + maxUserMessages
                         + " tin nhắn. Vui lòng nhấn nút làm mới cuộc trò chuyện."));
             }
+        } else {
+            // A new conversation has nothing stored yet
+            chatMemoryRepository.startConversation(sessionId);
         }
 
-        return chatClient.prompt()
-                .user(message.trim())
+        String question = message.trim();
+        // Only opening questions are cached; later answers depend on the conversation
+        boolean openingQuestion = userMessageCount == 0;
+        if (openingQuestion) {
+            List<String> cachedAnswer = chatResponseCacheService.findAnswer(question);
+            if (cachedAnswer != null) {
+                chatMemory.add(sessionId, List.of(new UserMessage(question),
+                        new AssistantMessage(String.join("", cachedAnswer))));
+                return timeFirstToken(chatResponseCacheService.replay(cachedAnswer), "cache");
+            }
+        }
+
+        Flux<ChatResponse> responses = chatClient.prompt()
+                .user(question)
                 .advisors(advisor -> advisor.param(ChatMemory.CONVERSATION_ID, sessionId))
                 .stream()
-                .chatResponse()
+                .chatResponse();
+        if (openingQuestion) {
+            responses = chatResponseCacheService.record(question, responses);
+        }
+        return timeFirstToken(responses, "model")
                 .onErrorResume(e -> {
                     logger.error("Chat streaming error: {}", e.getMessage(), e);
                     return Flux.just(createErrorResponse("Đã xảy ra lỗi khi kết nối với AI. Vui lòng thử lại sau."));
                 });
     }
 
+    /**
+     * Records the time from subscription to the first chunk, i.e. how long the
+     * customer waits before the answer starts to appear.
+     */
+    private Flux<ChatResponse> timeFirstToken(Flux<ChatResponse> responses, String source) {
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return responses.doOnNext(response -> {
+                if (first.compareAndSet(true, false)) {
+                    meterRegistry.timer(FIRST_TOKEN_TIMER, "source", source)
+                            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        });
+    }
+
     private ChatResponse createErrorResponse(String message) {
         return new ChatResponse(List.of(new Generation(new AssistantMessage(message))));
     }
@@ -0,0 +1,51 @@
+package com.laptoprepair.controller;
+
+import com.laptoprepair.exception.NotFoundException;
+import com.laptoprepair.service.ImageService;
+import com.laptoprepair.service.ImageService.StoredImage;
+import com.laptoprepair.utils.FileResponseUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Controller for serving request images and their variants.
+ * Stored filenames are random and their content never changes, so responses
+ * can be cached by browsers for a year without revalidation.
+ */
+@Controller
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // An original served in place of a missing variant must not be cached under the variant's URL
+    private static final String REVALIDATE_CACHE_CONTROL = "no-cache";
+
+    private final ImageService imageService;
+
+    @GetMapping("/images/{requestId}/{filename:.+}")
+    public void image(@PathVariable UUID requestId, @PathVariable String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredImage image;
+        try {
+            image = imageService.findStoredImage(requestId, filename);
+        } catch (NotFoundException ex) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(image.path().getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        FileResponseUtils.writeFile(request, response, image.path(), contentType,
+                image.finalContent() ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+    }
+}
@@ -1,20 +1,24 @@
 package com.laptoprepair.controller;
 
+import com.laptoprepair.dto.CursorPage;
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.enums.RequestStatus;
+import com.laptoprepair.exception.ConflictException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.service.RequestService;
 import com.laptoprepair.utils.ValidationErrorUtil;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -39,29 +44,42 @@ public class RequestController {
     private final ValidationErrorUtil validationErrorUtil;
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Value("${app.upload.max-images-per-request}")
     private int maxImagesPerRequest;
 
     @GetMapping("/list")
     public String list(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false) Integer size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) RequestStatus status,
             Model model) {
 
-        if (size == null) {
-            size = DEFAULT_PAGE_SIZE;
-        }
+        // Out-of-range sizes would reach PageRequest.of and fail with a 500
+        size = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
 
-        Page<Request> requests = requestService.list(search, status, PageRequest.of(page, size));
+        // Only count matches on the first page; deeper pages stay constant-cost
+        boolean firstPage = cursor == null || cursor.isBlank();
+        CursorPage<Request> requests = requestService.listByCursor(search, status, cursor, size, firstPage);
         model.addAttribute("requests", requests);
         model.addAttribute("search", search);
         model.addAttribute("status", status);
         return "staff/request-list";
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCSV(
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=requests.csv")
+                .header(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8")
+                .body(out -> requestService.exportCSV(status, from, to, out));
+    }
+
     @GetMapping("/create")
     public String createForm(Model model, HttpServletRequest request) {
         populateForCreate(model, request);
@@ -152,6 +170,11 @@ public class RequestController {
             Request updated = requestService.update(id, incomingRequest, newImages, toDelete, note);
             redirectAttributes.addFlashAttribute("successMessage", "Yêu cầu đã được cập nhật thành công!");
             return "redirect:/staff/requests/edit/" + updated.getId();
+        } catch (ConflictException ex) {
+            // Show the latest data with its version; the stale form data is dropped
+            populateForEdit(requestService.findById(id), model, request);
+            model.addAttribute("errorMessage", ex.getMessage());
+            return "staff/request-form";
         } catch (ValidationException | NotFoundException ex) {
             Request existingRequest = requestService.findById(id);
             populateForEdit(existingRequest, model, request);
@@ -1,9 +1,12 @@
 package com.laptoprepair.controller;
 
+import com.laptoprepair.dto.ServiceItemSuggestion;
+import com.laptoprepair.entity.BackgroundJob;
 import com.laptoprepair.entity.ServiceItem;
 import com.laptoprepair.exception.CSVImportException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.exception.NotFoundException;
+import com.laptoprepair.service.ServiceCatalogService;
 import com.laptoprepair.service.ServiceItemService;
 import com.laptoprepair.utils.ValidationErrorUtil;
 
@@ -17,10 +20,12 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,8 +41,10 @@ import java.util.UUID;
 public class ServiceItemController {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_SUGGESTIONS = 50;
 
     private final ServiceItemService serviceItemService;
+    private final ServiceCatalogService serviceCatalogService;
     private final ValidationErrorUtil validationErrorUtil;
 
     @GetMapping
@@ -46,6 +53,7 @@ public class ServiceItemController {
             @RequestParam(required = false) Integer size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Boolean activeOnly,
+            @RequestParam(required = false) UUID importJob,
             Model model) {
         if (size == null) {
             size = DEFAULT_PAGE_SIZE;
@@ -57,15 +65,16 @@ public class ServiceItemController {
         model.addAttribute("activeOnly", activeOnly);
         model.addAttribute("search", search);
         model.addAttribute("newServiceItem", new ServiceItem());
+        model.addAttribute("importJobId", importJob);
         return "staff/service-items";
     }
 
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportCSV() {
+    public ResponseEntity<StreamingResponseBody> exportCSV() {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=service-items.csv")
                 .header(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8")
-                .body(serviceItemService.exportCSV());
+                .body(serviceItemService::exportCSV);
     }
 
     @PostMapping("/import")
@@ -75,12 +84,14 @@ public class ServiceItemController {
 
         // FIX: Local error handling thay vì GlobalExceptionHandler
         try {
-            serviceItemService.importCSV(file);
-            redirectAttributes.addFlashAttribute("successMessage", "Import CSV thành công!");
-            return "redirect:/staff/service-items";
-        } catch (CSVImportException ex) {
+            // Runs in the background; the page polls the job for progress
+            BackgroundJob job = serviceItemService.submitImportJob(file);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Đã nhận file CSV. Quá trình import đang được xử lý.");
+            return "redirect:/staff/service-items?importJob=" + job.getId();
+        } catch (CSVImportException | ValidationException ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            return list(0, null, null, null, model);
+            return list(0, null, null, null, null, model);
         }
     }
 
@@ -96,7 +107,7 @@ public class ServiceItemController {
             // Add field-specific error status for enhanced styling
             model.addAttribute("fieldHasErrors", validationErrorUtil.getFieldErrorStatus(bindingResult));
 
-            return list(0, null, null, null, model);
+            return list(0, null, null, null, null, model);
         }
 
         try {
@@ -105,7 +116,7 @@ public class ServiceItemController {
             return "redirect:/staff/service-items";
         } catch (ValidationException ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            return list(0, null, null, null, model);
+            return list(0, null, null, null, null, model);
         }
     }
 
@@ -122,7 +133,7 @@ public class ServiceItemController {
             // Add field-specific error status for enhanced styling
             model.addAttribute("fieldHasErrors", validationErrorUtil.getFieldErrorStatus(bindingResult));
 
-            return list(0, null, null, null, model);
+            return list(0, null, null, null, null, model);
         }
 
         try {
@@ -131,7 +142,7 @@ public class ServiceItemController {
             return "redirect:/staff/service-items";
         } catch (ValidationException | NotFoundException ex) {
             model.addAttribute("errorMessage", ex.getMessage());
-            return list(0, null, null, null, model);
+            return list(0, null, null, null, null, model);
         }
     }
 
@@ -144,7 +155,18 @@ public class ServiceItemController {
         if (size == null) {
             size = DEFAULT_PAGE_SIZE;
         }
-        // Only return active items for search
-        return serviceItemService.list(query, true, PageRequest.of(page, size));
+        // Only return active items for search, served from the cached catalog
+        return serviceCatalogService.searchActive(query, PageRequest.of(page, size));
+    }
+
+    @GetMapping("/suggest")
+    @ResponseBody
+    public List<ServiceItemSuggestion> suggest(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        // Autocomplete for the request item picker, served from the in-memory index
+        return serviceCatalogService.suggestActive(q, Math.min(Math.max(limit, 0), MAX_SUGGESTIONS)).stream()
+                .map(ServiceItemSuggestion::from)
+                .toList();
     }
 }
\ No newline at end of file
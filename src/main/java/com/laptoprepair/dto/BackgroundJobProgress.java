@@ -0,0 +1,21 @@
+package com.laptoprepair.dto;
+
+import com.laptoprepair.entity.BackgroundJob;
+
+import java.util.UUID;
+
+/**
+ * Snapshot of a {@link BackgroundJob} returned to the staff UI while it polls
+ * a running job. Carries the status code for logic and its label for display.
+ */
+public record BackgroundJobProgress(UUID id, String type, String name, String status, String statusLabel,
+        String badgeClass, boolean finished, Integer percent, int processedItems, int succeededItems,
+        int errorCount, String errorLog, String message) {
+
+    public static BackgroundJobProgress from(BackgroundJob job) {
+        return new BackgroundJobProgress(job.getId(), job.getType().getValue(), job.getName(),
+                job.getStatus().name(), job.getStatus().getValue(), job.getStatus().getBadgeClass(),
+                job.getStatus().isFinished(), job.getPercent(), job.getProcessedItems(), job.getSucceededItems(),
+                job.getErrorCount(), job.getErrorLog(), job.getMessage());
+    }
+}
@@ -0,0 +1,39 @@
+package com.laptoprepair.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A page of results fetched with keyset (seek) pagination.
+ * Navigation is done through opaque cursors instead of page numbers, so the
+ * cost of fetching a page does not depend on how deep it is.
+ *
+ * @param <T> The type of the page content.
+ */
+@Value
+public class CursorPage<T> {
+    List<T> content;
+    int size;
+    String nextCursor;
+    String previousCursor;
+
+    // Only populated when the caller asked for a count; null otherwise
+    Long totalElements;
+
+    public boolean hasContent() {
+        return !content.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public int getNumberOfElements() {
+        return content.size();
+    }
+}
@@ -0,0 +1,63 @@
+package com.laptoprepair.dto;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the staff request list, ordered by search rank ascending,
+ * then appointment date and ID descending. Encoded as an opaque URL-safe string
+ * so clients cannot depend on its structure.
+ *
+ * @param rank            The search rank of the boundary row (0 when not
+ *                        searching).
+ * @param appointmentDate The appointment date of the boundary row.
+ * @param id              The ID of the boundary row.
+ * @param backward        true to fetch the page before the boundary row, false
+ *                        to fetch the page after it.
+ */
+public record RequestCursor(int rank, LocalDateTime appointmentDate, UUID id, boolean backward) {
+
+    private static final String FORWARD = "a";
+    private static final String BACKWARD = "b";
+    private static final String SEPARATOR = "|";
+
+    public static RequestCursor after(Request request, int rank) {
+        return new RequestCursor(rank, request.getAppointmentDate(), request.getId(), false);
+    }
+
+    public static RequestCursor before(Request request, int rank) {
+        return new RequestCursor(rank, request.getAppointmentDate(), request.getId(), true);
+    }
+
+    public String encode() {
+        String raw = (backward ? BACKWARD : FORWARD) + SEPARATOR + rank + SEPARATOR + appointmentDate
+                + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param cursor The encoded cursor.
+     * @return The decoded cursor.
+     * @throws ValidationException if the cursor is malformed.
+     */
+    public static RequestCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0]))) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new RequestCursor(Integer.parseInt(parts[1]), LocalDateTime.parse(parts[2]),
+                    UUID.fromString(parts[3]), BACKWARD.equals(parts[0]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Liên kết phân trang không hợp lệ");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.laptoprepair.dto;
+
+import com.laptoprepair.entity.ServiceItem;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Lightweight projection of a {@link ServiceItem} returned by the staff item
+ * picker autocomplete. Carries only the fields needed to add a request item.
+ */
+public record ServiceItemSuggestion(UUID id, String name, BigDecimal price, BigDecimal vatRate,
+        int warrantyDays) {
+
+    public static ServiceItemSuggestion from(ServiceItem serviceItem) {
+        return new ServiceItemSuggestion(serviceItem.getId(), serviceItem.getName(), serviceItem.getPrice(),
+                serviceItem.getVatRate(), serviceItem.getWarrantyDays());
+    }
+}
@@ -0,0 +1,87 @@
+package com.laptoprepair.entity;
+
+import com.laptoprepair.enums.BackgroundJobStatus;
+import com.laptoprepair.enums.BackgroundJobType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Represents a long-running task, such as a CSV import, that runs outside the
+ * HTTP request thread. Progress and row errors are stored so that staff can
+ * follow the job from any page.
+ */
+@Entity
+@Table(name = "background_job")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BackgroundJob extends BaseEntity {
+
+    // Upper bound on stored error text; further errors are only counted
+    public static final int MAX_ERROR_LOG_LENGTH = 10000;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private BackgroundJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BackgroundJobStatus status = BackgroundJobStatus.QUEUED;
+
+    // What the job works on, e.g. the uploaded file name
+    private String name;
+
+    // Progress in job-specific units (bytes for imports); 0 total means unknown
+    @Column(name = "total_units")
+    private long totalUnits;
+
+    @Column(name = "processed_units")
+    private long processedUnits;
+
+    @Column(name = "processed_items")
+    private int processedItems;
+
+    @Column(name = "succeeded_items")
+    private int succeededItems;
+
+    @Column(name = "error_count")
+    private int errorCount;
+
+    // Newline-separated error messages, truncated to MAX_ERROR_LOG_LENGTH
+    @Column(name = "error_log", length = MAX_ERROR_LOG_LENGTH)
+    private String errorLog;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // The application instance that runs the job in memory
+    @Column(name = "owner_instance")
+    private UUID ownerInstance;
+
+    // Renewed by the owner while the job is active; once past, the job is failed as interrupted
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Progress as a percentage of total units, or null if the total is
+     * unknown.
+     */
+    public Integer getPercent() {
+        if (status == BackgroundJobStatus.COMPLETED) {
+            return 100;
+        }
+        if (totalUnits <= 0) {
+            return null;
+        }
+        return (int) Math.min(99, processedUnits * 100 / totalUnits);
+    }
+}
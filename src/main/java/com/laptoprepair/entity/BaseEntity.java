@@ -20,8 +20,9 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    // Time-ordered, so inserts append to the primary key index, except for @RandomUuid entities
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @CreatedDate
@@ -0,0 +1,57 @@
+package com.laptoprepair.entity;
+
+import com.laptoprepair.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Represents an email waiting to be delivered. Rows are written in the same
+ * transaction as the change that triggers the email, so a notification is
+ * stored exactly when the change commits and survives restarts until it has
+ * been sent.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class EmailOutbox extends BaseEntity {
+
+    // Identifies the notification; the same key is never enqueued twice
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 200)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    // Failed delivery attempts so far
+    @Column(nullable = false)
+    private int attempts;
+
+    // Earliest time of the next attempt; also the lease expiry while claimed
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set by the dispatcher that currently owns the row
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
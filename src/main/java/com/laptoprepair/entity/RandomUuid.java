@@ -0,0 +1,16 @@
+package com.laptoprepair.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity whose id is given out as an access token, so
+ * {@link UuidV7Generator} assigns it a random version 4 UUID instead of a
+ * time-ordered one.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RandomUuid {
+}
\ No newline at end of file
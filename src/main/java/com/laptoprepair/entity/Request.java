@@ -2,10 +2,12 @@ package com.laptoprepair.entity;
 
 import com.laptoprepair.enums.RequestStatus;
 import com.laptoprepair.utils.CurrencyUtils;
+import com.laptoprepair.utils.VietnameseTextUtils;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,8 +17,11 @@ import java.util.*;
  * Represents a repair request made by a customer.
  * Contains details about the customer, the device, the requested service, and
  * the status of the request.
+ * The id is the customer's link to {@code /public/request/{id}}, so it is a
+ * random UUID that cannot be guessed from the time the request was made.
  */
 @Entity
+@RandomUuid
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Request extends BaseEntity {
@@ -50,6 +55,18 @@ public class Request extends BaseEntity {
 
     private LocalDateTime completedAt;
 
+    // Denormalized totals, kept in sync by recalculateTotals() whenever items change
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "vat_amount")
+    private BigDecimal vatAmount = BigDecimal.ZERO;
+
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Accent-folded name, phone, device and serial; kept in sync by updateSearchText()
+    @Column(name = "search_text", length = 1000)
+    private String searchText;
+
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RequestItem> items = new ArrayList<>();
 
@@ -59,7 +76,63 @@ public class Request extends BaseEntity {
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RequestImage> images = new ArrayList<>();
 
-    public BigDecimal getTotal() {
-        return CurrencyUtils.calculateRequestTotal(items);
+    // Optimistic lock; the edit form posts back the version it was loaded with
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Rebuilds {@link #searchText} from the searchable fields. Runs automatically
+     * before every insert and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateSearchText() {
+        this.searchText = buildSearchText();
+    }
+
+    /**
+     * Computes the value of {@link #searchText} from the searchable fields
+     * without changing this request.
+     */
+    public String buildSearchText() {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (String value : new String[] { name, phone, brandModel, serialNumber }) {
+            if (value != null && !value.isBlank()) {
+                joiner.add(value);
+            }
+        }
+        return VietnameseTextUtils.fold(joiner.toString());
+    }
+
+    /**
+     * Relevance tier of this request for a folded search term, lower is better:
+     * 0 for an exact phone or serial match, 1 when a word starts with the term,
+     * 2 for any other match. Mirrors RequestRepository.SEARCH_RANK.
+     *
+     * @param foldedTerm search term already folded with VietnameseTextUtils
+     * @return the relevance tier, or 0 if there is no term
+     */
+    public int searchRank(String foldedTerm) {
+        if (foldedTerm == null) {
+            return 0;
+        }
+        if (foldedTerm.equals(phone)
+                || (serialNumber != null && foldedTerm.equals(serialNumber.toLowerCase(Locale.ROOT)))) {
+            return 0;
+        }
+        String text = searchText != null ? searchText : "";
+        return text.startsWith(foldedTerm) || text.contains(" " + foldedTerm) ? 1 : 2;
+    }
+
+    /**
+     * Recomputes the persisted subtotal, VAT and total columns from the current
+     * items. Must be called after any change to {@link #items}.
+     */
+    public void recalculateTotals() {
+        this.subtotal = CurrencyUtils.calculateRequestSubtotal(items);
+        this.total = CurrencyUtils.calculateRequestTotal(items);
+        this.vatAmount = total.subtract(subtotal);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.laptoprepair.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.laptoprepair.enums.ImageVariant;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -23,4 +24,12 @@ public class RequestImage extends BaseEntity {
 
     @Column(name = "images", nullable = false)
     private String filename;
+
+    public String getThumbnailFilename() {
+        return ImageVariant.THUMBNAIL.filenameFor(filename);
+    }
+
+    public String getMediumFilename() {
+        return ImageVariant.MEDIUM.filenameFor(filename);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.laptoprepair.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hibernate identifier generator producing time-ordered version 7 UUIDs
+ * (RFC 9562): a 48-bit Unix timestamp in milliseconds, a 12-bit counter and
+ * 62 random bits. New rows therefore land at the right edge of the primary
+ * key index instead of on random pages, while the column type stays
+ * {@code UUID}, so existing random ids need no migration.
+ * <p>
+ * Ids are strictly increasing within this JVM: the counter starts at a random
+ * value each millisecond and, if it overflows or the clock moves back, the
+ * timestamp of the previous id is carried forward.
+ * <p>
+ * A version 7 id reveals when its row was created and leaves only 62 bits to
+ * guess, so entities marked {@link RandomUuid}, whose id is the only secret
+ * guarding a public page, keep getting random version 4 UUIDs.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final long MAX_COUNTER = 0xFFF;
+
+    private static long lastMillis;
+    private static long counter;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        if (owner.getClass().isAnnotationPresent(RandomUuid.class)) {
+            return UUID.randomUUID();
+        }
+        return generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    /**
+     * Generates a new version 7 UUID.
+     *
+     * @return A UUID that sorts after every UUID previously generated here.
+     */
+    public static UUID generate() {
+        // Draw the random bits outside the lock, it is the slow part
+        long random = RANDOM.nextLong();
+        long millis = System.currentTimeMillis();
+        long timestamp;
+        long sequence;
+        synchronized (UuidV7Generator.class) {
+            if (millis > lastMillis) {
+                lastMillis = millis;
+                // Random start in the lower half, so a busy millisecond rarely overflows
+                counter = ThreadLocalRandom.current().nextInt(0x800);
+            } else if (++counter > MAX_COUNTER) {
+                lastMillis++;
+                counter = 0;
+            }
+            timestamp = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSigBits = timestamp << 16 | 0x7000 | sequence;
+        long leastSigBits = random & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
\ No newline at end of file
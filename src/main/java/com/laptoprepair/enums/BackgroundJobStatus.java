@@ -0,0 +1,41 @@
+package com.laptoprepair.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Defines the lifecycle states of a background job.
+ * Each status has a display value and a corresponding CSS class for UI
+ * representation.
+ */
+public enum BackgroundJobStatus {
+    QUEUED("Đang chờ", "bg-secondary"),
+    RUNNING("Đang xử lý", "bg-info"),
+    COMPLETED("Hoàn thành", "bg-success"),
+    FAILED("Thất bại", "bg-danger");
+
+    private final String value;
+    private final String badgeClass;
+
+    BackgroundJobStatus(String value, String badgeClass) {
+        this.value = value;
+        this.badgeClass = badgeClass;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public String getBadgeClass() {
+        return "badge " + badgeClass;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package com.laptoprepair.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Defines the kinds of work that run as background jobs.
+ */
+public enum BackgroundJobType {
+    SERVICE_ITEM_IMPORT("Import CSV dịch vụ");
+
+    private final String value;
+
+    BackgroundJobType(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.laptoprepair.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Defines the delivery states of an outgoing email in the outbox.
+ * Each status has a display value and a corresponding CSS class for UI
+ * representation.
+ */
+public enum EmailOutboxStatus {
+    PENDING("Đang chờ gửi", "bg-secondary"),
+    SENT("Đã gửi", "bg-success"),
+    FAILED("Gửi thất bại", "bg-danger");
+
+    private final String value;
+    private final String badgeClass;
+
+    EmailOutboxStatus(String value, String badgeClass) {
+        this.value = value;
+        this.badgeClass = badgeClass;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public String getBadgeClass() {
+        return "badge " + badgeClass;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
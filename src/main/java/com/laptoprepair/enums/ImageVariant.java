@@ -0,0 +1,49 @@
+package com.laptoprepair.enums;
+
+/**
+ * Defines the resized copies generated for every request image.
+ * Each variant has a filename suffix and the maximum length of its longest
+ * side in pixels. Variants are always stored as JPEG next to the original.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 320),
+    MEDIUM("medium", 1280);
+
+    private static final String EXTENSION = ".jpg";
+
+    private final String suffix;
+    private final int maxSize;
+
+    ImageVariant(String suffix, int maxSize) {
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the filename of this variant for an original image, e.g.
+     * {@code abc.png} becomes {@code abc_thumb.jpg}.
+     */
+    public String filenameFor(String originalFilename) {
+        int dot = originalFilename.lastIndexOf('.');
+        String baseName = dot > 0 ? originalFilename.substring(0, dot) : originalFilename;
+        return baseName + "_" + suffix + EXTENSION;
+    }
+
+    /**
+     * Returns the base name (without extension) of the original image for a
+     * variant filename, or null if the filename is not a variant.
+     */
+    public static String baseNameOf(String variantFilename) {
+        for (ImageVariant variant : values()) {
+            String ending = "_" + variant.suffix + EXTENSION;
+            if (variantFilename.endsWith(ending)) {
+                return variantFilename.substring(0, variantFilename.length() - ending.length());
+            }
+        }
+        return null;
+    }
+}
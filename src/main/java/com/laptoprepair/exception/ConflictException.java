@@ -0,0 +1,11 @@
+package com.laptoprepair.exception;
+
+/**
+ * Custom exception to indicate that a record was changed by someone else
+ * after the user loaded it, so saving would overwrite their changes.
+ */
+public class ConflictException extends ValidationException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.laptoprepair.interceptor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit store that keeps token buckets in this app instance's memory.
+ * Used when a single instance runs, so limits need no database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limiter.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final TokenBucketTable buckets;
+
+    @Autowired
+    public InMemoryRateLimitStore(@Value("${app.rate-limiter.max-keys:10000}") int maxKeys) {
+        this(new TokenBucketTable(TimeUnit.MINUTES.toMillis(1), maxKeys, () -> System.nanoTime() / 1_000_000));
+    }
+
+    InMemoryRateLimitStore(TokenBucketTable buckets) {
+        this.buckets = buckets;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int requestsPerMinute) {
+        return buckets.tryAcquire(key, requestsPerMinute);
+    }
+
+    @Override
+    public void evictIdle() {
+        buckets.evictIdle();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.laptoprepair.interceptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limit store shared by all app instances through PostgreSQL. Each key
+ * is counted in fixed one-minute windows in the {@code rate_limit_counter}
+ * table.
+ * <p>
+ * Requests are decided locally: the cluster-wide count from the last flush
+ * plus what this instance has admitted since. The local counts are flushed
+ * in one upsert per interval, which adds them to the shared counters and
+ * returns the new totals, so no request waits for the database. Between two
+ * flushes an instance does not see what the others admitted, so a burst
+ * spread over several instances can exceed the limit by that amount. If the
+ * database is unavailable, each instance keeps limiting on its own counts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limiter.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO rate_limit_counter (limit_key, window_start, request_count)
+            SELECT * FROM unnest(?::varchar[], ?::bigint[], ?::integer[])
+            ON CONFLICT (limit_key, window_start)
+            DO UPDATE SET request_count = rate_limit_counter.request_count + EXCLUDED.request_count
+            RETURNING limit_key, window_start, request_count""";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM rate_limit_counter WHERE window_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    // Counters of past windows that still have requests to flush
+    private final Queue<Counter> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Autowired
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate,
+            @Value("${app.rate-limiter.max-keys:10000}") int maxKeys) {
+        this(jdbcTemplate, maxKeys, System::currentTimeMillis);
+    }
+
+    JdbcRateLimitStore(JdbcTemplate jdbcTemplate, int maxKeys, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int requestsPerMinute) {
+        long window = currentWindow();
+        Counter counter = counters.get(key);
+        if (counter == null || counter.window != window) {
+            counter = counterFor(key, window);
+        }
+
+        while (true) {
+            Synced synced = counter.synced;
+            int admitted = counter.admitted.get();
+            if (synced.total + (admitted - synced.flushed) >= requestsPerMinute) {
+                return false;
+            }
+            if (counter.admitted.compareAndSet(admitted, admitted + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds the requests admitted since the last flush to the shared counters
+     * in a single statement and takes over the cluster-wide totals.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limiter.jdbc.flush-interval-millis:500}")
+    public void flush() {
+        // A set, since a counter retired during a failed flush is queued twice
+        // and one statement must not update the same row twice
+        Set<Counter> pending = new LinkedHashSet<>();
+        for (Counter counter; (counter = retired.poll()) != null;) {
+            pending.add(counter);
+        }
+        for (Counter counter : counters.values()) {
+            if (counter.hasUnflushed()) {
+                pending.add(counter);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Counter> batch = new ArrayList<>(pending);
+
+        int size = batch.size();
+        String[] keys = new String[size];
+        Long[] windows = new Long[size];
+        Integer[] counts = new Integer[size];
+        int[] flushedUpTo = new int[size];
+        for (int i = 0; i < size; i++) {
+            Counter counter = batch.get(i);
+            flushedUpTo[i] = counter.admitted.get();
+            keys[i] = counter.key;
+            windows[i] = counter.window;
+            counts[i] = flushedUpTo[i] - counter.synced.flushed;
+        }
+
+        Map<String, Integer> totals = new HashMap<>();
+        try {
+            jdbcTemplate.query(UPSERT_SQL, ps -> {
+                Connection connection = ps.getConnection();
+                ps.setArray(1, connection.createArrayOf("varchar", keys));
+                ps.setArray(2, connection.createArrayOf("bigint", windows));
+                ps.setArray(3, connection.createArrayOf("integer", counts));
+            }, rs -> {
+                totals.put(rs.getString(1) + "@" + rs.getLong(2), rs.getInt(3));
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not flush {} rate limit counters: {}", size, e.getMessage());
+            batch.stream().filter(counter -> !isCurrent(counter)).forEach(retired::add);
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            Integer total = totals.get(keys[i] + "@" + windows[i]);
+            if (total != null) {
+                batch.get(i).synced = new Synced(total, flushedUpTo[i]);
+            }
+        }
+    }
+
+    @Override
+    public void evictIdle() {
+        long window = currentWindow();
+        counters.values().removeIf(counter -> counter.window < window && !counter.hasUnflushed());
+        try {
+            jdbcTemplate.update(DELETE_EXPIRED_SQL, window - WINDOW_MILLIS);
+        } catch (DataAccessException e) {
+            logger.warn("Could not delete expired rate limit counters: {}", e.getMessage());
+        }
+    }
+
+    private Counter counterFor(String key, long window) {
+        Counter counter = counters.compute(key, (k, previous) -> {
+            if (previous != null && previous.window == window) {
+                return previous;
+            }
+            if (previous != null && previous.hasUnflushed()) {
+                retired.add(previous);
+            }
+            return new Counter(k, window);
+        });
+        if (counters.size() > maxKeys) {
+            evict(window);
+        }
+        return counter;
+    }
+
+    /**
+     * Keeps the local table under its limit by dropping counters whose
+     * requests are already in the database: first those of past windows,
+     * then current ones, which only lose the last known total.
+     */
+    private void evict(long window) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            counters.values().removeIf(counter -> counter.window < window && !counter.hasUnflushed());
+            if (counters.size() > maxKeys) {
+                counters.values().removeIf(counter -> !counter.hasUnflushed());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private boolean isCurrent(Counter counter) {
+        return counters.get(counter.key) == counter;
+    }
+
+    private long currentWindow() {
+        long now = clock.getAsLong();
+        return now - Math.floorMod(now, WINDOW_MILLIS);
+    }
+
+    /** Cluster-wide total from the last flush and the local count it included. */
+    private record Synced(int total, int flushed) {
+        static final Synced NONE = new Synced(0, 0);
+    }
+
+    private static final class Counter {
+        final String key;
+        final long window;
+        final AtomicInteger admitted = new AtomicInteger();
+        volatile Synced synced = Synced.NONE;
+
+        Counter(String key, long window) {
+            this.key = key;
+            this.window = window;
+        }
+
+        boolean hasUnflushed() {
+            return admitted.get() > synced.flushed;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.laptoprepair.interceptor;
+
+/**
+ * Holds the request counts behind {@link RateLimiter}. The in-memory store
+ * limits each app instance on its own; the JDBC store shares the counts
+ * between instances through the database.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Records a request for the key if it is within the limit.
+     *
+     * @param key               The client key, including the rate limit type.
+     * @param requestsPerMinute The limit for the key.
+     * @return true if the request is allowed.
+     */
+    boolean tryAcquire(String key, int requestsPerMinute);
+
+    /**
+     * Drops state for clients that have not sent requests recently.
+     */
+    void evictIdle();
+}
\ No newline at end of file
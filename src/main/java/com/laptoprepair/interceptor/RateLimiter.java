@@ -1,28 +1,38 @@
 package com.laptoprepair.interceptor;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Implements a simple rate limiting mechanism based on client IP address and
- * request type.
- * It uses a sliding window approach to limit the number of requests within a
- * specified time frame.
+ * Implements rate limiting based on client IP address and request type.
+ * Each client gets a token bucket per request type that holds the configured
+ * number of requests per minute and refills at the same rate, so short bursts
+ * are allowed while the sustained rate stays under the limit.
+ * Routes listed in {@code app.rate-limiter.route-limits} get a bucket and
+ * limit of their own instead of sharing the bucket of their type.
+ * The counts are kept in the configured {@link RateLimitStore}.
+ * Clients are keyed on the remote address, which the servlet container
+ * resolves from the X-Forwarded-For hops added by trusted proxies
+ * ({@code server.forward-headers-strategy}). The header itself is never read
+ * here, since its leading entries are whatever the client sent.
  */
 @Component
+@RequiredArgsConstructor
 public class RateLimiter {
 
-    private record Bucket(Instant windowStart, AtomicInteger count) {
-    }
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitStore rateLimitStore;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.rate-limiter.public.max-requests-per-minute:10}")
     private int publicMaxRequestsPerMinute;
@@ -30,12 +40,34 @@ public class RateLimiter {
     @Value("${app.rate-limiter.chat.max-requests-per-minute:20}")
     private int chatMaxRequestsPerMinute;
 
-    private static final int WINDOW_SIZE_SECONDS = 60;
+    private Map<String, Integer> routeLimits = Map.of();
+
+    /**
+     * Sets per-route limits from a comma-separated list of
+     * {@code path=requestsPerMinute} entries, e.g. {@code /login=5,/submit=10}.
+     *
+     * @param routeLimitsConfig The configured route limits.
+     */
+    @Value("${app.rate-limiter.route-limits:}")
+    void setRouteLimits(String routeLimitsConfig) {
+        Map<String, Integer> limits = new HashMap<>();
+        if (routeLimitsConfig != null && !routeLimitsConfig.isBlank()) {
+            for (String entry : routeLimitsConfig.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length == 2 && parts[1].trim().matches("\\d{1,9}")) {
+                    limits.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+                } else {
+                    logger.warn("Invalid route limit format: {}", entry);
+                }
+            }
+        }
+        this.routeLimits = Map.copyOf(limits);
+    }
 
     /**
      * Checks if a request is allowed based on a specific rate limit key prefix.
      * Requests to staff endpoints and static resources are always allowed.
-     * 
+     *
      * @param request   The HttpServletRequest to check.
      * @param keyPrefix A prefix to categorize the rate limit (e.g., "public",
      *                  "chat").
@@ -55,20 +87,15 @@ public class RateLimiter {
 
         // Apply rate limiting to specified endpoints
         if (shouldRateLimit(requestPath, keyPrefix)) {
-            String clientKey = keyPrefix + ":" + getClientKey(request);
-            Instant now = Instant.now();
-
-            buckets.compute(clientKey, (key, bucket) -> {
-                if (bucket == null || now.isAfter(bucket.windowStart.plusSeconds(WINDOW_SIZE_SECONDS))) {
-                    return new Bucket(now, new AtomicInteger(1));
-                } else {
-                    bucket.count.incrementAndGet();
-                    return bucket;
-                }
-            });
-
-            int maxRequests = getMaxRequestsForPrefix(keyPrefix);
-            return buckets.get(clientKey).count.get() <= maxRequests;
+            Integer routeLimit = routeLimits.get(requestPath);
+            boolean allowed = routeLimit != null
+                    ? rateLimitStore.tryAcquire(keyPrefix + ":" + requestPath + ":" + getClientKey(request), routeLimit)
+                    : rateLimitStore.tryAcquire(keyPrefix + ":" + getClientKey(request),
+                            getMaxRequestsForPrefix(keyPrefix));
+            if (!allowed) {
+                meterRegistry.counter("repair.rate.limiter.rejections", "limit", keyPrefix).increment();
+            }
+            return allowed;
         }
 
         return true;
@@ -99,16 +126,11 @@ public class RateLimiter {
     }
 
     private String getClientKey(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
         return request.getRemoteAddr();
     }
 
     @Scheduled(fixedRate = 300000) // Run every 5 minutes
     public void cleanupExpiredBuckets() {
-        Instant cutoff = Instant.now().minusSeconds(WINDOW_SIZE_SECONDS);
-        buckets.entrySet().removeIf(entry -> entry.getValue().windowStart.isBefore(cutoff));
+        rateLimitStore.evictIdle();
     }
 }
\ No newline at end of file
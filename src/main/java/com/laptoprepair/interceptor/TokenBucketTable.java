@@ -0,0 +1,158 @@
+package com.laptoprepair.interceptor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets keyed by client, with a bounded number of keys.
+ * Each bucket is a single {@link AtomicLong} packing the refill timestamp
+ * (upper 40 bits, milliseconds since the table was created) and the token
+ * count (lower 24 bits, in sixteenths of a token), updated with compare and
+ * set. A bucket holds up to {@code capacity} tokens and refills
+ * {@code capacity} tokens per window.
+ * <p>
+ * The refill timestamp doubles as the last access time. Buckets idle for a
+ * whole window are full again, so dropping them changes nothing; when the
+ * table grows past its limit those go first, then the least recently used.
+ */
+public final class TokenBucketTable {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long UNITS_PER_TOKEN = 16;
+    private static final long MAX_TIME = (1L << (Long.SIZE - TOKEN_BITS)) - 1;
+
+    /** Largest supported capacity; larger limits are clamped to it. */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / UNITS_PER_TOKEN);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long windowMillis;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final long origin;
+
+    /**
+     * @param windowMillis Time in which an empty bucket refills completely.
+     * @param maxKeys      Number of keys kept before eviction starts.
+     * @param clock        Monotonic time in milliseconds.
+     */
+    public TokenBucketTable(long windowMillis, int maxKeys, LongSupplier clock) {
+        if (windowMillis <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Window and key limit must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Takes one token from the key's bucket, creating a full bucket for a new
+     * key.
+     *
+     * @param key      The client key.
+     * @param capacity Tokens per window, which is also the burst size.
+     * @return true if a token was available.
+     */
+    public boolean tryAcquire(String key, int capacity) {
+        long capacityUnits = Math.min(Math.max(capacity, 0), MAX_CAPACITY) * UNITS_PER_TOKEN;
+        long now = now();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacityUnits)));
+            if (buckets.size() > maxKeys) {
+                evict(now);
+            }
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long units = state & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+
+            long refilledUnits;
+            long refilledAt;
+            if (elapsed >= windowMillis || units >= capacityUnits) {
+                refilledUnits = capacityUnits;
+                refilledAt = now;
+            } else {
+                long refill = elapsed * capacityUnits / windowMillis;
+                refilledUnits = Math.min(capacityUnits, units + refill);
+                // Only move the timestamp by the time the added units took, so
+                // frequent calls do not lose partial refills
+                refilledAt = refilledUnits == capacityUnits ? now : last + refill * windowMillis / capacityUnits;
+            }
+
+            if (refilledUnits < UNITS_PER_TOKEN) {
+                if (refilledUnits != units || refilledAt != last) {
+                    // Record the refill so the bucket counts as recently used
+                    bucket.compareAndSet(state, pack(refilledAt, refilledUnits));
+                }
+                return false;
+            }
+            if (bucket.compareAndSet(state, pack(refilledAt, refilledUnits - UNITS_PER_TOKEN))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have been idle for a whole window.
+     */
+    public void evictIdle() {
+        long cutoff = now() - windowMillis;
+        buckets.values().removeIf(bucket -> lastAccess(bucket) <= cutoff);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Brings the table back under its limit. Only one thread evicts at a
+     * time; the others carry on, so the table may briefly exceed the limit.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long cutoff = now - windowMillis;
+            buckets.values().removeIf(bucket -> lastAccess(bucket) <= cutoff);
+            if (buckets.size() <= maxKeys) {
+                return;
+            }
+
+            // Evict the least recently used down to three quarters of the
+            // limit, so a flood of new keys does not sort on every insert
+            long[] accessTimes = buckets.values().stream().mapToLong(TokenBucketTable::lastAccess).toArray();
+            Arrays.sort(accessTimes);
+            int target = maxKeys - maxKeys / 4;
+            int toEvict = accessTimes.length - target;
+            if (toEvict > 0) {
+                long lruCutoff = accessTimes[toEvict - 1];
+                buckets.values().removeIf(bucket -> lastAccess(bucket) <= lruCutoff);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private long now() {
+        return Math.min(MAX_TIME, clock.getAsLong() - origin);
+    }
+
+    private static long lastAccess(AtomicLong bucket) {
+        return bucket.get() >>> TOKEN_BITS;
+    }
+
+    private static long pack(long time, long units) {
+        return (time << TOKEN_BITS) | units;
+    }
+}
@@ -0,0 +1,133 @@
+package com.laptoprepair.repository;
+
+import com.laptoprepair.entity.BackgroundJob;
+import com.laptoprepair.enums.BackgroundJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for {@link BackgroundJob} entities.
+ */
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, UUID> {
+
+       /**
+        * Marks jobs in the given statuses whose lease has expired as failed.
+        * Jobs without a lease were started before leases existed and are
+        * failed as well.
+        * 
+        * @param statuses The statuses of interrupted jobs.
+        * @param message  The failure message to store.
+        * @param now      The current time, also recorded as the finish time.
+        * @return The number of jobs updated.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE BackgroundJob j SET j.status = com.laptoprepair.enums.BackgroundJobStatus.FAILED, " +
+                     "j.message = :message, j.finishedAt = :now " +
+                     "WHERE j.status IN :statuses AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)")
+       int failExpiredJobs(@Param("statuses") List<BackgroundJobStatus> statuses,
+                     @Param("message") String message,
+                     @Param("now") LocalDateTime now);
+
+       /**
+        * Extends the lease of an instance's jobs in the given statuses.
+        * 
+        * @param ownerInstance The instance that runs the jobs.
+        * @param statuses      The statuses of active jobs.
+        * @param leaseUntil    The new lease expiry.
+        * @return The number of jobs updated.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE BackgroundJob j SET j.leaseExpiresAt = :leaseUntil " +
+                     "WHERE j.ownerInstance = :ownerInstance AND j.status IN :statuses")
+       int renewLeases(@Param("ownerInstance") UUID ownerInstance,
+                     @Param("statuses") List<BackgroundJobStatus> statuses,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+       /**
+        * Moves a queued job to running, provided it is still queued and owned
+        * by the given instance.
+        * 
+        * @param id            The ID of the job.
+        * @param ownerInstance The instance that runs the job.
+        * @param startedAt     The start time.
+        * @param leaseUntil    The new lease expiry.
+        * @return 1 if the job was started, 0 if it was failed or taken over.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE BackgroundJob j SET j.status = com.laptoprepair.enums.BackgroundJobStatus.RUNNING, " +
+                     "j.startedAt = :startedAt, j.leaseExpiresAt = :leaseUntil " +
+                     "WHERE j.id = :id AND j.ownerInstance = :ownerInstance " +
+                     "AND j.status = com.laptoprepair.enums.BackgroundJobStatus.QUEUED")
+       int markRunning(@Param("id") UUID id,
+                     @Param("ownerInstance") UUID ownerInstance,
+                     @Param("startedAt") LocalDateTime startedAt,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+       /**
+        * Writes the progress of a job, provided it is still running and owned
+        * by the given instance, so that a job already failed as interrupted is
+        * never written back as running.
+        * 
+        * @param id             The ID of the job.
+        * @param ownerInstance  The instance that runs the job.
+        * @param processedUnits Units of work done.
+        * @param processedItems Items handled so far.
+        * @param succeededItems Items handled successfully so far.
+        * @param errorCount     Number of item errors so far.
+        * @param errorLog       The stored error messages, or null.
+        * @param leaseUntil     The new lease expiry.
+        * @return 1 if the progress was written, 0 if the job is no longer ours.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE BackgroundJob j SET j.processedUnits = :processedUnits, " +
+                     "j.processedItems = :processedItems, j.succeededItems = :succeededItems, " +
+                     "j.errorCount = :errorCount, j.errorLog = :errorLog, j.leaseExpiresAt = :leaseUntil " +
+                     "WHERE j.id = :id AND j.ownerInstance = :ownerInstance " +
+                     "AND j.status = com.laptoprepair.enums.BackgroundJobStatus.RUNNING")
+       int updateProgress(@Param("id") UUID id,
+                     @Param("ownerInstance") UUID ownerInstance,
+                     @Param("processedUnits") long processedUnits,
+                     @Param("processedItems") int processedItems,
+                     @Param("succeededItems") int succeededItems,
+                     @Param("errorCount") int errorCount,
+                     @Param("errorLog") String errorLog,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+       /**
+        * Records the outcome of a job, provided it is still running and owned
+        * by the given instance.
+        * 
+        * @param id            The ID of the job.
+        * @param ownerInstance The instance that runs the job.
+        * @param status        The final status.
+        * @param message       The completion or failure message.
+        * @param errorCount    Number of item errors.
+        * @param errorLog      The stored error messages, or null.
+        * @param finishedAt    The finish time.
+        * @return 1 if the outcome was written, 0 if the job is no longer ours.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE BackgroundJob j SET j.status = :status, j.message = :message, " +
+                     "j.errorCount = :errorCount, j.errorLog = :errorLog, j.finishedAt = :finishedAt " +
+                     "WHERE j.id = :id AND j.ownerInstance = :ownerInstance " +
+                     "AND j.status = com.laptoprepair.enums.BackgroundJobStatus.RUNNING")
+       int finish(@Param("id") UUID id,
+                     @Param("ownerInstance") UUID ownerInstance,
+                     @Param("status") BackgroundJobStatus status,
+                     @Param("message") String message,
+                     @Param("errorCount") int errorCount,
+                     @Param("errorLog") String errorLog,
+                     @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,379 @@
+package com.laptoprepair.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Write-back cache in front of the JDBC chat memory repository.
+ * <p>
+ * Conversations are read from the database once and then served from a
+ * size-bounded, least recently used in-process cache. Saving a conversation
+ * only updates the cache; new messages are written later by {@link #flush()}
+ * in one batch insert for all conversations. A conversation is written once
+ * its turn is complete, i.e. it ends with the assistant's answer, or after
+ * {@code maxWriteDelayMillis} if the answer never comes, so a chat turn
+ * costs at most one database write. Only when the message window drops old
+ * messages is the conversation rewritten as a whole.
+ * <p>
+ * The cache belongs to one app instance, while requests of a conversation may
+ * reach any instance. A cached conversation with all its messages written is
+ * therefore checked against the database once it has not been checked for
+ * {@code revalidateAfterMillis}: the row count and newest timestamp of its
+ * stored messages are compared with those last written or read here, and the
+ * conversation is read again only when they differ. Turns answered by another
+ * instance are thus seen before the next turn is counted or saved, at the cost
+ * of one index lookup per turn. A conversation that moves to another instance
+ * within that time, or before its messages are written, can still miss the
+ * latest turn. Conversations started here are not checked until their first
+ * write, since no other instance can have stored rows for them.
+ */
+public class CachingChatMemoryRepository implements ChatMemoryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingChatMemoryRepository.class);
+
+    // Answered from the (conversation_id, timestamp) index without reading the messages
+    private static final String STORED_STAMP_SQL = """
+            SELECT COUNT(*) AS message_count, MAX("timestamp") AS last_timestamp
+            FROM SPRING_AI_CHAT_MEMORY WHERE conversation_id = ?""";
+
+    private final ChatMemoryRepository delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertMessageSql;
+    private final long maxWriteDelayMillis;
+    private final long revalidateAfterMillis;
+    private final Map<String, Conversation> cache;
+    // Conversations with unwritten messages, kept even when evicted from the cache
+    private final Map<String, Conversation> dirty = new ConcurrentHashMap<>();
+    // Last timestamp written, so later messages always sort after earlier ones
+    private long lastTimestamp;
+
+    /**
+     * @param delegate            The repository that owns the stored messages.
+     * @param jdbcTemplate        Used to append new messages in batches.
+     * @param insertMessageSql    The delegate's insert statement.
+     * @param maxConversations    Number of conversations kept in the cache.
+     * @param maxWriteDelayMillis Longest time a message waits to be written.
+     * @param revalidateAfterMillis Age after which a cached conversation is
+     *                            checked against the database again.
+     */
+    public CachingChatMemoryRepository(ChatMemoryRepository delegate, JdbcTemplate jdbcTemplate,
+            String insertMessageSql, int maxConversations, long maxWriteDelayMillis, long revalidateAfterMillis) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertMessageSql = insertMessageSql;
+        this.maxWriteDelayMillis = maxWriteDelayMillis;
+        this.revalidateAfterMillis = revalidateAfterMillis;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                return size() > maxConversations;
+            }
+        });
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        Set<String> ids = new LinkedHashSet<>(delegate.findConversationIds());
+        ids.addAll(dirty.keySet());
+        return new ArrayList<>(ids);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        return conversation(conversationId).messages;
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        Conversation conversation = conversation(conversationId);
+        synchronized (conversation) {
+            if (!startsWith(messages, conversation.messages)) {
+                // The window dropped old messages, so the stored rows must be replaced
+                conversation.replaceVersion++;
+                conversation.replacePending = true;
+                conversation.persistedCount = 0;
+            }
+            conversation.messages = List.copyOf(messages);
+            conversation.userMessageCount = (int) messages.stream()
+                    .filter(message -> message.getMessageType() == MessageType.USER)
+                    .count();
+            if (conversation.hasUnpersisted()) {
+                if (conversation.pendingSince == 0) {
+                    conversation.pendingSince = System.currentTimeMillis();
+                }
+                dirty.put(conversationId, conversation);
+            }
+        }
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        cache.remove(conversationId);
+        dirty.remove(conversationId);
+        delegate.deleteByConversationId(conversationId);
+    }
+
+    /**
+     * Counts the user messages of a conversation without copying it.
+     *
+     * @param conversationId The conversation ID.
+     * @return The number of user messages in the conversation's window.
+     */
+    public int countUserMessages(String conversationId) {
+        return conversation(conversationId).userMessageCount;
+    }
+
+    /**
+     * Caches an empty conversation for an ID that was just generated, so its
+     * first turn does not look it up in the database.
+     *
+     * @param conversationId The new conversation ID.
+     */
+    public void startConversation(String conversationId) {
+        Conversation conversation = new Conversation(List.of(), Stamp.EMPTY);
+        conversation.startedHere = true;
+        cache.putIfAbsent(conversationId, conversation);
+    }
+
+    /**
+     * Drops conversations from the cache before their rows are deleted
+     * directly in the database. Conversations with unwritten messages are in
+     * use again and are kept.
+     *
+     * @param conversationIds The conversations to drop.
+     * @return The conversations that were dropped and may be deleted.
+     */
+    public List<String> evict(Collection<String> conversationIds) {
+        List<String> evicted = new ArrayList<>(conversationIds.size());
+        for (String conversationId : conversationIds) {
+            if (!dirty.containsKey(conversationId)) {
+                cache.remove(conversationId);
+                evicted.add(conversationId);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Writes conversations whose turn is complete or whose oldest unwritten
+     * message has waited too long.
+     */
+    @Scheduled(fixedDelayString = "${app.chat.memory.flush-interval-millis:1000}")
+    public void flush() {
+        long cutoff = System.currentTimeMillis() - maxWriteDelayMillis;
+        write(conversation -> conversation.turnComplete() || conversation.pendingSince <= cutoff);
+    }
+
+    /**
+     * Writes every conversation with unwritten messages, e.g. on shutdown.
+     */
+    public void flushAll() {
+        write(conversation -> true);
+    }
+
+    private synchronized void write(Predicate<Conversation> due) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Map.Entry<Snapshot, Stamp>> appended = new ArrayList<>();
+        List<Snapshot> replaced = new ArrayList<>();
+        long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp + 1);
+
+        for (Map.Entry<String, Conversation> entry : dirty.entrySet()) {
+            Conversation conversation = entry.getValue();
+            Snapshot snapshot;
+            synchronized (conversation) {
+                if (!conversation.hasUnpersisted() || !due.test(conversation)) {
+                    continue;
+                }
+                snapshot = new Snapshot(entry.getKey(), conversation, conversation.messages,
+                        conversation.persistedCount, conversation.replaceVersion, conversation.replacePending);
+            }
+            if (snapshot.replace) {
+                replaced.add(snapshot);
+                continue;
+            }
+            // Increasing timestamps keep the stored order, which reads sort by
+            for (Message message : snapshot.messages.subList(snapshot.persistedCount, snapshot.messages.size())) {
+                rows.add(new Object[] { snapshot.conversationId, message.getText(),
+                        message.getMessageType().name(), new Timestamp(timestamp++) });
+            }
+            appended.add(Map.entry(snapshot, new Stamp(snapshot.messages.size(), timestamp - 1)));
+        }
+
+        lastTimestamp = timestamp - 1;
+        if (!rows.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(insertMessageSql, rows);
+                appended.forEach(entry -> markPersisted(entry.getKey(), entry.getValue()));
+            } catch (DataAccessException e) {
+                logger.warn("Could not write {} chat messages, will retry: {}", rows.size(), e.getMessage());
+            }
+        }
+        for (Snapshot snapshot : replaced) {
+            try {
+                delegate.saveAll(snapshot.conversationId, snapshot.messages);
+                markPersisted(snapshot, storedStamp(snapshot.conversationId));
+            } catch (DataAccessException e) {
+                logger.warn("Could not rewrite chat conversation {}, will retry: {}", snapshot.conversationId,
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void markPersisted(Snapshot snapshot, Stamp stamp) {
+        Conversation conversation = snapshot.conversation;
+        synchronized (conversation) {
+            if (conversation.replaceVersion != snapshot.replaceVersion) {
+                return;
+            }
+            conversation.persistedCount = snapshot.messages.size();
+            conversation.stored = stamp;
+            conversation.startedHere = false;
+            if (snapshot.replace) {
+                conversation.replacePending = false;
+            }
+            if (!conversation.hasUnpersisted()) {
+                conversation.pendingSince = 0;
+                conversation.validatedAt = System.currentTimeMillis();
+                dirty.remove(snapshot.conversationId, conversation);
+            }
+        }
+    }
+
+    private Conversation conversation(String conversationId) {
+        Conversation conversation = cache.get(conversationId);
+        if (conversation != null) {
+            revalidate(conversationId, conversation);
+            return conversation;
+        }
+        conversation = dirty.get(conversationId);
+        if (conversation == null) {
+            // Stamp first, so rows written in between make it stale rather than the messages
+            Stamp stamp = storedStamp(conversationId);
+            List<Message> stored = delegate.findByConversationId(conversationId);
+            conversation = new Conversation(List.copyOf(stored), stamp);
+        }
+        Conversation existing = cache.putIfAbsent(conversationId, conversation);
+        return existing != null ? existing : conversation;
+    }
+
+    /**
+     * Reloads a cached conversation whose stored rows were changed by another
+     * instance. Conversations with unwritten messages are being served here
+     * and are left alone, as are those started here and not written yet.
+     */
+    private void revalidate(String conversationId, Conversation conversation) {
+        Stamp known;
+        synchronized (conversation) {
+            if (conversation.startedHere || conversation.hasUnpersisted()
+                    || System.currentTimeMillis() - conversation.validatedAt < revalidateAfterMillis) {
+                return;
+            }
+            known = conversation.stored;
+        }
+        Stamp current = storedStamp(conversationId);
+        if (current.equals(known)) {
+            synchronized (conversation) {
+                conversation.validatedAt = System.currentTimeMillis();
+            }
+            return;
+        }
+        List<Message> stored = List.copyOf(delegate.findByConversationId(conversationId));
+        synchronized (conversation) {
+            if (conversation.hasUnpersisted()) {
+                return;
+            }
+            if (!stored.equals(conversation.messages)) {
+                logger.debug("Chat conversation {} was changed by another instance, reloaded", conversationId);
+                conversation.load(stored);
+            }
+            conversation.stored = current;
+            conversation.validatedAt = System.currentTimeMillis();
+        }
+    }
+
+    private Stamp storedStamp(String conversationId) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(STORED_STAMP_SQL, conversationId);
+        Number count = (Number) row.get("message_count");
+        Timestamp lastTimestamp = (Timestamp) row.get("last_timestamp");
+        return new Stamp(count != null ? count.intValue() : 0, lastTimestamp != null ? lastTimestamp.getTime() : 0);
+    }
+
+    private static boolean startsWith(List<Message> messages, List<Message> prefix) {
+        if (messages.size() < prefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!Objects.equals(messages.get(i), prefix.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Conversation {
+        List<Message> messages;
+        int userMessageCount;
+        // Leading messages already in the database
+        int persistedCount;
+        // Raised each time the stored rows must be replaced rather than appended to
+        int replaceVersion;
+        boolean replacePending;
+        long pendingSince;
+        // When the messages were last known to match the database
+        long validatedAt;
+        // The stored rows as of validatedAt
+        Stamp stored;
+        // Started by this instance and not written yet, so no other instance has rows for it
+        boolean startedHere;
+
+        Conversation(List<Message> messages, Stamp stored) {
+            load(messages);
+            this.stored = stored;
+        }
+
+        void load(List<Message> stored) {
+            this.messages = stored;
+            this.persistedCount = stored.size();
+            this.userMessageCount = (int) stored.stream()
+                    .filter(message -> message.getMessageType() == MessageType.USER)
+                    .count();
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        boolean hasUnpersisted() {
+            return persistedCount < messages.size() || replacePending;
+        }
+
+        boolean turnComplete() {
+            return !messages.isEmpty() && messages.get(messages.size() - 1).getMessageType() == MessageType.ASSISTANT;
+        }
+    }
+
+    private record Snapshot(String conversationId, Conversation conversation, List<Message> messages,
+            int persistedCount, int replaceVersion, boolean replace) {
+    }
+
+    /** Row count and newest timestamp of a conversation's stored messages. */
+    private record Stamp(int count, long lastTimestamp) {
+        static final Stamp EMPTY = new Stamp(0, 0);
+    }
+}
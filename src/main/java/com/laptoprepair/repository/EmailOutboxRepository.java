@@ -0,0 +1,58 @@
+package com.laptoprepair.repository;
+
+import com.laptoprepair.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for {@link EmailOutbox} entities.
+ */
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+       boolean existsByIdempotencyKey(String idempotencyKey);
+
+       /**
+        * Finds the IDs of pending emails that are due for delivery, oldest first.
+        * 
+        * @param now      The current time.
+        * @param pageable The maximum number of IDs to return.
+        * @return The IDs of due emails.
+        */
+       @Query("SELECT e.id FROM EmailOutbox e " +
+                     "WHERE e.status = com.laptoprepair.enums.EmailOutboxStatus.PENDING " +
+                     "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+       List<UUID> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+       /**
+        * Claims due emails for one dispatcher by stamping them with its token and
+        * pushing their next attempt time out to the lease expiry. The due
+        * condition is re-checked in the update, so concurrent dispatchers never
+        * claim the same row; rows of a dispatcher that crashes become due again
+        * once the lease expires.
+        * 
+        * @param ids        The candidate IDs.
+        * @param claimToken The token of the claiming dispatcher.
+        * @param now        The current time.
+        * @param leaseUntil The time until which the claim is held.
+        * @return The number of rows claimed.
+        */
+       @Modifying
+       @Transactional
+       @Query("UPDATE EmailOutbox e SET e.claimToken = :claimToken, e.nextAttemptAt = :leaseUntil " +
+                     "WHERE e.id IN :ids AND e.status = com.laptoprepair.enums.EmailOutboxStatus.PENDING " +
+                     "AND e.nextAttemptAt <= :now")
+       int claim(@Param("ids") List<UUID> ids,
+                     @Param("claimToken") UUID claimToken,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+       List<EmailOutbox> findByClaimToken(UUID claimToken);
+}
@@ -1,15 +1,22 @@
 package com.laptoprepair.repository;
 
 import com.laptoprepair.entity.Request;
-import org.springframework.data.domain.Page;
+import com.laptoprepair.enums.RequestStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Request} entities.
@@ -18,6 +25,33 @@ import java.util.UUID;
  */
 public interface RequestRepository extends JpaRepository<Request, UUID> {
 
+       /**
+        * Shared WHERE conditions for the staff request list queries. The search
+        * term must already be folded with VietnameseTextUtils, and its %, _ and \
+        * escaped with a backslash so that they match literally.
+        */
+       String FILTER_CONDITIONS = "(:search IS NULL OR r.search_text LIKE CONCAT('%',:search,'%') ESCAPE '\\') " +
+                     "AND (:status IS NULL OR r.status = CAST(:status AS VARCHAR)) ";
+
+       /**
+        * Relevance tier of a search match, lower is better: exact phone or serial,
+        * then a word starting with the term, then any other match. Mirrors
+        * Request#searchRank. The exact tier also uses LIKE, without wildcards, so
+        * that it compares the unescaped term.
+        */
+       String SEARCH_RANK = "CASE WHEN r.phone LIKE :search ESCAPE '\\' " +
+                     "OR LOWER(r.serial_number) LIKE :search ESCAPE '\\' THEN 0 " +
+                     "WHEN r.search_text LIKE CONCAT(:search,'%') ESCAPE '\\' " +
+                     "OR r.search_text LIKE CONCAT('% ',:search,'%') ESCAPE '\\' THEN 1 " +
+                     "ELSE 2 END";
+
+       /**
+        * Ranked search rows, wrapped so the keyset conditions can refer to the
+        * computed rank as s.search_rank.
+        */
+       String RANKED_SEARCH = "SELECT * FROM (SELECT r.*, " + SEARCH_RANK + " AS search_rank " +
+                     "FROM request r WHERE " + FILTER_CONDITIONS + ") s ";
+
        /**
         * Finds a Request by its ID with items and images eagerly fetched.
         * Optimized for update operations that need items and images.
@@ -31,26 +65,146 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
        Optional<Request> findByIdWithItems(@Param("id") UUID id);
 
        /**
-        * Finds a paginated list of Requests based on search criteria and status.
+        * Finds the first keyset page of Requests matching the filters, newest
+        * appointment first. Pass a page size one larger than needed to detect a
+        * following page.
         * 
-        * @param search   Optional search term to filter requests by name, phone,
-        *                 serial number, or device brand/model.
+        * @param search   Optional search term.
         * @param status   Optional status to filter requests.
-        * @param pageable Pagination information.
-        * @return A Page of Request entities.
+        * @param pageable Limit information (offset must be 0).
+        * @return A List of Request entities ordered by appointment date and ID.
+        */
+       @Query(value = "SELECT * FROM request r " +
+                     "WHERE " + FILTER_CONDITIONS +
+                     "ORDER BY r.appointment_date DESC, r.id DESC", nativeQuery = true)
+       List<Request> findFirstKeysetPage(@Param("search") String search,
+                     @Param("status") String status,
+                     Pageable pageable);
+
+       /**
+        * Finds the keyset page of Requests that come after the given
+        * (appointment date, ID) position in descending order.
+        * 
+        * @param search          Optional search term.
+        * @param status          Optional status to filter requests.
+        * @param appointmentDate Appointment date of the last row of the current page.
+        * @param id              ID of the last row of the current page.
+        * @param pageable        Limit information (offset must be 0).
+        * @return A List of Request entities ordered by appointment date and ID
+        *         descending.
+        */
+       @Query(value = "SELECT * FROM request r " +
+                     "WHERE " + FILTER_CONDITIONS +
+                     "AND (r.appointment_date, r.id) < (:appointmentDate, :id) " +
+                     "ORDER BY r.appointment_date DESC, r.id DESC", nativeQuery = true)
+       List<Request> findKeysetPageAfter(@Param("search") String search,
+                     @Param("status") String status,
+                     @Param("appointmentDate") LocalDateTime appointmentDate,
+                     @Param("id") UUID id,
+                     Pageable pageable);
+
+       /**
+        * Finds the keyset page of Requests that come before the given
+        * (appointment date, ID) position. Rows are returned in ascending order and
+        * must be reversed by the caller.
+        * 
+        * @param search          Optional search term.
+        * @param status          Optional status to filter requests.
+        * @param appointmentDate Appointment date of the first row of the current
+        *                        page.
+        * @param id              ID of the first row of the current page.
+        * @param pageable        Limit information (offset must be 0).
+        * @return A List of Request entities ordered by appointment date and ID
+        *         ascending.
         */
        @Query(value = "SELECT * FROM request r " +
-                     "WHERE (:search IS NULL OR " +
-                     "       LOWER(r.name) LIKE LOWER(CONCAT('%',:search,'%')) OR " +
-                     "       LOWER(r.phone) LIKE LOWER(CONCAT('%',:search,'%')) OR " +
-                     "       LOWER(r.brand_model) LIKE LOWER(CONCAT('%',:search,'%')) OR " +
-                     "       LOWER(r.serial_number) LIKE LOWER(CONCAT('%',:search,'%'))) " +
-                     "AND (:status IS NULL OR r.status = CAST(:status AS VARCHAR)) " +
-                     "ORDER BY r.appointment_date DESC", nativeQuery = true)
-       Page<Request> findWithFilters(@Param("search") String search,
+                     "WHERE " + FILTER_CONDITIONS +
+                     "AND (r.appointment_date, r.id) > (:appointmentDate, :id) " +
+                     "ORDER BY r.appointment_date ASC, r.id ASC", nativeQuery = true)
+       List<Request> findKeysetPageBefore(@Param("search") String search,
                      @Param("status") String status,
+                     @Param("appointmentDate") LocalDateTime appointmentDate,
+                     @Param("id") UUID id,
                      Pageable pageable);
 
+       /**
+        * Finds the first page of Requests matching a search term, most relevant
+        * first and newest appointment first within the same relevance tier.
+        * 
+        * @param search   Folded search term (required).
+        * @param status   Optional status to filter requests.
+        * @param pageable Limit information (offset must be 0).
+        * @return A List of Request entities ordered by rank, appointment date and
+        *         ID.
+        */
+       @Query(value = RANKED_SEARCH +
+                     "ORDER BY s.search_rank ASC, s.appointment_date DESC, s.id DESC", nativeQuery = true)
+       List<Request> findFirstSearchPage(@Param("search") String search,
+                     @Param("status") String status,
+                     Pageable pageable);
+
+       /**
+        * Finds the page of search results that come after the given
+        * (rank, appointment date, ID) position.
+        * 
+        * @param search          Folded search term (required).
+        * @param status          Optional status to filter requests.
+        * @param rank            Rank of the last row of the current page.
+        * @param appointmentDate Appointment date of the last row of the current page.
+        * @param id              ID of the last row of the current page.
+        * @param pageable        Limit information (offset must be 0).
+        * @return A List of Request entities ordered by rank ascending, then
+        *         appointment date and ID descending.
+        */
+       @Query(value = RANKED_SEARCH +
+                     "WHERE s.search_rank > :rank OR (s.search_rank = :rank " +
+                     "AND (s.appointment_date, s.id) < (:appointmentDate, :id)) " +
+                     "ORDER BY s.search_rank ASC, s.appointment_date DESC, s.id DESC", nativeQuery = true)
+       List<Request> findSearchPageAfter(@Param("search") String search,
+                     @Param("status") String status,
+                     @Param("rank") int rank,
+                     @Param("appointmentDate") LocalDateTime appointmentDate,
+                     @Param("id") UUID id,
+                     Pageable pageable);
+
+       /**
+        * Finds the page of search results that come before the given
+        * (rank, appointment date, ID) position. Rows are returned in reverse order
+        * and must be reversed by the caller.
+        * 
+        * @param search          Folded search term (required).
+        * @param status          Optional status to filter requests.
+        * @param rank            Rank of the first row of the current page.
+        * @param appointmentDate Appointment date of the first row of the current
+        *                        page.
+        * @param id              ID of the first row of the current page.
+        * @param pageable        Limit information (offset must be 0).
+        * @return A List of Request entities ordered by rank descending, then
+        *         appointment date and ID ascending.
+        */
+       @Query(value = RANKED_SEARCH +
+                     "WHERE s.search_rank < :rank OR (s.search_rank = :rank " +
+                     "AND (s.appointment_date, s.id) > (:appointmentDate, :id)) " +
+                     "ORDER BY s.search_rank DESC, s.appointment_date ASC, s.id ASC", nativeQuery = true)
+       List<Request> findSearchPageBefore(@Param("search") String search,
+                     @Param("status") String status,
+                     @Param("rank") int rank,
+                     @Param("appointmentDate") LocalDateTime appointmentDate,
+                     @Param("id") UUID id,
+                     Pageable pageable);
+
+       /**
+        * Counts Requests matching the filters.
+        * 
+        * @param search Optional search term.
+        * @param status Optional status to filter requests.
+        * @return The number of matching requests.
+        */
+       @Query(value = "SELECT COUNT(*) FROM request r " +
+                     "WHERE " + FILTER_CONDITIONS, nativeQuery = true)
+       long countWithFilters(@Param("search") String search,
+                     @Param("status") String status);
+
        /**
         * Finds a list of Requests associated with a given email address.
         * This is used for recovery purposes.
@@ -60,4 +214,144 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
         */
        @Query("SELECT r FROM Request r WHERE r.email = :email")
        List<Request> findByEmail(@Param("email") String email);
+
+       /**
+        * Finds the IDs of Requests whose denormalized totals have not been
+        * populated yet. Used by the totals backfill job.
+        * 
+        * @param pageable Batch size information.
+        * @return A List of Request IDs with missing totals.
+        */
+       @Query("SELECT r.id FROM Request r " +
+                     "WHERE r.total IS NULL OR r.subtotal IS NULL OR r.vatAmount IS NULL")
+       List<UUID> findIdsWithMissingTotals(Pageable pageable);
+
+       /**
+        * Sets the denormalized totals of a Request that does not have them yet.
+        * A bulk update, so the version and audit columns are left alone and the
+        * backfill never conflicts with an open edit form; a row already filled
+        * by another instance is skipped.
+        * 
+        * @param id        The ID of the Request.
+        * @param subtotal  The subtotal before VAT.
+        * @param vatAmount The VAT amount.
+        * @param total     The total including VAT.
+        * @return 1 if the totals were set, 0 otherwise.
+        */
+       @Modifying
+       @Query("UPDATE Request r SET r.subtotal = :subtotal, r.vatAmount = :vatAmount, r.total = :total " +
+                     "WHERE r.id = :id AND (r.total IS NULL OR r.subtotal IS NULL OR r.vatAmount IS NULL)")
+       int updateMissingTotals(@Param("id") UUID id,
+                     @Param("subtotal") BigDecimal subtotal,
+                     @Param("vatAmount") BigDecimal vatAmount,
+                     @Param("total") BigDecimal total);
+
+       /**
+        * Finds the IDs of Requests whose search text has not been populated yet.
+        * Used by the search reindex job.
+        * 
+        * @param pageable Batch size information.
+        * @return A List of Request IDs with missing search text.
+        */
+       @Query("SELECT r.id FROM Request r WHERE r.searchText IS NULL")
+       List<UUID> findIdsWithMissingSearchText(Pageable pageable);
+
+       /**
+        * Sets the search text of a Request that does not have it yet. A bulk
+        * update, so the version and audit columns are left alone; a row already
+        * filled by another instance is skipped.
+        * 
+        * @param id         The ID of the Request.
+        * @param searchText The folded search text.
+        * @return 1 if the search text was set, 0 otherwise.
+        */
+       @Modifying
+       @Query("UPDATE Request r SET r.searchText = :searchText WHERE r.id = :id AND r.searchText IS NULL")
+       int updateMissingSearchText(@Param("id") UUID id, @Param("searchText") String searchText);
+
+       /**
+        * Finds the first Request IDs in ID order for batch processing.
+        * 
+        * @param pageable Limit information (offset must be 0).
+        * @return A List of Request IDs ordered by ID.
+        */
+       @Query("SELECT r.id FROM Request r ORDER BY r.id")
+       List<UUID> findIdsOrderById(Pageable pageable);
+
+       /**
+        * Finds the Request IDs that come after the given ID in ID order, so that
+        * batch processing continues from the last ID instead of skipping an
+        * offset.
+        * 
+        * @param lastId   The last ID of the previous batch.
+        * @param pageable Limit information (offset must be 0).
+        * @return A List of Request IDs ordered by ID.
+        */
+       @Query("SELECT r.id FROM Request r WHERE r.id > :lastId ORDER BY r.id")
+       List<UUID> findIdsAfterOrderById(@Param("lastId") UUID lastId, Pageable pageable);
+
+       /**
+        * Finds Requests by their IDs with items eagerly fetched in a single query.
+        * 
+        * @param ids The list of Request IDs to fetch.
+        * @return A List of Request entities with their items loaded.
+        */
+       @Query("SELECT DISTINCT r FROM Request r " +
+                     "LEFT JOIN FETCH r.items " +
+                     "WHERE r.id IN :ids")
+       List<Request> findAllWithItemsByIdIn(@Param("ids") List<UUID> ids);
+
+       /**
+        * Streams the accounting export columns of Requests, oldest first. The
+        * rows are projections fetched from the database in batches, so they are
+        * not kept in the persistence context. Must be consumed inside a
+        * transaction and closed.
+        * 
+        * @param status Optional status to filter requests.
+        * @param from   Optional inclusive lower bound on the creation time.
+        * @param to     Optional exclusive upper bound on the creation time.
+        * @return A stream of export rows.
+        */
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+       @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.name AS name, r.phone AS phone, " +
+                     "r.email AS email, r.brandModel AS brandModel, r.status AS status, " +
+                     "r.appointmentDate AS appointmentDate, r.completedAt AS completedAt, " +
+                     "r.subtotal AS subtotal, r.vatAmount AS vatAmount, r.total AS total " +
+                     "FROM Request r " +
+                     "WHERE (:status IS NULL OR r.status = :status) " +
+                     "AND (CAST(:from AS LocalDateTime) IS NULL OR r.createdAt >= :from) " +
+                     "AND (CAST(:to AS LocalDateTime) IS NULL OR r.createdAt < :to) " +
+                     "ORDER BY r.createdAt, r.id")
+       Stream<RequestExportRow> streamExportRows(@Param("status") RequestStatus status,
+                     @Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to);
+
+       /**
+        * Columns of a request written by the accounting CSV export.
+        */
+       interface RequestExportRow {
+              UUID getId();
+
+              LocalDateTime getCreatedAt();
+
+              String getName();
+
+              String getPhone();
+
+              String getEmail();
+
+              String getBrandModel();
+
+              RequestStatus getStatus();
+
+              LocalDateTime getAppointmentDate();
+
+              LocalDateTime getCompletedAt();
+
+              BigDecimal getSubtotal();
+
+              BigDecimal getVatAmount();
+
+              BigDecimal getTotal();
+       }
 }
\ No newline at end of file
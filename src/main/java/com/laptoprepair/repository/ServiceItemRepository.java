@@ -1,16 +1,22 @@
 package com.laptoprepair.repository;
 
 import com.laptoprepair.entity.ServiceItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link ServiceItem} entities.
@@ -78,4 +84,70 @@ public interface ServiceItemRepository extends JpaRepository<ServiceItem, UUID>
         */
        @Query("SELECT s FROM ServiceItem s WHERE s.id IN :ids AND s.active = true")
        List<ServiceItem> findAllByIdInAndActive(@Param("ids") List<UUID> ids);
+
+       /**
+        * Finds the name and ID of every ServiceItem in a single query, without
+        * loading full entities. Used by the CSV import to match rows to existing
+        * items by name.
+        * 
+        * @return A list of name/ID pairs for all service items.
+        */
+       @Query("SELECT s.id AS id, s.name AS name FROM ServiceItem s")
+       List<ServiceItemKey> findAllKeys();
+
+       /**
+        * Counts the service items and finds the latest change among them, so a
+        * cached catalog can be checked without loading the items.
+        * 
+        * @return The number of service items and their latest update time.
+        */
+       @Query("SELECT COUNT(s) AS itemCount, MAX(s.updatedAt) AS lastUpdatedAt FROM ServiceItem s")
+       CatalogVersion findCatalogVersion();
+
+       /**
+        * Streams the exported columns of every ServiceItem ordered by name. The
+        * rows are projections, so they are not kept in the persistence context,
+        * and are fetched from the database in batches. Must be consumed inside a
+        * transaction and closed.
+        * 
+        * @return A stream of export rows.
+        */
+       @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+       @Query("SELECT s.name AS name, s.price AS price, s.vatRate AS vatRate, " +
+                     "s.warrantyDays AS warrantyDays, s.active AS active " +
+                     "FROM ServiceItem s ORDER BY s.name")
+       Stream<ServiceItemExportRow> streamExportRows();
+
+       /**
+        * Name and ID of a service item.
+        */
+       interface ServiceItemKey {
+              UUID getId();
+
+              String getName();
+       }
+
+       /**
+        * Number of service items and the latest update time among them.
+        */
+       interface CatalogVersion {
+              long getItemCount();
+
+              LocalDateTime getLastUpdatedAt();
+       }
+
+       /**
+        * Columns of a service item written by the CSV export.
+        */
+       interface ServiceItemExportRow {
+              String getName();
+
+              BigDecimal getPrice();
+
+              BigDecimal getVatRate();
+
+              int getWarrantyDays();
+
+              boolean isActive();
+       }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.laptoprepair.service;
+
+import com.laptoprepair.entity.BackgroundJob;
+import com.laptoprepair.enums.BackgroundJobType;
+
+import java.util.UUID;
+
+/**
+ * Service interface for running long tasks outside the HTTP request thread.
+ * Provides methods for submitting a job and reading its persisted progress.
+ */
+public interface BackgroundJobService {
+    BackgroundJob submit(BackgroundJobType type, String name, long totalUnits, JobTask task);
+
+    BackgroundJob findById(UUID id);
+
+    /**
+     * The work performed by a job. Returns a completion message shown to the
+     * user; any exception marks the job as failed.
+     */
+    @FunctionalInterface
+    interface JobTask {
+        String run(JobProgress progress) throws Exception;
+    }
+
+    /**
+     * Progress reporting handle passed to a running {@link JobTask}.
+     */
+    interface JobProgress {
+        /**
+         * Records and persists the current progress.
+         *
+         * @param processedUnits Units of work done, out of the job's total units.
+         * @param processedItems Items handled so far, including failed ones.
+         * @param succeededItems Items handled successfully so far.
+         */
+        void update(long processedUnits, int processedItems, int succeededItems);
+
+        /**
+         * Records an item-level error. Errors are persisted with the next
+         * progress update.
+         */
+        void recordError(String error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.laptoprepair.service;
+
+/**
+ * Service interface for the chat memory retention job.
+ * Provides a method for deleting conversations that have been idle for
+ * longer than the configured retention period.
+ */
+public interface ChatMemoryRetentionService {
+    RetentionReport deleteIdleConversations();
+
+    /**
+     * Outcome of one retention run. Table sizes are in bytes and null when the
+     * database cannot report them.
+     */
+    record RetentionReport(int conversationsDeleted, int rowsDeleted, long rowsBefore, long rowsAfter,
+            Long tableBytesBefore, Long tableBytesAfter) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.laptoprepair.service;
+
+import org.springframework.ai.chat.model.ChatResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Service interface for caching the AI assistant's answers to frequently asked
+ * questions. Only the opening question of a conversation is cached, since
+ * later answers depend on the conversation so far.
+ */
+public interface ChatResponseCacheService {
+    /**
+     * Finds a cached answer to the given question.
+     *
+     * @param message The customer's question.
+     * @return The answer's stream chunks in order, or null if none is cached.
+     */
+    List<String> findAnswer(String message);
+
+    /**
+     * Passes an answer stream through unchanged and caches the answer once
+     * the stream completes without error.
+     *
+     * @param message   The customer's question.
+     * @param responses The answer stream from the model.
+     * @return The same stream.
+     */
+    Flux<ChatResponse> record(String message, Flux<ChatResponse> responses);
+
+    /**
+     * Streams a cached answer with the same chunks as the original answer.
+     *
+     * @param chunks The chunks returned by {@link #findAnswer(String)}.
+     * @return The answer stream.
+     */
+    Flux<ChatResponse> replay(List<String> chunks);
+
+    ResponseCacheStats getStats();
+
+    /**
+     * Cache counters since startup and the number of cached answers.
+     * {@code similarHits} counts the hits that matched a similar rather than
+     * the same question.
+     */
+    record ResponseCacheStats(long hits, long similarHits, long misses, long evictions, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
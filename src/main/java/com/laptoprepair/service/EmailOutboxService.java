@@ -0,0 +1,12 @@
+package com.laptoprepair.service;
+
+/**
+ * Service interface for the transactional email outbox.
+ * Provides methods for queueing an email alongside the change that triggers
+ * it, and for delivering queued emails in batches with retries.
+ */
+public interface EmailOutboxService {
+    void enqueue(String idempotencyKey, String recipient, String subject, String body);
+
+    int dispatchPending();
+}
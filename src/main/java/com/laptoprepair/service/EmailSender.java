@@ -0,0 +1,26 @@
+package com.laptoprepair.service;
+
+import com.laptoprepair.entity.EmailOutbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Transport used by the email outbox to deliver messages.
+ * Implementations send a batch with as few connections and provider calls as
+ * possible, and report failed messages so the outbox can retry them later.
+ */
+public interface EmailSender {
+    // Header carrying the outbox idempotency key, so repeated deliveries can be recognized
+    String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
+
+    /**
+     * Sends a batch of emails.
+     *
+     * @param emails The outbox entries to deliver.
+     * @return The reason each failed email could not be sent, by outbox ID; empty
+     *         if all were sent.
+     */
+    Map<UUID, Exception> send(List<EmailOutbox> emails);
+}
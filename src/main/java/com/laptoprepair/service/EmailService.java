@@ -2,16 +2,16 @@ package com.laptoprepair.service;
 
 import com.laptoprepair.entity.Request;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for sending various types of emails related to repair
- * requests.
+ * requests. Emails are queued in the email outbox, in the caller's transaction
+ * when there is one, and delivered in the background.
  */
 public interface EmailService {
-    CompletableFuture<Void> sendConfirmationEmail(Request request);
+    void sendConfirmationEmail(Request request);
 
-    CompletableFuture<Void> sendUpdateEmail(Request request, String changes);
+    void sendUpdateEmail(Request request, String changes);
 
-    CompletableFuture<Void> sendRecoverEmail(String email, List<Request> requests);
-}
\ No newline at end of file
+    void sendRecoverEmail(String email, List<Request> requests);
+}
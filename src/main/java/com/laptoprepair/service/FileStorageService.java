@@ -3,6 +3,7 @@ package com.laptoprepair.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.UUID;
 
 /**
@@ -15,4 +16,6 @@ public interface FileStorageService {
     void deleteIfExists(UUID requestId, String filename) throws IOException;
 
     String save(UUID requestId, MultipartFile file) throws IOException;
+
+    Path getPath(UUID requestId, String filename);
 }
\ No newline at end of file
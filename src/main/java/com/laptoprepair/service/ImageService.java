@@ -2,15 +2,18 @@ package com.laptoprepair.service;
 
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.entity.RequestImage;
+import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.exception.ValidationException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Service interface for managing images associated with repair requests.
- * Provides methods for deleting, uploading, and updating request images.
+ * Provides methods for deleting, uploading, updating and locating request
+ * images.
  */
 public interface ImageService {
 
@@ -23,4 +26,13 @@ public interface ImageService {
 
         List<RequestImage> updateRequestServiceImages(Request request, MultipartFile[] newImages, String[] toDelete)
                         throws ValidationException;
+
+        StoredImage findStoredImage(UUID requestId, String filename) throws NotFoundException;
+
+        /**
+         * An image file ready to be served. {@code finalContent} is false when an
+         * original is served in place of a variant that has not been generated yet.
+         */
+        record StoredImage(Path path, boolean finalContent) {
+        }
 }
\ No newline at end of file
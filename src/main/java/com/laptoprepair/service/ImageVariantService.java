@@ -0,0 +1,17 @@
+package com.laptoprepair.service;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Service interface for the resized copies of request images.
+ * Provides methods for generating and deleting the thumbnail and medium
+ * variants of an uploaded image, and for backfilling variants of older images.
+ */
+public interface ImageVariantService {
+    void generateVariants(UUID requestId, String filename);
+
+    void deleteVariants(UUID requestId, String filename) throws IOException;
+
+    void generateMissingVariants();
+}
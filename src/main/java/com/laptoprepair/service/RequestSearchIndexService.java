@@ -0,0 +1,10 @@
+package com.laptoprepair.service;
+
+/**
+ * Service interface for maintaining the accent-folded request search text.
+ * Provides a method for populating the search text of requests created before
+ * the column existed.
+ */
+public interface RequestSearchIndexService {
+    int reindexMissing();
+}
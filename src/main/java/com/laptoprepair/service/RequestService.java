@@ -1,11 +1,14 @@
 package com.laptoprepair.service;
 
+import com.laptoprepair.dto.CursorPage;
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.enums.RequestStatus;
 import com.laptoprepair.exception.ValidationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -20,9 +23,12 @@ public interface RequestService {
 
     Request findById(UUID id);
 
-    Page<Request> list(String search, RequestStatus status, Pageable pageable);
+    CursorPage<Request> listByCursor(String search, RequestStatus status, String cursor, int size,
+            boolean includeCount);
 
     Request publicCreate(Request request) throws ValidationException;
 
     void recover(String email);
+
+    void exportCSV(RequestStatus status, LocalDate from, LocalDate to, OutputStream out) throws IOException;
 }
\ No newline at end of file
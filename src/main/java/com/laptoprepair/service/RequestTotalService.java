@@ -0,0 +1,23 @@
+package com.laptoprepair.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for maintaining the denormalized request totals.
+ * Provides methods for backfilling missing totals and detecting drift between
+ * stored totals and totals recomputed from request items.
+ */
+public interface RequestTotalService {
+    int backfillMissingTotals();
+
+    List<TotalDrift> checkConsistency();
+
+    /**
+     * A request whose stored total differs from the total recomputed from its
+     * items.
+     */
+    record TotalDrift(UUID requestId, BigDecimal storedTotal, BigDecimal computedTotal) {
+    }
+}
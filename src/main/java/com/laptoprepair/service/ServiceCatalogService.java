@@ -0,0 +1,32 @@
+package com.laptoprepair.service;
+
+import com.laptoprepair.entity.ServiceItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for the in-memory service item catalog.
+ * Provides cached read access to service items for request editing and the
+ * staff item picker, and a method for invalidating the cache after changes.
+ */
+public interface ServiceCatalogService {
+    List<ServiceItem> findActiveByIds(List<UUID> ids);
+
+    Page<ServiceItem> searchActive(String keyword, Pageable pageable);
+
+    List<ServiceItem> suggestActive(String query, int limit);
+
+    void invalidate();
+
+    CatalogStats getStats();
+
+    /**
+     * Cache counters since startup and the number of items in the current
+     * snapshot (0 if no snapshot is loaded).
+     */
+    record CatalogStats(long hits, long misses, long invalidations, int size) {
+    }
+}
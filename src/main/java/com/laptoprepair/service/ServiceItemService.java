@@ -1,11 +1,14 @@
 package com.laptoprepair.service;
 
+import com.laptoprepair.entity.BackgroundJob;
 import com.laptoprepair.entity.ServiceItem;
 import com.laptoprepair.exception.CSVImportException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.UUID;
 
 /**
@@ -24,5 +27,7 @@ public interface ServiceItemService {
 
     void importCSV(MultipartFile file) throws CSVImportException;
 
-    byte[] exportCSV();
+    BackgroundJob submitImportJob(MultipartFile file) throws CSVImportException;
+
+    void exportCSV(OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.entity.BackgroundJob;
+import com.laptoprepair.enums.BackgroundJobStatus;
+import com.laptoprepair.enums.BackgroundJobType;
+import com.laptoprepair.exception.NotFoundException;
+import com.laptoprepair.exception.ValidationException;
+import com.laptoprepair.repository.BackgroundJobRepository;
+import com.laptoprepair.service.BackgroundJobService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementation of the {@link BackgroundJobService} interface.
+ * Persists each job before handing it to the bounded job executor, and records
+ * progress, item errors and the final outcome as the job runs. The submitting
+ * user's security context is carried over to the worker thread.
+ * Jobs run in the memory of the instance that accepted them. Each job records
+ * that instance and a lease, which the instance renews on every heartbeat
+ * while the job is queued or running; several instances can share the job
+ * table, and a job whose lease has expired is failed by whichever instance
+ * notices it first. Status and progress writes are conditional on the job
+ * still running on this instance, so a failed job stays failed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackgroundJobServiceImpl implements BackgroundJobService {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final List<BackgroundJobStatus> ACTIVE_STATUSES = List.of(BackgroundJobStatus.QUEUED,
+            BackgroundJobStatus.RUNNING);
+
+    private final BackgroundJobRepository jobRepository;
+    private final Executor jobTaskExecutor;
+    private final VietnamTimeProvider vietnamTimeProvider;
+
+    // Identifies the jobs accepted by this instance, whose leases it renews
+    private final UUID instanceId = UUID.randomUUID();
+
+    @Value("${app.background-jobs.lease-seconds:120}")
+    private long leaseSeconds = 120;
+
+    /**
+     * Fails queued and running jobs whose lease has expired. Their instance
+     * stopped renewing it, so it was shut down or crashed and the jobs will
+     * never finish. Jobs of live instances, including ones started by another
+     * instance that is still running, are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        LocalDateTime now = vietnamTimeProvider.now();
+        int interrupted = jobRepository.failExpiredJobs(ACTIVE_STATUSES,
+                "Tác vụ bị gián đoạn do hệ thống khởi động lại. Vui lòng thực hiện lại.", now);
+        if (interrupted > 0) {
+            log.warn("Marked {} interrupted background jobs as failed", interrupted);
+        }
+    }
+
+    /**
+     * Renews the leases of this instance's queued and running jobs, then
+     * fails the jobs of instances that have stopped. The heartbeat must run
+     * well within the lease so that a busy instance never loses its jobs;
+     * the scheduler pool gives it a thread of its own for that reason.
+     */
+    @Scheduled(fixedDelayString = "${app.background-jobs.heartbeat-millis:30000}",
+            initialDelayString = "${app.background-jobs.heartbeat-millis:30000}")
+    public void heartbeat() {
+        jobRepository.renewLeases(instanceId, ACTIVE_STATUSES, leaseExpiry());
+        failInterruptedJobs();
+    }
+
+    /**
+     * Creates a job and schedules it on the job executor.
+     *
+     * @param type       The type of the job.
+     * @param name       What the job works on, e.g. the uploaded file name.
+     * @param totalUnits The total units of work, or 0 if unknown.
+     * @param task       The work to perform.
+     * @return The queued job.
+     * @throws ValidationException if the job queue is full.
+     */
+    @Override
+    public BackgroundJob submit(BackgroundJobType type, String name, long totalUnits, JobTask task) {
+        BackgroundJob job = new BackgroundJob();
+        job.setType(type);
+        job.setName(name);
+        job.setTotalUnits(totalUnits);
+        job.setOwnerInstance(instanceId);
+        job.setLeaseExpiresAt(leaseExpiry());
+        BackgroundJob savedJob = jobRepository.save(job);
+
+        try {
+            jobTaskExecutor.execute(new DelegatingSecurityContextRunnable(() -> run(savedJob, task)));
+        } catch (TaskRejectedException e) {
+            savedJob.setStatus(BackgroundJobStatus.FAILED);
+            savedJob.setMessage("Hệ thống đang bận xử lý các tác vụ khác");
+            savedJob.setFinishedAt(vietnamTimeProvider.now());
+            jobRepository.save(savedJob);
+            throw new ValidationException("Hệ thống đang bận xử lý các tác vụ khác. Vui lòng thử lại sau.");
+        }
+        return savedJob;
+    }
+
+    /**
+     * Finds a background job by its ID.
+     *
+     * @param id The UUID of the job to find.
+     * @return The found BackgroundJob.
+     * @throws NotFoundException if the job with the given ID is not found.
+     */
+    @Override
+    public BackgroundJob findById(UUID id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy tác vụ với ID: " + id));
+    }
+
+    private LocalDateTime leaseExpiry() {
+        return vietnamTimeProvider.now().plusSeconds(leaseSeconds);
+    }
+
+    private void run(BackgroundJob job, JobTask task) {
+        LocalDateTime startedAt = vietnamTimeProvider.now();
+        if (jobRepository.markRunning(job.getId(), instanceId, startedAt, leaseExpiry()) == 0) {
+            log.warn("Background job {} ({}) was failed before it started, skipping it", job.getId(),
+                    job.getType());
+            return;
+        }
+        job.setStatus(BackgroundJobStatus.RUNNING);
+        job.setStartedAt(startedAt);
+        Progress progress = new Progress(job);
+
+        long startedMillis = System.currentTimeMillis();
+        try {
+            String message = task.run(progress);
+            progress.finish(BackgroundJobStatus.COMPLETED, message);
+            log.info("Background job {} ({}) completed in {} ms", job.getId(), job.getType(),
+                    System.currentTimeMillis() - startedMillis);
+        } catch (Exception e) {
+            log.error("Background job {} ({}) failed: {}", job.getId(), job.getType(), e.getMessage(), e);
+            progress.finish(BackgroundJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Tracks a running job. Only the worker thread touches it, and every update
+     * is written back so staff polling the job see it immediately. Writes only
+     * apply while the job is still running on this instance: once another
+     * instance has failed it as interrupted, the next update stops the task
+     * instead of reviving the job.
+     */
+    private class Progress implements JobProgress {
+        private final BackgroundJob job;
+        private final StringBuilder errorLog = new StringBuilder();
+
+        Progress(BackgroundJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void update(long processedUnits, int processedItems, int succeededItems) {
+            job.setProcessedUnits(processedUnits);
+            job.setProcessedItems(processedItems);
+            job.setSucceededItems(succeededItems);
+            job.setErrorLog(currentErrorLog());
+            int updated = jobRepository.updateProgress(job.getId(), instanceId, processedUnits, processedItems,
+                    succeededItems, job.getErrorCount(), job.getErrorLog(), leaseExpiry());
+            if (updated == 0) {
+                throw new IllegalStateException("Tác vụ đã bị hủy do mất kết nối với hệ thống");
+            }
+        }
+
+        @Override
+        public void recordError(String error) {
+            job.setErrorCount(job.getErrorCount() + 1);
+            // Keep the first errors, which are the most useful when fixing the file
+            if (errorLog.length() + error.length() + 1 <= BackgroundJob.MAX_ERROR_LOG_LENGTH) {
+                errorLog.append(error).append('\n');
+            }
+        }
+
+        void finish(BackgroundJobStatus status, String message) {
+            job.setStatus(status);
+            job.setMessage(message != null && message.length() > MAX_MESSAGE_LENGTH
+                    ? message.substring(0, MAX_MESSAGE_LENGTH)
+                    : message);
+            job.setFinishedAt(vietnamTimeProvider.now());
+            job.setErrorLog(currentErrorLog());
+            int updated = jobRepository.finish(job.getId(), instanceId, status, job.getMessage(),
+                    job.getErrorCount(), job.getErrorLog(), job.getFinishedAt());
+            if (updated == 0) {
+                log.warn("Background job {} ({}) was already failed as interrupted, {} outcome not stored",
+                        job.getId(), job.getType(), status);
+            }
+        }
+
+        private String currentErrorLog() {
+            return errorLog.isEmpty() ? null : errorLog.toString();
+        }
+    }
+}
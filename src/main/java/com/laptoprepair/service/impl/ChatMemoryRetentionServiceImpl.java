@@ -0,0 +1,130 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.repository.CachingChatMemoryRepository;
+import com.laptoprepair.service.ChatMemoryRetentionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link ChatMemoryRetentionService} interface.
+ * Every chat, including each anonymous one, leaves its messages in
+ * {@code SPRING_AI_CHAT_MEMORY}. This job deletes conversations whose last
+ * message is older than {@code app.chat.retention.idle-days}, in batches of
+ * at most {@code batch-size} messages so that no statement locks a large part
+ * of the table. Conversations that received a message in the meantime are
+ * skipped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMemoryRetentionServiceImpl implements ChatMemoryRetentionService {
+
+    // Oldest messages first through the timestamp index; a conversation is idle
+    // if it has no message at or after the cutoff
+    private static final String SELECT_IDLE_SQL = """
+            SELECT m.conversation_id FROM SPRING_AI_CHAT_MEMORY m
+            WHERE m."timestamp" < ?
+            AND NOT EXISTS (SELECT 1 FROM SPRING_AI_CHAT_MEMORY n
+                WHERE n.conversation_id = m.conversation_id AND n."timestamp" >= ?)
+            ORDER BY m."timestamp"
+            LIMIT ?""";
+
+    private static final String DELETE_IDLE_SQL = """
+            DELETE FROM SPRING_AI_CHAT_MEMORY
+            WHERE conversation_id = ?
+            AND NOT EXISTS (SELECT 1 FROM SPRING_AI_CHAT_MEMORY n
+                WHERE n.conversation_id = ? AND n."timestamp" >= ?)""";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM SPRING_AI_CHAT_MEMORY";
+
+    private static final String POSTGRES_TABLE_SIZE_SQL = "SELECT pg_total_relation_size('spring_ai_chat_memory')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CachingChatMemoryRepository chatMemoryRepository;
+
+    @Value("${app.chat.retention.idle-days:30}")
+    private int idleDays = 30;
+
+    @Value("${app.chat.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Deletes all conversations idle for longer than the retention period.
+     *
+     * @return The number of conversations and rows deleted and the table size
+     *         before and after.
+     */
+    @Override
+    public RetentionReport deleteIdleConversations() {
+        long rowsBefore = countRows();
+        Long bytesBefore = tableBytes();
+
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(idleDays)));
+        int conversationsDeleted = 0;
+        int rowsDeleted = 0;
+        while (true) {
+            List<String> rows = jdbcTemplate.queryForList(SELECT_IDLE_SQL, String.class, cutoff, cutoff, batchSize);
+            Set<String> idle = new LinkedHashSet<>(rows);
+            List<String> deletable = chatMemoryRepository.evict(idle);
+            if (!deletable.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(DELETE_IDLE_SQL, deletable.stream()
+                        .map(conversationId -> new Object[] { conversationId, conversationId, cutoff })
+                        .toList());
+                for (int count : counts) {
+                    if (count > 0) {
+                        conversationsDeleted++;
+                        rowsDeleted += count;
+                    }
+                }
+            }
+            // Conversations still cached with unwritten messages stay, so stop
+            // rather than selecting them again
+            if (rows.size() < batchSize || deletable.isEmpty()) {
+                break;
+            }
+        }
+
+        return new RetentionReport(conversationsDeleted, rowsDeleted, rowsBefore, countRows(),
+                bytesBefore, tableBytes());
+    }
+
+    /**
+     * Nightly retention run. On PostgreSQL the freed space is reused once
+     * autovacuum has processed the table, so the size after a run may not drop.
+     */
+    @Scheduled(cron = "${app.chat.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        RetentionReport report = deleteIdleConversations();
+        log.info("Chat memory retention deleted {} conversations ({} rows); rows {} -> {}, table bytes {} -> {}",
+                report.conversationsDeleted(), report.rowsDeleted(), report.rowsBefore(), report.rowsAfter(),
+                report.tableBytesBefore(), report.tableBytesAfter());
+    }
+
+    private long countRows() {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private Long tableBytes() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return Boolean.TRUE.equals(postgres) ? jdbcTemplate.queryForObject(POSTGRES_TABLE_SIZE_SQL, Long.class) : null;
+    }
+}
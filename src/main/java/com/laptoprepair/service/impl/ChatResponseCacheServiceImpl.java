@@ -0,0 +1,293 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.service.ChatResponseCacheService;
+import com.laptoprepair.utils.VietnameseTextUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of the {@link ChatResponseCacheService} interface.
+ * Answers are kept in memory for a limited time, at most
+ * {@code app.chat.response-cache.max-entries} of them, least recently used
+ * first out. A question matches a cached one if both read the same after
+ * lowercasing and dropping punctuation. Matching similar questions is off by
+ * default: questions about another year, model or brand differ in only a few
+ * characters, and a wrong answer would also end up in the customer's chat
+ * memory. When {@code similarity-threshold} is set, a question also matches
+ * one whose character trigrams are at least that similar, which catches
+ * missing diacritics and small typos, but only if both contain the same
+ * numbers and the same {@code distinguishing-terms} such as brand names.
+ * The system prompt is read once at startup, so a changed prompt always
+ * starts with an empty cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatResponseCacheServiceImpl implements ChatResponseCacheService {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{P}\\p{S}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DIGIT = Pattern.compile("\\d");
+
+    private final VietnamTimeProvider vietnamTimeProvider;
+
+    @Value("${app.chat.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.response-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${app.chat.response-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.chat.response-cache.similarity-threshold:0}")
+    private double similarityThreshold;
+
+    private Set<String> distinguishingTerms = Set.of();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder similarHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<String, CachedAnswer> answers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedAnswer> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Sets the terms, such as brand and model names, that two questions must
+     * share to match as similar, from a comma-separated list. Terms are
+     * compared without diacritics and case.
+     *
+     * @param distinguishingTermsConfig The configured terms.
+     */
+    @Value("${app.chat.response-cache.distinguishing-terms:}")
+    void setDistinguishingTerms(String distinguishingTermsConfig) {
+        Set<String> terms = new HashSet<>();
+        if (distinguishingTermsConfig != null && !distinguishingTermsConfig.isBlank()) {
+            for (String term : distinguishingTermsConfig.split(",")) {
+                if (!term.isBlank()) {
+                    terms.add(VietnameseTextUtils.fold(normalize(term)));
+                }
+            }
+        }
+        this.distinguishingTerms = Set.copyOf(terms);
+    }
+
+    /**
+     * Finds a cached answer to the same question, or to the most similar
+     * question above the similarity threshold. Expired answers are dropped.
+     *
+     * @param message The customer's question.
+     * @return The answer's stream chunks in order, or null if none is cached.
+     */
+    @Override
+    public List<String> findAnswer(String message) {
+        if (!enabled) {
+            return null;
+        }
+
+        String key = normalize(message);
+        LocalDateTime now = vietnamTimeProvider.now();
+        synchronized (answers) {
+            CachedAnswer answer = answers.get(key);
+            if (answer != null) {
+                if (answer.expiresAt().isAfter(now)) {
+                    hits.increment();
+                    return answer.chunks();
+                }
+                answers.remove(key);
+                evictions.increment();
+            }
+
+            CachedAnswer similar = findSimilar(message, now);
+            if (similar != null) {
+                hits.increment();
+                similarHits.increment();
+                return similar.chunks();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Passes an answer stream through unchanged and caches the answer once
+     * the stream completes without error. Empty answers are not cached.
+     *
+     * @param message   The customer's question.
+     * @param responses The answer stream from the model.
+     * @return The same stream.
+     */
+    @Override
+    public Flux<ChatResponse> record(String message, Flux<ChatResponse> responses) {
+        if (!enabled) {
+            return responses;
+        }
+
+        return Flux.defer(() -> {
+            List<String> chunks = new ArrayList<>();
+            return responses
+                    .doOnNext(response -> {
+                        String text = text(response);
+                        if (text != null && !text.isEmpty()) {
+                            chunks.add(text);
+                        }
+                    })
+                    .doOnComplete(() -> store(message, chunks));
+        });
+    }
+
+    @Override
+    public Flux<ChatResponse> replay(List<String> chunks) {
+        return Flux.fromIterable(chunks)
+                .map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+    }
+
+    @Override
+    public ResponseCacheStats getStats() {
+        int size;
+        synchronized (answers) {
+            size = answers.size();
+        }
+        return new ResponseCacheStats(hits.sum(), similarHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private void store(String message, List<String> chunks) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> trigrams = trigrams(message);
+        CachedAnswer answer = new CachedAnswer(List.copyOf(chunks), trigrams, norm(trigrams),
+                keyTokens(message), vietnamTimeProvider.now().plusMinutes(ttlMinutes));
+        synchronized (answers) {
+            answers.put(normalize(message), answer);
+        }
+        log.debug("Cached chat answer with {} chunks", chunks.size());
+    }
+
+    /**
+     * Scans the cached questions with the same key tokens for the one most
+     * similar to the message, dropping expired answers on the way. Must hold
+     * the lock on answers.
+     */
+    private CachedAnswer findSimilar(String message, LocalDateTime now) {
+        if (similarityThreshold <= 0 || similarityThreshold >= 1) {
+            return null;
+        }
+        Map<String, Integer> trigrams = trigrams(message);
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+
+        Set<String> keyTokens = keyTokens(message);
+        double norm = norm(trigrams);
+        CachedAnswer best = null;
+        double bestSimilarity = similarityThreshold;
+        for (Iterator<CachedAnswer> it = answers.values().iterator(); it.hasNext();) {
+            CachedAnswer answer = it.next();
+            if (!answer.expiresAt().isAfter(now)) {
+                it.remove();
+                evictions.increment();
+                continue;
+            }
+            if (!answer.keyTokens().equals(keyTokens)) {
+                continue;
+            }
+            double similarity = dot(trigrams, answer.trigrams()) / (norm * answer.norm());
+            if (similarity >= bestSimilarity) {
+                best = answer;
+                bestSimilarity = similarity;
+            }
+        }
+        return best;
+    }
+
+    private static String normalize(String message) {
+        String text = Normalizer.normalize(message, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        text = PUNCTUATION.matcher(text).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static Map<String, Integer> trigrams(String message) {
+        String padded = " " + VietnameseTextUtils.fold(normalize(message)) + " ";
+        Map<String, Integer> trigrams = new HashMap<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.merge(padded.substring(i, i + 3), 1, Integer::sum);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Returns the words of the message that tell apart questions which
+     * otherwise read alike: numbers such as years and model numbers, and the
+     * distinguishing terms.
+     */
+    private Set<String> keyTokens(String message) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : VietnameseTextUtils.fold(normalize(message)).split(" ")) {
+            if (DIGIT.matcher(token).find() || distinguishingTerms.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static double norm(Map<String, Integer> trigrams) {
+        double sum = 0;
+        for (int count : trigrams.values()) {
+            sum += (double) count * count;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static double dot(Map<String, Integer> a, Map<String, Integer> b) {
+        double sum = 0;
+        for (Map.Entry<String, Integer> entry : a.entrySet()) {
+            Integer count = b.get(entry.getKey());
+            if (count != null) {
+                sum += (double) entry.getValue() * count;
+            }
+        }
+        return sum;
+    }
+
+    private static String text(ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private record CachedAnswer(List<String> chunks, Map<String, Integer> trigrams, double norm,
+            Set<String> keyTokens, LocalDateTime expiresAt) {
+    }
+}
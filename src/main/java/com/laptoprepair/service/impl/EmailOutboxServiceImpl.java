@@ -0,0 +1,249 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.entity.EmailOutbox;
+import com.laptoprepair.enums.EmailOutboxStatus;
+import com.laptoprepair.repository.EmailOutboxRepository;
+import com.laptoprepair.service.EmailOutboxService;
+import com.laptoprepair.service.EmailSender;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of the {@link EmailOutboxService} interface.
+ * Emails are stored before they are sent, so a full executor queue, a slow
+ * mail provider or a restart only delays notifications instead of losing
+ * them. Delivery is at least once: a message whose send succeeded but whose
+ * status could not be recorded is sent again with the same idempotency key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // Tagged with outcome: sent, retried or failed (given up)
+    private static final String EMAILS_COUNTER = "repair.emails";
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailSender emailSender;
+    private final Executor emailTaskExecutor;
+    private final VietnamTimeProvider vietnamTimeProvider;
+    private final MeterRegistry meterRegistry;
+
+    // One drain loop per instance; a request made while it runs is remembered
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${app.email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds = 30;
+
+    @Value("${app.email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds = 3600;
+
+    @Value("${app.email.outbox.lease-seconds:300}")
+    private long leaseSeconds = 300;
+
+    @Value("${app.email.outbox.batch-window-millis:200}")
+    private long batchWindowMillis = 200;
+
+    /**
+     * Stores an email for delivery. Inside a transaction the row commits or
+     * rolls back together with the caller's changes, and delivery starts
+     * shortly after the commit. An email whose idempotency key is already
+     * stored is ignored.
+     *
+     * @param idempotencyKey A key that identifies this notification.
+     * @param recipient      The recipient address.
+     * @param subject        The email subject.
+     * @param body           The plain-text email body.
+     */
+    @Override
+    public void enqueue(String idempotencyKey, String recipient, String subject, String body) {
+        if (recipient == null || recipient.isBlank()) {
+            return;
+        }
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Email {} is already queued, skipping", idempotencyKey);
+            return;
+        }
+
+        EmailOutbox email = new EmailOutbox();
+        email.setIdempotencyKey(idempotencyKey);
+        email.setRecipient(recipient.trim());
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setNextAttemptAt(vietnamTimeProvider.now());
+        outboxRepository.save(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Periodically picks up emails that are due for a retry, and any email
+     * whose immediate delivery was rejected by a busy executor.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:10000}")
+    public void pollOutbox() {
+        requestDispatch();
+    }
+
+    /**
+     * Delivers due emails in batches until none are left. Each batch is
+     * claimed with a lease before sending, so several application instances
+     * can drain the same outbox, and emails claimed by an instance that dies
+     * are retried once the lease expires. Failed sends are retried with
+     * exponential backoff until the maximum number of attempts is reached.
+     *
+     * @return The number of emails sent.
+     */
+    @Override
+    public int dispatchPending() {
+        int sent = 0;
+        dispatchRequested.set(true);
+        while (dispatchRequested.get() && dispatching.compareAndSet(false, true)) {
+            try {
+                dispatchRequested.set(false);
+                List<UUID> dueIds;
+                do {
+                    LocalDateTime now = vietnamTimeProvider.now();
+                    dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+                    if (dueIds.isEmpty()) {
+                        break;
+                    }
+                    UUID claimToken = UUID.randomUUID();
+                    outboxRepository.claim(dueIds, claimToken, now, now.plusSeconds(leaseSeconds));
+                    List<EmailOutbox> claimed = outboxRepository.findByClaimToken(claimToken);
+                    if (!claimed.isEmpty()) {
+                        sent += deliver(claimed);
+                    }
+                } while (dueIds.size() == batchSize);
+            } finally {
+                dispatching.set(false);
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Schedules a drain after a short window, so emails committed close
+     * together, e.g. during a burst of submissions, go out in one batch.
+     * Requests made while a drain is already scheduled are folded into it.
+     */
+    private void requestDispatch() {
+        if (!dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailTaskExecutor.execute(() -> {
+                try {
+                    if (batchWindowMillis > 0) {
+                        Thread.sleep(batchWindowMillis);
+                    }
+                    dispatchScheduled.set(false);
+                    dispatchPending();
+                } catch (InterruptedException e) {
+                    dispatchScheduled.set(false);
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The outbox is polled again anyway
+            dispatchScheduled.set(false);
+            meterRegistry.counter("repair.emails.dispatch.rejected").increment();
+            log.debug("Email dispatch not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private int deliver(List<EmailOutbox> emails) {
+        Map<UUID, Exception> failures;
+        try {
+            failures = emailSender.send(emails);
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (EmailOutbox email : emails) {
+                failures.put(email.getId(), e);
+            }
+        }
+
+        LocalDateTime now = vietnamTimeProvider.now();
+        int gaveUp = 0;
+        for (EmailOutbox email : emails) {
+            email.setClaimToken(null);
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                email.setStatus(EmailOutboxStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                continue;
+            }
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(failure.getMessage()));
+            if (attempts >= maxAttempts) {
+                email.setStatus(EmailOutboxStatus.FAILED);
+                gaveUp++;
+                log.error("Giving up on email {} to {} after {} attempts: {}", email.getIdempotencyKey(),
+                        email.getRecipient(), attempts, failure.getMessage());
+            } else {
+                email.setNextAttemptAt(now.plusSeconds(backoffSeconds(attempts)));
+                log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}", email.getIdempotencyKey(),
+                        email.getRecipient(), attempts, email.getNextAttemptAt(), failure.getMessage());
+            }
+        }
+        outboxRepository.saveAll(emails);
+
+        int sent = emails.size() - failures.size();
+        meterRegistry.counter(EMAILS_COUNTER, "outcome", "sent").increment(sent);
+        meterRegistry.counter(EMAILS_COUNTER, "outcome", "retried").increment(failures.size() - gaveUp);
+        meterRegistry.counter(EMAILS_COUNTER, "outcome", "failed").increment(gaveUp);
+        return sent;
+    }
+
+    private long backoffSeconds(int attempts) {
+        // initial, 2x, 4x, ... capped at the maximum
+        int exponent = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffSeconds, initialBackoffSeconds << exponent);
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
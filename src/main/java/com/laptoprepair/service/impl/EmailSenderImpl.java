@@ -0,0 +1,155 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.EmailOutbox;
+import com.laptoprepair.service.EmailSender;
+
+import com.sendgrid.Method;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SendGrid-based implementation of the {@link EmailSender} interface for
+ * production.
+ * A batch is sent as a single API call with one personalization per email:
+ * the subject is set per personalization and the body is filled in through a
+ * substitution. The outbox idempotency key is attached as a header and a
+ * custom argument, so a message that is delivered again after a crash can be
+ * recognized in SendGrid's activity feed and event webhooks.
+ * SendGrid rejects the whole request when one personalization is invalid, so a
+ * batch refused as malformed (400) or too large (413) is sent again one email
+ * at a time; only the emails that are refused on their own are reported as
+ * failed. Other statuses, such as 401, 403 or 429, concern the account rather
+ * than an email, so the whole batch fails and the outbox retries it with
+ * backoff.
+ */
+@Service
+@Profile("prod")
+@RequiredArgsConstructor
+public class EmailSenderImpl implements EmailSender {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailSenderImpl.class);
+
+    // SendGrid accepts at most 1000 personalizations per request
+    private static final int MAX_PERSONALIZATIONS = 1000;
+    // SendGrid limits the substitutions of a personalization to 10000 bytes
+    private static final int MAX_SUBSTITUTION_BYTES = 9000;
+    private static final String BODY_TAG = "-body-";
+    private static final int BAD_REQUEST = 400;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+
+    private final SendGrid sendGrid;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.cc}")
+    private String ccEmail;
+
+    /**
+     * Sends a batch of emails through the SendGrid API. Emails whose body is
+     * too large for a substitution are sent in a call of their own.
+     *
+     * @param emails The outbox entries to deliver.
+     * @return The emails that failed, by outbox ID.
+     */
+    @Override
+    public Map<UUID, Exception> send(List<EmailOutbox> emails) {
+        Map<UUID, Exception> failures = new HashMap<>();
+        List<EmailOutbox> batch = new ArrayList<>();
+        for (EmailOutbox email : emails) {
+            if (email.getBody().getBytes(StandardCharsets.UTF_8).length > MAX_SUBSTITUTION_BYTES) {
+                post(List.of(email), buildSingleMail(email), failures);
+                continue;
+            }
+            batch.add(email);
+            if (batch.size() == MAX_PERSONALIZATIONS) {
+                post(batch, buildBatchMail(batch), failures);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            post(batch, buildBatchMail(batch), failures);
+        }
+        return failures;
+    }
+
+    private Mail buildBatchMail(List<EmailOutbox> batch) {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(fromEmail));
+        mail.addContent(new Content("text/plain", BODY_TAG));
+        for (EmailOutbox email : batch) {
+            Personalization personalization = buildPersonalization(email);
+            personalization.addSubstitution(BODY_TAG, email.getBody());
+            mail.addPersonalization(personalization);
+        }
+        return mail;
+    }
+
+    private Mail buildSingleMail(EmailOutbox email) {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(fromEmail));
+        mail.addContent(new Content("text/plain", email.getBody()));
+        mail.addPersonalization(buildPersonalization(email));
+        return mail;
+    }
+
+    private Personalization buildPersonalization(EmailOutbox email) {
+        Personalization personalization = new Personalization();
+        personalization.addTo(new Email(email.getRecipient()));
+        // SendGrid rejects a personalization that lists the same address twice
+        if (ccEmail != null && !ccEmail.trim().isEmpty() && !ccEmail.trim().equalsIgnoreCase(email.getRecipient())) {
+            personalization.addCc(new Email(ccEmail.trim()));
+        }
+        personalization.setSubject(email.getSubject());
+        personalization.addHeader(IDEMPOTENCY_KEY_HEADER, email.getIdempotencyKey());
+        personalization.addCustomArg("idempotency_key", email.getIdempotencyKey());
+        return personalization;
+    }
+
+    private void post(List<EmailOutbox> emails, Mail mail, Map<UUID, Exception> failures) {
+        try {
+            com.sendgrid.Request request = new com.sendgrid.Request();
+            request.setMethod(Method.POST);
+            request.setEndpoint("mail/send");
+            request.setBody(mail.build());
+
+            com.sendgrid.Response response = sendGrid.api(request);
+            int status = response.getStatusCode();
+
+            if (emails.size() > 1 && (status == BAD_REQUEST || status == PAYLOAD_TOO_LARGE)) {
+                // One invalid personalization fails the whole request; send each email alone so
+                // only the rejected ones use up an attempt. Auth, rate limit, server and network
+                // errors fail the batch, since every single send would fail the same way.
+                log.warn("SendGrid rejected a batch of {} emails with status {}, sending them one by one",
+                        emails.size(), status);
+                emails.forEach(email -> post(List.of(email), buildSingleMail(email), failures));
+                return;
+            }
+            if (status < 200 || status >= 300) {
+                throw new IOException("SendGrid API error. Status: " + status
+                        + ", Body: " + response.getBody());
+            }
+            log.info("Sent {} emails in one SendGrid request", emails.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("SendGrid request for {} emails failed: {}", emails.size(), e.getMessage());
+            emails.forEach(email -> failures.put(email.getId(), e));
+        }
+    }
+}
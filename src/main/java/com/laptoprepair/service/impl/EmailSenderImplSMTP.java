@@ -0,0 +1,108 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.EmailOutbox;
+import com.laptoprepair.service.EmailSender;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SMTP-based implementation of the {@link EmailSender} interface for dev
+ * environment.
+ * Uses Spring Boot Mail with SMTP (MailHog) for local development. A batch is
+ * handed to the mail sender in one call, which sends every message over a
+ * single SMTP connection instead of connecting once per email.
+ */
+@Service
+@Profile("dev")
+@RequiredArgsConstructor
+public class EmailSenderImplSMTP implements EmailSender {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailSenderImplSMTP.class);
+
+    private final JavaMailSender mailSender;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.cc}")
+    private String ccEmail;
+
+    /**
+     * Sends a batch of emails through the configured SMTP server.
+     *
+     * @param emails The outbox entries to deliver.
+     * @return The emails that failed, by outbox ID.
+     */
+    @Override
+    public Map<UUID, Exception> send(List<EmailOutbox> emails) {
+        Map<UUID, Exception> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        List<MimeMessage> batch = new ArrayList<>();
+        for (EmailOutbox email : emails) {
+            try {
+                MimeMessage message = buildMessage(email);
+                messages.put(message, email);
+                batch.add(message);
+            } catch (MessagingException e) {
+                failures.put(email.getId(), e);
+            }
+        }
+        if (batch.isEmpty()) {
+            return failures;
+        }
+
+        log.debug("Sending {} emails via SMTP", batch.size());
+        try {
+            mailSender.send(batch.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Messages missing from the failed map were sent
+            e.getFailedMessages().forEach((message, cause) -> {
+                EmailOutbox email = messages.get(message);
+                if (email != null) {
+                    failures.put(email.getId(), cause);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> failures.put(email.getId(), e));
+            }
+        } catch (MailException e) {
+            messages.values().forEach(email -> failures.put(email.getId(), e));
+        }
+        log.info("Sent {} of {} emails via SMTP", emails.size() - failures.size(), emails.size());
+        return failures;
+    }
+
+    private MimeMessage buildMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        message.setHeader(IDEMPOTENCY_KEY_HEADER, email.getIdempotencyKey());
+
+        // Add CC if configured
+        if (ccEmail != null && !ccEmail.trim().isEmpty()) {
+            helper.setCc(ccEmail);
+        }
+        return message;
+    }
+}
@@ -1,5 +1,9 @@
 package com.laptoprepair.service.impl;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,8 +20,11 @@ import java.util.UUID;
  * requests on the local filesystem.
  */
 @Service
+@RequiredArgsConstructor
 public class FileStorageServiceImpl implements FileStorageService {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.upload.directory:uploads}")
     private String uploadDir;
 
@@ -44,7 +51,17 @@ public class FileStorageServiceImpl implements FileStorageService {
         Path requestDir = Paths.get(uploadDir, requestId.toString());
         Path imagePath = requestDir.resolve(filename);
 
-        Files.copy(file.getInputStream(), imagePath, StandardCopyOption.REPLACE_EXISTING);
+        long bytes = Files.copy(file.getInputStream(), imagePath, StandardCopyOption.REPLACE_EXISTING);
+        DistributionSummary.builder("repair.images.stored")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("variant", "original")
+                .register(meterRegistry)
+                .record(bytes);
         return filename;
     }
+
+    @Override
+    public Path getPath(UUID requestId, String filename) {
+        return Paths.get(uploadDir, requestId.toString()).resolve(filename);
+    }
 }
\ No newline at end of file
@@ -5,10 +5,12 @@ import com.laptoprepair.entity.RequestHistory;
 import com.laptoprepair.entity.RequestItem;
 import com.laptoprepair.service.HistoryService;
 import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.utils.CurrencyUtils;
 
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
@@ -76,10 +78,12 @@ public class HistoryServiceImpl implements HistoryService {
             changes.append("Cập nhật hạng mục sửa chữa\n");
         }
 
-        // Track total price changes
-        if (oldRequest.getTotal().compareTo(newRequest.getTotal()) != 0) {
-            String priceChange = "Tổng tiền: " + String.format("%,.0f", oldRequest.getTotal())
-                    + " → " + String.format("%,.0f", newRequest.getTotal()) + " VND\n";
+        // Track total price changes (computed from items, stored totals may be stale)
+        BigDecimal oldTotal = CurrencyUtils.calculateRequestTotal(oldRequest.getItems());
+        BigDecimal newTotal = CurrencyUtils.calculateRequestTotal(newRequest.getItems());
+        if (oldTotal.compareTo(newTotal) != 0) {
+            String priceChange = "Tổng tiền: " + String.format("%,.0f", oldTotal)
+                    + " → " + String.format("%,.0f", newTotal) + " VND\n";
             changes.append(priceChange);
         }
 
@@ -2,38 +2,55 @@ package com.laptoprepair.service.impl;
 
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.entity.RequestImage;
+import com.laptoprepair.enums.ImageVariant;
+import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.service.FileStorageService;
 import com.laptoprepair.service.ImageService;
+import com.laptoprepair.service.ImageVariantService;
 import com.laptoprepair.validation.ImageValidator;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of the {@link ImageService} interface.
  * Handles the business logic for managing images associated with repair
  * requests,
- * including deletion, uploading, and updating.
+ * including deletion, uploading, and updating. Resized variants of each image
+ * are managed through {@link ImageVariantService}.
+ * Inside a transaction, files are only deleted and variants only generated
+ * after commit, and new uploads are removed again on rollback, so a rejected
+ * edit leaves the files of the committed request untouched.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ImageServiceImpl implements ImageService {
 
+    // Stored names are generated by FileStorageService, so anything else is rejected
+    private static final Pattern IMAGE_FILENAME = Pattern.compile("[A-Za-z0-9_-]+\\.(jpg|png)");
+    private static final List<String> ORIGINAL_EXTENSIONS = List.of(".jpg", ".png");
+
     @Value("${app.upload.max-images-per-request}")
     private int maxImagesPerRequest;
 
     private final ImageValidator imageValidator;
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
 
     /**
      * Deletes specified images associated with a request.
@@ -54,10 +71,14 @@ public class ImageServiceImpl implements ImageService {
         List<RequestImage> updatedImages = new ArrayList<>(currentImages);
 
         for (String filename : toDelete) {
-            try {
-                fileStorageService.deleteIfExists(requestId, filename);
-            } catch (IOException e) {
-                throw new ValidationException("Lỗi xóa ảnh: " + e.getMessage());
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                afterTransaction(() -> deleteQuietly(requestId, filename), null);
+            } else {
+                try {
+                    deleteFiles(requestId, filename);
+                } catch (IOException e) {
+                    throw new ValidationException("Lỗi xóa ảnh: " + e.getMessage());
+                }
             }
             updatedImages.removeIf(img -> img.getFilename().equals(filename));
         }
@@ -104,6 +125,13 @@ public class ImageServiceImpl implements ImageService {
                 imageValidator.validateImageFileSizeAndFormat(file);
                 try {
                     String filename = fileStorageService.save(requestId, file);
+                    // Thumbnail and medium copies are generated in the background
+                    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        afterTransaction(() -> imageVariantService.generateVariants(requestId, filename),
+                                () -> deleteQuietly(requestId, filename));
+                    } else {
+                        imageVariantService.generateVariants(requestId, filename);
+                    }
                     RequestImage requestImage = new RequestImage();
                     requestImage.setFilename(filename);
                     requestImage.setRequest(request);
@@ -143,4 +171,70 @@ public class ImageServiceImpl implements ImageService {
         return currentImages;
     }
 
-}
\ No newline at end of file
+    /**
+     * Locates an image file to serve. A request for a variant that has not been
+     * generated yet is answered with the original image.
+     * 
+     * @param requestId The ID of the request the image belongs to.
+     * @param filename  The filename of the original image or of a variant.
+     * @return The file to serve.
+     * @throws NotFoundException If the filename is invalid or no file exists.
+     */
+    @Override
+    public StoredImage findStoredImage(UUID requestId, String filename) throws NotFoundException {
+        if (filename == null || !IMAGE_FILENAME.matcher(filename).matches()) {
+            throw new NotFoundException("Không tìm thấy ảnh: " + filename);
+        }
+
+        Path path = fileStorageService.getPath(requestId, filename);
+        if (Files.isRegularFile(path)) {
+            return new StoredImage(path, true);
+        }
+
+        String baseName = ImageVariant.baseNameOf(filename);
+        if (baseName != null) {
+            for (String extension : ORIGINAL_EXTENSIONS) {
+                Path original = fileStorageService.getPath(requestId, baseName + extension);
+                if (Files.isRegularFile(original)) {
+                    return new StoredImage(original, false);
+                }
+            }
+        }
+        throw new NotFoundException("Không tìm thấy ảnh: " + filename);
+    }
+
+    private void deleteFiles(UUID requestId, String filename) throws IOException {
+        fileStorageService.deleteIfExists(requestId, filename);
+        imageVariantService.deleteVariants(requestId, filename);
+    }
+
+    private void deleteQuietly(UUID requestId, String filename) {
+        try {
+            deleteFiles(requestId, filename);
+        } catch (IOException e) {
+            log.warn("Could not delete image {} of request {}: {}", filename, requestId, e.getMessage());
+        }
+    }
+
+    /**
+     * Registers work to run once the current transaction has committed or
+     * rolled back.
+     */
+    private void afterTransaction(Runnable onCommit, Runnable onRollback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (onCommit != null) {
+                    onCommit.run();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK && onRollback != null) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,149 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.enums.ImageVariant;
+import com.laptoprepair.service.FileStorageService;
+import com.laptoprepair.service.ImageVariantService;
+import com.laptoprepair.utils.ImageResizeUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the {@link ImageVariantService} interface.
+ * Generates the variants on the image executor so uploads are not slowed down
+ * by decoding and scaling. Until a variant exists, the original image is
+ * served in its place.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private final FileStorageService fileStorageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upload.directory:uploads}")
+    private String uploadDir = "uploads";
+
+    @Value("${app.upload.variant-quality:0.8}")
+    private float quality = 0.8f;
+
+    /**
+     * Generates every variant of an image. Failures are logged and otherwise
+     * ignored, since the original can always be shown instead.
+     *
+     * @param requestId The ID of the request the image belongs to.
+     * @param filename  The filename of the original image.
+     */
+    @Override
+    @Async("imageTaskExecutor")
+    public void generateVariants(UUID requestId, String filename) {
+        writeVariants(requestId, filename);
+    }
+
+    /**
+     * Deletes every variant of an image.
+     *
+     * @param requestId The ID of the request the image belongs to.
+     * @param filename  The filename of the original image.
+     * @throws IOException if a variant cannot be deleted.
+     */
+    @Override
+    public void deleteVariants(UUID requestId, String filename) throws IOException {
+        for (ImageVariant variant : ImageVariant.values()) {
+            fileStorageService.deleteIfExists(requestId, variant.filenameFor(filename));
+        }
+    }
+
+    /**
+     * Generates missing variants for images uploaded before variants existed.
+     * Runs on the image executor so startup is not delayed.
+     */
+    @Override
+    @Async("imageTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateMissingVariants() {
+        Path root = Paths.get(uploadDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        int generated = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            List<Path> originals = files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> ImageVariant.baseNameOf(file.getFileName().toString()) == null)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .toList();
+            for (Path original : originals) {
+                UUID requestId = parseRequestId(original.getParent().getFileName().toString());
+                String filename = original.getFileName().toString();
+                if (requestId != null && !Files.exists(original.resolveSibling(
+                        ImageVariant.THUMBNAIL.filenameFor(filename))) && writeVariants(requestId, filename)) {
+                    generated++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan {} for images without variants: {}", root, e.getMessage());
+        }
+        if (generated > 0) {
+            log.info("Generated variants for {} existing images", generated);
+        }
+    }
+
+    private boolean writeVariants(UUID requestId, String filename) {
+        Path original = fileStorageService.getPath(requestId, filename);
+        long startedAt = System.currentTimeMillis();
+        try {
+            // Decode once at roughly the medium size, then derive the smaller variants from it
+            BufferedImage decoded = ImageResizeUtils.readScaled(original, ImageVariant.MEDIUM.getMaxSize());
+            if (decoded == null) {
+                log.warn("Unsupported image format, no variants generated for {}", original);
+                return false;
+            }
+
+            BufferedImage source = decoded;
+            for (ImageVariant variant : List.of(ImageVariant.MEDIUM, ImageVariant.THUMBNAIL)) {
+                source = ImageResizeUtils.resize(source, variant.getMaxSize());
+                Path target = fileStorageService.getPath(requestId, variant.filenameFor(filename));
+                ImageResizeUtils.writeJpeg(source, target, quality);
+                DistributionSummary.builder("repair.images.stored")
+                        .baseUnit(BaseUnits.BYTES)
+                        .tag("variant", variant.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry)
+                        .record(Files.size(target));
+            }
+            log.debug("Generated variants for {} in {} ms", original, System.currentTimeMillis() - startedAt);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for {}: {}", original, e.getMessage());
+            return false;
+        }
+    }
+
+    private UUID parseRequestId(String directoryName) {
+        try {
+            return UUID.fromString(directoryName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
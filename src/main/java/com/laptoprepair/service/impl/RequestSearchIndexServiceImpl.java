@@ -0,0 +1,85 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.repository.RequestRepository;
+import com.laptoprepair.service.RequestSearchIndexService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of the {@link RequestSearchIndexService} interface.
+ * New and updated requests keep their search text in sync through
+ * {@link Request#updateSearchText()}; this service only fills in rows that
+ * predate the column.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RequestSearchIndexServiceImpl implements RequestSearchIndexService {
+
+    private final RequestRepository reqRepo;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.request-search.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Runs the reindex once the application has started so that older requests
+     * show up in staff searches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        try {
+            int updated = reindexMissing();
+            if (updated > 0) {
+                log.info("Built search text for {} requests", updated);
+            }
+        } catch (RuntimeException e) {
+            // Rows left without search text are picked up on the next start
+            log.error("Building request search text failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Populates the search text for all requests that do not have it yet.
+     * Each batch is processed in its own transaction. Only the search text
+     * column is written, so the request version and audit fields are
+     * unchanged.
+     *
+     * @return The number of requests updated.
+     */
+    @Override
+    public int reindexMissing() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int updated = 0;
+        while (true) {
+            Integer batchUpdated = transactionTemplate.execute(status -> {
+                List<UUID> ids = reqRepo.findIdsWithMissingSearchText(PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                // Rows another instance filled in meanwhile are skipped, but never found again
+                int batch = 0;
+                for (Request request : reqRepo.findAllById(ids)) {
+                    batch += reqRepo.updateMissingSearchText(request.getId(), request.buildSearchText());
+                }
+                return batch;
+            });
+            if (batchUpdated == null) {
+                return updated;
+            }
+            updated += batchUpdated;
+        }
+    }
+}
@@ -1,39 +1,58 @@
 package com.laptoprepair.service.impl;
 
+import com.laptoprepair.dto.CursorPage;
+import com.laptoprepair.dto.RequestCursor;
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.entity.RequestImage;
 import com.laptoprepair.entity.RequestItem;
 import com.laptoprepair.entity.ServiceItem;
 import com.laptoprepair.enums.RequestStatus;
+import com.laptoprepair.exception.ConflictException;
 import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.exception.ValidationException;
 
 import com.laptoprepair.repository.RequestRepository;
-import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.RequestRepository.RequestExportRow;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import com.laptoprepair.service.EmailService;
 import com.laptoprepair.service.HistoryService;
 import com.laptoprepair.service.ImageService;
 import com.laptoprepair.service.RequestService;
+import com.laptoprepair.service.ServiceCatalogService;
 import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.utils.CsvExportUtils;
+import com.laptoprepair.utils.CsvMetricsUtils;
+import com.laptoprepair.utils.VietnameseTextUtils;
 import com.laptoprepair.validation.RequestValidator;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the {@link RequestService} interface.
@@ -47,12 +66,23 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository reqRepo;
-    private final ServiceItemRepository serviceItemRepository;
+    private final ServiceCatalogService serviceCatalogService;
     private final HistoryService historyService;
     private final ImageService imageService;
     private final EmailService emailService;
     private final RequestValidator requestValidator;
     private final VietnamTimeProvider vietnamTimeProvider;
+    private final MeterRegistry meterRegistry;
+
+    // Tagged with the method name by the TimedAspect
+    private static final String OPERATIONS_TIMER = "repair.request.operations";
+    private static final String[] EXPORT_HEADERS = { "id", "createdAt", "customerName", "phone", "email",
+            "device", "status", "appointmentDate", "completedAt", "subtotal", "vatAmount", "total" };
+    private static final DateTimeFormatter EXPORT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CONFLICT_MESSAGE = "Yêu cầu đã được người khác cập nhật. "
+            + "Dữ liệu bên dưới là bản mới nhất, vui lòng nhập lại thay đổi của bạn.";
+    private static final String MISSING_VERSION_MESSAGE = "Không xác định được phiên bản của yêu cầu. "
+            + "Dữ liệu bên dưới là bản mới nhất, vui lòng nhập lại thay đổi của bạn.";
 
     /**
      * Finds a request by its ID.
@@ -69,17 +99,75 @@ public class RequestServiceImpl implements RequestService {
     }
 
     /**
-     * Retrieves a paginated list of requests based on search criteria and status.
+     * Retrieves a page of requests using keyset pagination on (appointment date,
+     * ID), so the cost of a page does not grow with its depth.
+     * When a search term is given, matches are ordered by relevance first (see
+     * {@link Request#searchRank}) and the matching is accent-insensitive.
      * 
-     * @param search   Optional search string to filter requests.
-     * @param status   Optional RequestStatus to filter requests.
-     * @param pageable Pagination information.
-     * @return A Page of Request entities.
+     * @param search       Optional search string to filter requests.
+     * @param status       Optional RequestStatus to filter requests.
+     * @param cursor       Optional opaque cursor from a previous page; null for
+     *                     the first page.
+     * @param size         The page size.
+     * @param includeCount Whether to also count all matching requests.
+     * @return A CursorPage of Request entities with next/previous cursors.
+     * @throws ValidationException if the cursor is malformed.
      */
     @Override
-    public Page<Request> list(String search, RequestStatus status, Pageable pageable) {
+    @Transactional(readOnly = true)
+    @Timed(OPERATIONS_TIMER)
+    public CursorPage<Request> listByCursor(String search, RequestStatus status, String cursor, int size,
+            boolean includeCount) {
+        String searchTerm = foldSearch(search);
+        // The queries match the term with LIKE, while searchRank compares it as plain text
+        String pattern = searchTerm != null ? escapeLike(searchTerm) : null;
         String statusString = status != null ? status.name() : null;
-        return reqRepo.findWithFilters(search, statusString, pageable);
+        RequestCursor position = (cursor != null && !cursor.isBlank()) ? RequestCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists in that direction
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Request> rows;
+        boolean hasNext;
+        boolean hasPrevious;
+
+        if (position == null) {
+            rows = new ArrayList<>(searchTerm == null
+                    ? reqRepo.findFirstKeysetPage(null, statusString, limit)
+                    : reqRepo.findFirstSearchPage(pattern, statusString, limit));
+            hasNext = trimToSize(rows, size);
+            hasPrevious = false;
+        } else if (!position.backward()) {
+            rows = new ArrayList<>(searchTerm == null
+                    ? reqRepo.findKeysetPageAfter(null, statusString,
+                            position.appointmentDate(), position.id(), limit)
+                    : reqRepo.findSearchPageAfter(pattern, statusString, position.rank(),
+                            position.appointmentDate(), position.id(), limit));
+            hasNext = trimToSize(rows, size);
+            hasPrevious = true;
+        } else {
+            rows = new ArrayList<>(searchTerm == null
+                    ? reqRepo.findKeysetPageBefore(null, statusString,
+                            position.appointmentDate(), position.id(), limit)
+                    : reqRepo.findSearchPageBefore(pattern, statusString, position.rank(),
+                            position.appointmentDate(), position.id(), limit));
+            hasPrevious = trimToSize(rows, size);
+            hasNext = true;
+            Collections.reverse(rows);
+        }
+
+        String nextCursor = null;
+        if (hasNext && !rows.isEmpty()) {
+            Request last = rows.get(rows.size() - 1);
+            nextCursor = RequestCursor.after(last, last.searchRank(searchTerm)).encode();
+        }
+        String previousCursor = null;
+        if (hasPrevious && !rows.isEmpty()) {
+            Request first = rows.get(0);
+            previousCursor = RequestCursor.before(first, first.searchRank(searchTerm)).encode();
+        }
+        Long totalElements = includeCount ? reqRepo.countWithFilters(pattern, statusString) : null;
+
+        return new CursorPage<>(rows, size, nextCursor, previousCursor, totalElements);
     }
 
     /**
@@ -91,6 +179,8 @@ public class RequestServiceImpl implements RequestService {
      * @throws ValidationException if the appointment date is not in the future.
      */
     @Override
+    @Transactional
+    @Timed(OPERATIONS_TIMER)
     public Request publicCreate(Request incomingRequest) throws ValidationException {
         requestValidator.validateAppointmentDateInFuture(incomingRequest.getAppointmentDate());
 
@@ -98,6 +188,7 @@ public class RequestServiceImpl implements RequestService {
         incomingRequest.setStatus(RequestStatus.SCHEDULED);
         incomingRequest.setItems(List.of());
         incomingRequest.setImages(List.of());
+        incomingRequest.recalculateTotals();
 
         // Add history entry
         historyService.addRequestHistoryRecord(incomingRequest, "Tạo mới yêu cầu", "Khách");
@@ -126,6 +217,7 @@ public class RequestServiceImpl implements RequestService {
      */
     @Override
     @Transactional
+    @Timed(OPERATIONS_TIMER)
     public Request create(Request incomingRequest, MultipartFile[] newImages, String note) throws ValidationException {
         incomingRequest.setStatus(RequestStatus.SCHEDULED);
 
@@ -134,6 +226,7 @@ public class RequestServiceImpl implements RequestService {
             item.setRequest(incomingRequest);
         }
         copyServiceItemsFields(incomingRequest.getItems());
+        incomingRequest.recalculateTotals();
 
         // Build note after all data preparation
         StringBuilder noteBuilder = new StringBuilder("Tạo mới yêu cầu");
@@ -144,15 +237,15 @@ public class RequestServiceImpl implements RequestService {
         historyService.addRequestHistoryRecord(incomingRequest, noteBuilder.toString(),
                 getCurrentUsername());
 
-        // Create request with properly linked items
+        // Persist the request with its items and history; the id is assigned here,
+        // nothing is written until the transaction flushes
         Request savedRequest = reqRepo.save(incomingRequest);
 
-        // Process images if provided
+        // Images are stored under the request id and join the same flush by cascade
         List<RequestImage> images = imageService.uploadImages(savedRequest.getId(), new ArrayList<>(), newImages,
                 savedRequest);
-        savedRequest.setImages(new ArrayList<>(images));
+        savedRequest.getImages().addAll(images);
 
-        savedRequest = reqRepo.save(savedRequest);
         emailService.sendConfirmationEmail(savedRequest);
         return savedRequest;
     }
@@ -170,15 +263,29 @@ public class RequestServiceImpl implements RequestService {
      * @return The updated and saved Request entity.
      * @throws ValidationException if there are validation errors or the request is
      *                             not found.
+     * @throws ConflictException   if the request was changed by someone else after
+     *                             the form was loaded, or the form did not send
+     *                             the version it was loaded with.
      */
     @Override
     @Transactional
+    @Timed(OPERATIONS_TIMER)
     public Request update(UUID id, Request incomingRequest, MultipartFile[] newImages, String[] toDelete,
             String note) throws ValidationException {
         // Load existing request with items and images eagerly fetched
         Request existingRequest = reqRepo.findByIdWithItems(id)
                 .orElseThrow(() -> new ValidationException("Không tìm thấy yêu cầu với ID: " + id));
 
+        // Reject edits made on a stale copy before anything is changed; an edit
+        // without the version it was loaded with cannot be checked, so it is
+        // rejected the same way instead of overwriting
+        if (incomingRequest.getVersion() == null) {
+            throw new ConflictException(MISSING_VERSION_MESSAGE);
+        }
+        if (!incomingRequest.getVersion().equals(existingRequest.getVersion())) {
+            throw new ConflictException(CONFLICT_MESSAGE);
+        }
+
         // Validate early to fail fast
         requestValidator.validateEditable(existingRequest);
         requestValidator.validateStatusTransition(existingRequest, incomingRequest);
@@ -205,6 +312,7 @@ public class RequestServiceImpl implements RequestService {
         }
 
         copyRequestFields(existingRequest, incomingRequest, false);
+        existingRequest.recalculateTotals();
 
         // Apply processed images after field copy
         existingRequest.getImages().clear();
@@ -222,10 +330,60 @@ public class RequestServiceImpl implements RequestService {
         }
 
         Request saved = reqRepo.save(existingRequest);
+        // Flush here so a concurrent edit that committed after the version check
+        // is reported as a conflict instead of failing at commit
+        try {
+            reqRepo.flush();
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException(CONFLICT_MESSAGE);
+        }
         emailService.sendUpdateEmail(saved, noteBuilder.toString());
         return saved;
     }
 
+    /**
+     * Streams an accounting export of requests as CSV, one row per request with
+     * its stored subtotal, VAT and total. Rows are read through a database
+     * cursor, so memory use does not depend on the number of requests.
+     * 
+     * @param status Optional status to filter requests.
+     * @param from   Optional first creation date to include.
+     * @param to     Optional last creation date to include.
+     * @param out    The stream to write the CSV file to.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCSV(RequestStatus status, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        long startedAt = System.nanoTime();
+        long exported = 0;
+        CSVPrinter csvPrinter = CsvExportUtils.openPrinter(out, EXPORT_HEADERS);
+        try (Stream<RequestExportRow> rows = reqRepo.streamExportRows(status, fromTime, toTime)) {
+            for (RequestExportRow row : (Iterable<RequestExportRow>) rows::iterator) {
+                csvPrinter.printRecord(
+                        row.getId(),
+                        formatExportTime(row.getCreatedAt()),
+                        row.getName(),
+                        row.getPhone(),
+                        row.getEmail(),
+                        row.getBrandModel(),
+                        row.getStatus() != null ? row.getStatus().getValue() : null,
+                        formatExportTime(row.getAppointmentDate()),
+                        formatExportTime(row.getCompletedAt()),
+                        row.getSubtotal(),
+                        row.getVatAmount(),
+                        row.getTotal());
+                exported++;
+            }
+        }
+        csvPrinter.flush();
+        CsvMetricsUtils.record(meterRegistry, "requests", CsvMetricsUtils.EXPORT, exported, startedAt);
+    }
+
     /**
      * Recovers request information by sending an email with tracking links to the
      * provided email address.
@@ -252,8 +410,8 @@ public class RequestServiceImpl implements RequestService {
                 .map(RequestItem::getServiceItemId)
                 .collect(Collectors.toList());
 
-        // Step 2: Fetch all service items in a single query
-        List<ServiceItem> serviceItems = serviceItemRepository.findAllByIdInAndActive(serviceItemIds);
+        // Step 2: Fetch all service items from the cached catalog
+        List<ServiceItem> serviceItems = serviceCatalogService.findActiveByIds(serviceItemIds);
 
         // Step 3: Convert to Map for O(1) lookup
         Map<UUID, ServiceItem> serviceItemMap = serviceItems.stream()
@@ -359,7 +517,7 @@ public class RequestServiceImpl implements RequestService {
     }
 
     private Request copyRequestFields(Request target, Request source, boolean deepCopyCollections) {
-        BeanUtils.copyProperties(source, target, "id", "items", "images", "history",
+        BeanUtils.copyProperties(source, target, "id", "items", "images", "history", "version",
                 "createdAt", "updatedAt", "createdBy", "updatedBy");
 
         if (deepCopyCollections) {
@@ -377,11 +535,8 @@ public class RequestServiceImpl implements RequestService {
             }
             target.setItems(copiedItems);
         } else {
-            // For updating - only change reference
             if (source.getItems() != null) {
-                target.getItems().clear();
-                source.getItems().forEach(item -> item.setRequest(target));
-                target.getItems().addAll(source.getItems());
+                mergeItems(target, source.getItems());
             }
             if (source.getImages() != null) {
                 target.getImages().clear();
@@ -393,6 +548,70 @@ public class RequestServiceImpl implements RequestService {
         return target;
     }
 
+    /**
+     * Applies the submitted items to the managed items of a request. Items
+     * posted with their id are updated in place, and only if a field changed,
+     * so unchanged rows are not written; items without an id are added and
+     * items no longer submitted are removed by orphan removal.
+     *
+     * @param target   The managed request.
+     * @param incoming The items submitted with the form, in display order.
+     * @throws ConflictException if a submitted item no longer belongs to the
+     *                           request.
+     */
+    private void mergeItems(Request target, List<RequestItem> incoming) {
+        Map<UUID, RequestItem> existingById = new HashMap<>();
+        for (RequestItem item : target.getItems()) {
+            existingById.put(item.getId(), item);
+        }
+
+        List<RequestItem> merged = new ArrayList<>(incoming.size());
+        for (RequestItem item : incoming) {
+            if (item.getId() == null) {
+                item.setRequest(target);
+                merged.add(item);
+                continue;
+            }
+            RequestItem existing = existingById.get(item.getId());
+            if (existing == null) {
+                throw new ConflictException(CONFLICT_MESSAGE);
+            }
+            if (!existing.equals(item)) {
+                BeanUtils.copyProperties(item, existing, "id", "request",
+                        "createdAt", "updatedAt", "createdBy", "updatedBy");
+            }
+            merged.add(existing);
+        }
+
+        target.getItems().clear();
+        target.getItems().addAll(merged);
+    }
+
+    private String formatExportTime(LocalDateTime time) {
+        return time != null ? time.format(EXPORT_TIME_FORMAT) : null;
+    }
+
+    private String foldSearch(String search) {
+        String folded = VietnameseTextUtils.fold(search);
+        return (folded != null && !folded.isEmpty()) ? folded : null;
+    }
+
+    /**
+     * Escapes the LIKE wildcards % and _ and the escape character itself, so
+     * that a term such as "a_b" only matches that text.
+     */
+    private String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private boolean trimToSize(List<Request> rows, int size) {
+        if (rows.size() <= size) {
+            return false;
+        }
+        rows.subList(size, rows.size()).clear();
+        return true;
+    }
+
     private String getCurrentUsername() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName()))
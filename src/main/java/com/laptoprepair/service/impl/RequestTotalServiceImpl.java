@@ -0,0 +1,157 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.repository.RequestRepository;
+import com.laptoprepair.service.RequestTotalService;
+import com.laptoprepair.utils.CurrencyUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of the {@link RequestTotalService} interface.
+ * Backfills the persisted subtotal, VAT and total columns for requests created
+ * before they existed, and periodically recomputes totals from items to report
+ * any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RequestTotalServiceImpl implements RequestTotalService {
+
+    private final RequestRepository reqRepo;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.request-totals.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Runs the backfill once the application has started so that rows created
+     * before the totals columns existed render correctly in the staff list.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            int updated = backfillMissingTotals();
+            if (updated > 0) {
+                log.info("Backfilled totals for {} requests", updated);
+            }
+        } catch (RuntimeException e) {
+            // Rows left without totals are picked up on the next start
+            log.error("Backfilling request totals failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Populates totals for all requests that do not have them yet.
+     * Each batch is processed in its own transaction. Only the totals columns
+     * are written, so the request version and audit fields are unchanged.
+     *
+     * @return The number of requests updated.
+     */
+    @Override
+    public int backfillMissingTotals() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int updated = 0;
+        while (true) {
+            Integer batchUpdated = transactionTemplate.execute(status -> {
+                List<UUID> ids = reqRepo.findIdsWithMissingTotals(PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                // Rows another instance filled in meanwhile are skipped, but never found again
+                int batch = 0;
+                for (Request request : reqRepo.findAllWithItemsByIdIn(ids)) {
+                    BigDecimal subtotal = CurrencyUtils.calculateRequestSubtotal(request.getItems());
+                    BigDecimal total = CurrencyUtils.calculateRequestTotal(request.getItems());
+                    batch += reqRepo.updateMissingTotals(request.getId(), subtotal, total.subtract(subtotal), total);
+                }
+                return batch;
+            });
+            if (batchUpdated == null) {
+                return updated;
+            }
+            updated += batchUpdated;
+        }
+    }
+
+    /**
+     * Recomputes totals from items for every request and reports those whose
+     * stored values differ. Stored values are not modified. Batches continue
+     * after the last ID of the previous one, so each costs the same however
+     * far the check has got.
+     *
+     * @return The list of requests with drifted totals.
+     */
+    @Override
+    public List<TotalDrift> checkConsistency() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        List<TotalDrift> drifts = new ArrayList<>();
+        UUID lastId = null;
+        while (true) {
+            UUID afterId = lastId;
+            List<UUID> ids = transactionTemplate.execute(status -> {
+                List<UUID> batch = afterId == null
+                        ? reqRepo.findIdsOrderById(PageRequest.of(0, batchSize))
+                        : reqRepo.findIdsAfterOrderById(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return batch;
+                }
+                for (Request request : reqRepo.findAllWithItemsByIdIn(batch)) {
+                    if (hasDrift(request)) {
+                        drifts.add(new TotalDrift(request.getId(), request.getTotal(),
+                                CurrencyUtils.calculateRequestTotal(request.getItems())));
+                    }
+                }
+                return batch;
+            });
+            if (ids == null || ids.size() < batchSize) {
+                return drifts;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Nightly consistency check. Drift is logged so it can be investigated and
+     * fixed by clearing the affected totals and re-running the backfill.
+     */
+    @Scheduled(cron = "${app.request-totals.consistency-cron:0 0 3 * * *}")
+    public void reportDrift() {
+        List<TotalDrift> drifts = checkConsistency();
+        if (drifts.isEmpty()) {
+            log.debug("Request totals consistency check passed");
+            return;
+        }
+        log.warn("Request totals drift detected for {} requests", drifts.size());
+        drifts.forEach(drift -> log.warn("Request {}: stored total {}, computed total {}",
+                drift.requestId(), drift.storedTotal(), drift.computedTotal()));
+    }
+
+    private boolean hasDrift(Request request) {
+        BigDecimal subtotal = CurrencyUtils.calculateRequestSubtotal(request.getItems());
+        BigDecimal total = CurrencyUtils.calculateRequestTotal(request.getItems());
+        return !sameAmount(request.getSubtotal(), subtotal)
+                || !sameAmount(request.getTotal(), total)
+                || !sameAmount(request.getVatAmount(), total.subtract(subtotal));
+    }
+
+    private boolean sameAmount(BigDecimal stored, BigDecimal computed) {
+        return stored != null && stored.compareTo(computed) == 0;
+    }
+}
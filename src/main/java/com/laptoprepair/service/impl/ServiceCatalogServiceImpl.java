@@ -0,0 +1,219 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.ServiceItem;
+import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.ServiceItemRepository.CatalogVersion;
+import com.laptoprepair.service.ServiceCatalogService;
+import com.laptoprepair.utils.AutocompleteIndex;
+import com.laptoprepair.utils.VietnameseTextUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the {@link ServiceCatalogService} interface.
+ * Keeps an immutable snapshot of all service items that is loaded on first
+ * use and swapped atomically. Writers call {@link #invalidate()}; the next
+ * reader reloads the snapshot, including its autocomplete index, from the
+ * database. Returned items are shared and must not be modified.
+ * <p>
+ * Invalidation only reaches this instance, so a snapshot that has not been
+ * checked for {@code revalidateAfterMillis} is compared with the item count
+ * and latest update time in the database, and reloaded if another instance
+ * changed the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceCatalogServiceImpl implements ServiceCatalogService {
+
+    private final ServiceItemRepository serviceItemRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Value("${app.service-catalog.revalidate-after-millis:5000}")
+    private long revalidateAfterMillis = 5000;
+
+    /**
+     * Finds active service items by their IDs. IDs that are unknown or inactive
+     * are skipped.
+     * 
+     * @param ids The list of UUIDs of the service items to fetch.
+     * @return A list of active ServiceItems matching the provided IDs.
+     */
+    @Override
+    public List<ServiceItem> findActiveByIds(List<UUID> ids) {
+        Snapshot current = currentSnapshot();
+        List<ServiceItem> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ServiceItem serviceItem = current.byId().get(id);
+            if (serviceItem != null && serviceItem.isActive()) {
+                result.add(serviceItem);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches active service items by name, ignoring case and Vietnamese
+     * diacritics. Results are ordered by name.
+     * 
+     * @param keyword  Optional keyword to filter service items by name.
+     * @param pageable Pagination information.
+     * @return A Page of active ServiceItem entities.
+     */
+    @Override
+    public Page<ServiceItem> searchActive(String keyword, Pageable pageable) {
+        String foldedKeyword = VietnameseTextUtils.fold(keyword);
+        List<ServiceItem> matches = new ArrayList<>();
+        for (CatalogEntry entry : currentSnapshot().active()) {
+            if (foldedKeyword == null || entry.foldedName().contains(foldedKeyword)) {
+                matches.add(entry.item());
+            }
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    /**
+     * Suggests active service items for the staff item picker. Matching ignores
+     * case and Vietnamese diacritics; names starting with the query rank first,
+     * then names with words starting with each query word.
+     * 
+     * @param query The text typed by the user.
+     * @param limit The maximum number of suggestions.
+     * @return Up to {@code limit} active ServiceItems, best match first.
+     */
+    @Override
+    public List<ServiceItem> suggestActive(String query, int limit) {
+        return currentSnapshot().autocomplete().search(query, limit);
+    }
+
+    /**
+     * Drops the current snapshot. Inside a transaction the snapshot is dropped
+     * after commit so that a concurrent reload cannot pick up the old rows.
+     */
+    @Override
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        } else {
+            evict();
+        }
+    }
+
+    @Override
+    public CatalogStats getStats() {
+        Snapshot current = snapshot.get();
+        return new CatalogStats(hits.sum(), misses.sum(), invalidations.sum(),
+                current != null ? current.byId().size() : 0);
+    }
+
+    private void evict() {
+        invalidations.increment();
+        snapshot.set(null);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current != null && isCurrent(current)) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        long invalidationsBefore = invalidations.sum();
+        Snapshot loaded = load();
+        // Withdraw the snapshot if an invalidation raced with the load, since the
+        // loaded rows may already be stale; the next reader reloads
+        if (snapshot.compareAndSet(null, loaded) && invalidations.sum() != invalidationsBefore) {
+            snapshot.compareAndSet(loaded, null);
+        }
+        return loaded;
+    }
+
+    /**
+     * Checks an unchecked snapshot against the database. One reader runs the
+     * check while the others keep using the snapshot.
+     */
+    private boolean isCurrent(Snapshot current) {
+        long now = System.currentTimeMillis();
+        long checkedAt = current.checkedAt().get();
+        if (now - checkedAt < revalidateAfterMillis || !current.checkedAt().compareAndSet(checkedAt, now)) {
+            return true;
+        }
+        CatalogVersion stored = serviceItemRepository.findCatalogVersion();
+        if (current.version().equals(new Version(stored.getItemCount(), stored.getLastUpdatedAt()))) {
+            return true;
+        }
+        log.debug("Service catalog was changed by another instance, reloading it");
+        snapshot.compareAndSet(current, null);
+        return false;
+    }
+
+    private Snapshot load() {
+        Map<UUID, ServiceItem> byId = new LinkedHashMap<>();
+        List<CatalogEntry> active = new ArrayList<>();
+        for (ServiceItem serviceItem : serviceItemRepository.findAll()) {
+            // Cache detached copies so changes to managed entities never leak in
+            ServiceItem copy = new ServiceItem();
+            BeanUtils.copyProperties(serviceItem, copy);
+            byId.put(copy.getId(), copy);
+            if (copy.isActive()) {
+                active.add(new CatalogEntry(copy, VietnameseTextUtils.fold(copy.getName())));
+            }
+        }
+        active.sort(Comparator.comparing(entry -> entry.item().getName()));
+        log.debug("Loaded service catalog snapshot with {} items", byId.size());
+        List<ServiceItem> activeItems = active.stream().map(CatalogEntry::item).toList();
+        LocalDateTime lastUpdatedAt = byId.values().stream()
+                .map(ServiceItem::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new Snapshot(Map.copyOf(byId), List.copyOf(active),
+                AutocompleteIndex.build(activeItems, ServiceItem::getName),
+                new Version(byId.size(), lastUpdatedAt), new AtomicLong(System.currentTimeMillis()));
+    }
+
+    private record Snapshot(Map<UUID, ServiceItem> byId, List<CatalogEntry> active,
+            AutocompleteIndex<ServiceItem> autocomplete, Version version, AtomicLong checkedAt) {
+    }
+
+    /** What the snapshot was loaded from, compared with the database to detect changes. */
+    private record Version(long itemCount, LocalDateTime lastUpdatedAt) {
+    }
+
+    private record CatalogEntry(ServiceItem item, String foldedName) {
+    }
+}
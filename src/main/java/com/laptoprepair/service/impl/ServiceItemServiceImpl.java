@@ -1,13 +1,23 @@
 package com.laptoprepair.service.impl;
 
+import com.laptoprepair.entity.BackgroundJob;
 import com.laptoprepair.entity.ServiceItem;
+import com.laptoprepair.enums.BackgroundJobType;
 import com.laptoprepair.exception.CSVImportException;
 import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.ServiceItemRepository.ServiceItemExportRow;
 
+import com.laptoprepair.service.BackgroundJobService;
+import com.laptoprepair.service.BackgroundJobService.JobProgress;
+import com.laptoprepair.service.ServiceCatalogService;
 import com.laptoprepair.service.ServiceItemService;
+import com.laptoprepair.utils.CsvExportUtils;
+import com.laptoprepair.utils.CsvMetricsUtils;
 import com.laptoprepair.validation.ServiceItemValidator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,18 +25,28 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the {@link ServiceItemService} interface.
@@ -45,9 +65,34 @@ public class ServiceItemServiceImpl implements ServiceItemService {
     private static final String VAT_RATE_FIELD = "vatRate";
     private static final String WARRANTY_DAYS_FIELD = "warrantyDays";
     private static final String ACTIVE_FIELD = "active";
+    private static final String METRICS_DATASET = "service_items";
+
+    // Synchronous imports stop at the first invalid row
+    private static final ImportListener FAIL_FAST = new ImportListener() {
+        @Override
+        public void onRowError(CSVImportException error) throws CSVImportException {
+            throw error;
+        }
+
+        @Override
+        public void onChunkWritten(int processedRows, int importedRows) {
+            // Progress is only reported for background imports
+        }
+    };
 
     private final ServiceItemRepository serviceItemRepository;
     private final ServiceItemValidator serviceItemValidator;
+    private final ServiceCatalogService serviceCatalogService;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final BackgroundJobService backgroundJobService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.service-items.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
+
+    @Value("${app.service-items.import.commit-per-chunk:false}")
+    private boolean commitPerChunk = false;
 
     /**
      * Creates a new service item.
@@ -58,7 +103,9 @@ public class ServiceItemServiceImpl implements ServiceItemService {
     @Override
     public ServiceItem create(ServiceItem serviceItem) {
         serviceItemValidator.validateUniqueNameOnCreate(serviceItem.getName());
-        return serviceItemRepository.save(serviceItem);
+        ServiceItem savedServiceItem = serviceItemRepository.save(serviceItem);
+        serviceCatalogService.invalidate();
+        return savedServiceItem;
     }
 
     /**
@@ -95,7 +142,9 @@ public class ServiceItemServiceImpl implements ServiceItemService {
         existingServiceItem.setWarrantyDays(incomingServiceItem.getWarrantyDays());
         existingServiceItem.setActive(incomingServiceItem.isActive());
 
-        return serviceItemRepository.save(existingServiceItem);
+        ServiceItem savedServiceItem = serviceItemRepository.save(existingServiceItem);
+        serviceCatalogService.invalidate();
+        return savedServiceItem;
     }
 
     /**
@@ -115,35 +164,179 @@ public class ServiceItemServiceImpl implements ServiceItemService {
     }
 
     /**
-     * Imports service items from a CSV file.
+     * Imports service items from a CSV file in a single streaming pass. Rows are
+     * matched to existing items by name and written in chunks; by default the
+     * whole file is imported in one transaction, or one transaction per chunk
+     * when {@code app.service-items.import.commit-per-chunk} is enabled. The
+     * import stops at the first invalid row.
      * 
      * @param file The MultipartFile representing the CSV file to import.
      * @throws CSVImportException if there is an error during CSV parsing or data
      *                            validation.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void importCSV(MultipartFile file) throws CSVImportException {
         serviceItemValidator.validateCSVFile(file);
 
-        List<ServiceItem> serviceItemsToBeSaved = new ArrayList<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long startedAt = System.currentTimeMillis();
+        try {
+            Integer imported = commitPerChunk
+                    ? importRows(openCSV(file), transactionTemplate, FAIL_FAST)
+                    : transactionTemplate.execute(status -> {
+                        try {
+                            return importRows(openCSV(file), null, FAIL_FAST);
+                        } catch (CSVImportException e) {
+                            throw new ImportAbortedException(e);
+                        }
+                    });
+            log.info("Imported {} service items from CSV in {} ms", imported,
+                    System.currentTimeMillis() - startedAt);
+        } catch (ImportAbortedException e) {
+            throw e.getCause();
+        } finally {
+            serviceCatalogService.invalidate();
+        }
+    }
+
+    /**
+     * Starts a background import of a CSV file. The upload is copied to a
+     * temporary file so the HTTP request can return immediately; rows are then
+     * committed chunk by chunk, and invalid rows are recorded on the job and
+     * skipped instead of aborting the import.
+     * 
+     * @param file The MultipartFile representing the CSV file to import.
+     * @return The queued job, which can be polled for progress.
+     * @throws CSVImportException if the file is not a valid CSV upload.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BackgroundJob submitImportJob(MultipartFile file) throws CSVImportException {
+        serviceItemValidator.validateCSVFile(file);
+
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("service-items-import-", ".csv");
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new CSVImportException("Lỗi đọc file CSV: " + e.getMessage());
+        }
+
+        try {
+            return backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT, file.getOriginalFilename(),
+                    file.getSize(), progress -> runImportJob(tempFile, progress));
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams all service items as CSV to the given output stream. Rows are
+     * read through a database cursor and written one by one, so memory use does
+     * not depend on the catalog size.
+     * 
+     * @param out The stream to write the CSV file to.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCSV(OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        long exported = 0;
+        CSVPrinter csvPrinter = CsvExportUtils.openPrinter(out,
+                NAME_FIELD, PRICE_FIELD, VAT_RATE_FIELD, WARRANTY_DAYS_FIELD, ACTIVE_FIELD);
+        try (Stream<ServiceItemExportRow> rows = serviceItemRepository.streamExportRows()) {
+            for (ServiceItemExportRow row : (Iterable<ServiceItemExportRow>) rows::iterator) {
+                csvPrinter.printRecord(
+                        row.getName(),
+                        row.getPrice(),
+                        row.getVatRate(),
+                        row.getWarrantyDays(),
+                        row.isActive());
+                exported++;
+            }
+        }
+        csvPrinter.flush();
+        CsvMetricsUtils.record(meterRegistry, METRICS_DATASET, CsvMetricsUtils.EXPORT, exported, startedAt);
+    }
+
+    private String runImportJob(Path csvFile, JobProgress progress) throws CSVImportException {
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(csvFile))) {
+            int imported = importRows(in, new TransactionTemplate(transactionManager), new ImportListener() {
+                @Override
+                public void onRowError(CSVImportException error) {
+                    progress.recordError("Dòng " + error.getRowNumber() + ": " + error.getMessage());
+                }
+
+                @Override
+                public void onChunkWritten(int processedRows, int importedRows) {
+                    progress.update(in.getCount(), processedRows, importedRows);
+                }
+            });
+            return "Đã import " + imported + " dịch vụ";
+        } catch (IOException e) {
+            throw new CSVImportException("Lỗi đọc file CSV: " + e.getMessage());
+        } finally {
+            deleteQuietly(csvFile);
+            serviceCatalogService.invalidate();
+        }
+    }
+
+    private InputStream openCSV(MultipartFile file) throws CSVImportException {
+        try {
+            return file.getInputStream();
+        } catch (IOException e) {
+            throw new CSVImportException("Lỗi đọc file CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the CSV and writes valid rows in chunks.
+     * 
+     * @return The number of rows imported.
+     */
+    private int importRows(InputStream in, TransactionTemplate chunkTransaction, ImportListener listener)
+            throws CSVImportException {
+        long startedAt = System.nanoTime();
+        // One lookup for all existing names instead of one query per row
+        Map<String, UUID> idsByName = new HashMap<>();
+        serviceItemRepository.findAllKeys().forEach(key -> idsByName.put(key.getName(), key.getId()));
 
-        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+        try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
                 CSVParser parser = new CSVParser(reader, CSVFormat.Builder.create()
                         .setHeader(NAME_FIELD, PRICE_FIELD, VAT_RATE_FIELD, WARRANTY_DAYS_FIELD, ACTIVE_FIELD)
                         .setSkipHeaderRecord(true).build())) {
 
+            List<ServiceItem> chunk = new ArrayList<>(importChunkSize);
             int rowNumber = 1;
+            int imported = 0;
             for (CSVRecord csvRecord : parser) {
                 rowNumber++;
-                ServiceItem serviceItem = copyCSVRecordFields(csvRecord, rowNumber);
-                serviceItemRepository.findByName(serviceItem.getName()).ifPresent(existing -> {
-                    serviceItem.setId(existing.getId());
-                    serviceItem.setCreatedAt(existing.getCreatedAt());
-                });
-                serviceItemsToBeSaved.add(serviceItem);
+                if (rowNumber == 2) {
+                    serviceItemValidator.validateCSVColumns(csvRecord);
+                }
+                try {
+                    chunk.add(copyCSVRecordFields(csvRecord, rowNumber));
+                } catch (CSVImportException e) {
+                    listener.onRowError(e);
+                }
+                if (chunk.size() >= importChunkSize) {
+                    writeChunk(chunk, idsByName, chunkTransaction);
+                    imported += chunk.size();
+                    chunk.clear();
+                    listener.onChunkWritten(rowNumber - 1, imported);
+                }
             }
-
-            serviceItemRepository.saveAll(serviceItemsToBeSaved);
+            serviceItemValidator.validateCSVHasData(rowNumber - 1);
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, idsByName, chunkTransaction);
+                imported += chunk.size();
+            }
+            listener.onChunkWritten(rowNumber - 1, imported);
+            CsvMetricsUtils.record(meterRegistry, METRICS_DATASET, CsvMetricsUtils.IMPORT, imported, startedAt);
+            return imported;
 
         } catch (CSVImportException e) {
             throw e;
@@ -154,44 +347,54 @@ public class ServiceItemServiceImpl implements ServiceItemService {
         }
     }
 
+    private void writeChunk(List<ServiceItem> chunk, Map<String, UUID> idsByName,
+            TransactionTemplate chunkTransaction) {
+        if (chunkTransaction != null) {
+            chunkTransaction.executeWithoutResult(status -> saveChunk(chunk, idsByName));
+        } else {
+            saveChunk(chunk, idsByName);
+        }
+    }
+
     /**
-     * Exports all service items to a CSV file.
-     * 
-     * @return A byte array representing the CSV file content.
+     * Upserts one chunk: existing items are loaded in one query and updated in
+     * place, new items are inserted. Both are written as JDBC batches on flush,
+     * and the persistence context is cleared so memory stays bounded.
      */
-    @Override
-    @Transactional(readOnly = true)
-    public byte[] exportCSV() {
-        try {
-            StringWriter stringWriter = new StringWriter();
-            try (CSVPrinter csvPrinter = new CSVPrinter(stringWriter,
-                    CSVFormat.Builder.create()
-                            .setHeader(NAME_FIELD, PRICE_FIELD, VAT_RATE_FIELD, WARRANTY_DAYS_FIELD, ACTIVE_FIELD)
-                            .build())) {
-                for (ServiceItem serviceItem : serviceItemRepository.findAll()) {
-                    csvPrinter.printRecord(
-                            serviceItem.getName(),
-                            serviceItem.getPrice(),
-                            serviceItem.getVatRate(),
-                            serviceItem.getWarrantyDays(),
-                            serviceItem.isActive());
-                }
-            }
+    private void saveChunk(List<ServiceItem> chunk, Map<String, UUID> idsByName) {
+        List<UUID> existingIds = chunk.stream()
+                .map(row -> idsByName.get(row.getName()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<UUID, ServiceItem> existingById = new HashMap<>();
+        if (!existingIds.isEmpty()) {
+            serviceItemRepository.findAllById(existingIds).forEach(item -> existingById.put(item.getId(), item));
+        }
 
-            // Convert to UTF-8 bytes with BOM for proper Excel display
-            return addUtf8Bom(stringWriter.toString());
-        } catch (IOException e) {
-            return "Error exporting".getBytes(StandardCharsets.UTF_8);
+        List<ServiceItem> newItems = new ArrayList<>();
+        Map<String, ServiceItem> newItemsByName = new HashMap<>();
+        for (ServiceItem row : chunk) {
+            UUID existingId = idsByName.get(row.getName());
+            ServiceItem target = existingId != null
+                    ? existingById.get(existingId)
+                    : newItemsByName.get(row.getName());
+            if (target == null) {
+                newItems.add(row);
+                newItemsByName.put(row.getName(), row);
+                continue;
+            }
+            // Later rows with the same name win, as with a row-by-row import
+            target.setPrice(row.getPrice());
+            target.setVatRate(row.getVatRate());
+            target.setWarrantyDays(row.getWarrantyDays());
+            target.setActive(row.isActive());
         }
-    }
 
-    private byte[] addUtf8Bom(String content) {
-        byte[] bom = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF }; // UTF-8 BOM
-        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
-        byte[] result = new byte[bom.length + contentBytes.length];
-        System.arraycopy(bom, 0, result, 0, bom.length);
-        System.arraycopy(contentBytes, 0, result, bom.length, contentBytes.length);
-        return result;
+        serviceItemRepository.saveAll(newItems);
+        entityManager.flush();
+        entityManager.clear();
+        newItems.forEach(item -> idsByName.put(item.getName(), item.getId()));
     }
 
     private ServiceItem copyCSVRecordFields(CSVRecord csvRecord, int rowNumber) throws CSVImportException {
@@ -230,4 +433,70 @@ public class ServiceItemServiceImpl implements ServiceItemService {
             throw new CSVImportException("Cột không tồn tại trong file CSV", rowNumber);
         }
     }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary import file {}", file, e);
+        }
+    }
+
+    /**
+     * Receives row errors and progress while a CSV file is imported.
+     */
+    private interface ImportListener {
+        void onRowError(CSVImportException error) throws CSVImportException;
+
+        void onChunkWritten(int processedRows, int importedRows);
+    }
+
+    /**
+     * Counts the bytes read from a stream so import progress can be reported
+     * against the file size.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Carries a {@link CSVImportException} out of a transaction callback so the
+     * transaction is rolled back.
+     */
+    private static class ImportAbortedException extends RuntimeException {
+        ImportAbortedException(CSVImportException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized CSVImportException getCause() {
+            return (CSVImportException) super.getCause();
+        }
+    }
 }
\ No newline at end of file
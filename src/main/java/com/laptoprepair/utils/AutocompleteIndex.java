@@ -0,0 +1,151 @@
+package com.laptoprepair.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, accent-insensitive autocomplete index over a fixed list of items.
+ * Every word of an item's text is folded with {@link VietnameseTextUtils} and
+ * kept in a sorted array, so a word-prefix lookup is a binary search.
+ *
+ * @param <T> the indexed item type
+ */
+public final class AutocompleteIndex<T> {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<T> items;
+    private final String[] foldedTexts;
+    private final WordEntry[] words;
+
+    private AutocompleteIndex(List<T> items, String[] foldedTexts, WordEntry[] words) {
+        this.items = items;
+        this.foldedTexts = foldedTexts;
+        this.words = words;
+    }
+
+    /**
+     * Builds an index. The order of {@code items} is kept as the tie-break order
+     * of search results.
+     *
+     * @param items     the items to index
+     * @param textOf    extracts the searchable text of an item
+     * @param <T>       the indexed item type
+     * @return the built index
+     */
+    public static <T> AutocompleteIndex<T> build(List<T> items, Function<T, String> textOf) {
+        String[] foldedTexts = new String[items.size()];
+        List<WordEntry> words = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String folded = VietnameseTextUtils.fold(textOf.apply(items.get(i)));
+            foldedTexts[i] = folded != null ? folded : "";
+            for (String word : splitWords(foldedTexts[i])) {
+                words.add(new WordEntry(word, i));
+            }
+        }
+
+        WordEntry[] sortedWords = words.toArray(new WordEntry[0]);
+        Arrays.sort(sortedWords);
+        return new AutocompleteIndex<>(List.copyOf(items), foldedTexts, sortedWords);
+    }
+
+    /**
+     * Finds up to {@code limit} items for a query. Items whose text starts with
+     * the query come first, then items where every query word is the prefix of
+     * a word, then items that merely contain the query.
+     *
+     * @param query the raw user input
+     * @param limit the maximum number of results
+     * @return matching items, best first
+     */
+    public List<T> search(String query, int limit) {
+        String foldedQuery = VietnameseTextUtils.fold(query);
+        if (foldedQuery == null || foldedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        BitSet wordMatches = matchAllWordPrefixes(splitWords(foldedQuery));
+        List<T> startsWith = new ArrayList<>();
+        List<T> wordPrefix = new ArrayList<>();
+        for (int i = wordMatches.nextSetBit(0); i >= 0 && startsWith.size() < limit; i = wordMatches.nextSetBit(i + 1)) {
+            (foldedTexts[i].startsWith(foldedQuery) ? startsWith : wordPrefix).add(items.get(i));
+        }
+
+        List<T> result = new ArrayList<>(limit);
+        addUpTo(result, startsWith, limit);
+        addUpTo(result, wordPrefix, limit);
+
+        // Fall back to a substring scan for queries that start mid-word
+        for (int i = 0; i < foldedTexts.length && result.size() < limit; i++) {
+            if (!wordMatches.get(i) && foldedTexts[i].contains(foldedQuery)) {
+                result.add(items.get(i));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private BitSet matchAllWordPrefixes(List<String> queryWords) {
+        BitSet matches = null;
+        for (String queryWord : queryWords) {
+            BitSet wordMatches = new BitSet(items.size());
+            for (int i = lowerBound(queryWord); i < words.length && words[i].word().startsWith(queryWord); i++) {
+                wordMatches.set(words[i].itemIndex());
+            }
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.and(wordMatches);
+            }
+        }
+        return matches != null ? matches : new BitSet();
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].word().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<String> splitWords(String foldedText) {
+        List<String> result = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(foldedText)) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    private static <T> void addUpTo(List<T> target, List<T> source, int limit) {
+        for (T item : source) {
+            if (target.size() >= limit) {
+                return;
+            }
+            target.add(item);
+        }
+    }
+
+    private record WordEntry(String word, int itemIndex) implements Comparable<WordEntry> {
+        @Override
+        public int compareTo(WordEntry other) {
+            int byWord = word.compareTo(other.word);
+            return byWord != 0 ? byWord : Integer.compare(itemIndex, other.itemIndex);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.laptoprepair.utils;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class for streaming CSV exports.
+ * Writes straight to the response stream so an export never holds the whole
+ * file in memory.
+ */
+public final class CsvExportUtils {
+
+    // UTF-8 BOM so that Excel detects the encoding and shows Vietnamese correctly
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private CsvExportUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Writes the UTF-8 BOM and returns a buffered CSV printer over the stream.
+     * The caller must flush the printer when done; closing it also closes the
+     * stream.
+     * 
+     * @param out     the stream to write to
+     * @param headers the CSV header names
+     * @return a printer that has already written the header row
+     * @throws IOException if writing fails
+     */
+    public static CSVPrinter openPrinter(OutputStream out, String... headers) throws IOException {
+        out.write(UTF8_BOM);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return new CSVPrinter(writer, CSVFormat.Builder.create().setHeader(headers).build());
+    }
+}
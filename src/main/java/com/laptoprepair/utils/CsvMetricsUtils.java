@@ -0,0 +1,38 @@
+package com.laptoprepair.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class for recording CSV import and export metrics.
+ * Each run adds its rows to {@code repair.csv.rows} and its duration to
+ * {@code repair.csv.duration}, both tagged with the dataset and the operation,
+ * so rows per second is the increase of the first divided by the increase of
+ * the second's sum.
+ */
+public final class CsvMetricsUtils {
+
+    public static final String IMPORT = "import";
+    public static final String EXPORT = "export";
+
+    private CsvMetricsUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Records a finished CSV run.
+     * 
+     * @param meterRegistry  the registry to record to
+     * @param dataset        what was imported or exported, e.g. "service_items"
+     * @param operation      {@link #IMPORT} or {@link #EXPORT}
+     * @param rows           the number of rows written
+     * @param startedAtNanos the {@link System#nanoTime()} when the run started
+     */
+    public static void record(MeterRegistry meterRegistry, String dataset, String operation, long rows,
+            long startedAtNanos) {
+        meterRegistry.counter("repair.csv.rows", "dataset", dataset, "operation", operation).increment(rows);
+        meterRegistry.timer("repair.csv.duration", "dataset", dataset, "operation", operation)
+                .record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+}
\ No newline at end of file
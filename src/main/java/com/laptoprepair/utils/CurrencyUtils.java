@@ -42,6 +42,45 @@ public final class CurrencyUtils {
         return withVat.setScale(DEFAULT_DECIMAL_PLACES, DEFAULT_ROUNDING_MODE);
     }
 
+    /**
+     * Calculates line amount before VAT for a request item with proper rounding.
+     * Formula: (price - discount) * quantity
+     * 
+     * @param price    the unit price
+     * @param discount the discount amount
+     * @param quantity the quantity
+     * @return rounded line amount before VAT
+     */
+    public static BigDecimal calculateLineNet(BigDecimal price, BigDecimal discount, int quantity) {
+        if (price == null) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal safeDiscount = discount != null ? discount : BigDecimal.ZERO;
+
+        return price.subtract(safeDiscount)
+                .multiply(BigDecimal.valueOf(quantity))
+                .setScale(DEFAULT_DECIMAL_PLACES, DEFAULT_ROUNDING_MODE);
+    }
+
+    /**
+     * Calculates request subtotal (before VAT) with proper rounding.
+     * 
+     * @param items the list of request items
+     * @return rounded subtotal amount
+     */
+    public static BigDecimal calculateRequestSubtotal(java.util.List<com.laptoprepair.entity.RequestItem> items) {
+        if (items == null || items.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal subtotal = items.stream()
+                .map(item -> calculateLineNet(item.getPrice(), item.getDiscount(), item.getQuantity()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return subtotal.setScale(DEFAULT_DECIMAL_PLACES, DEFAULT_ROUNDING_MODE);
+    }
+
     /**
      * Calculates request total with proper rounding.
      * 
@@ -0,0 +1,132 @@
+package com.laptoprepair.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Utility class for producing resized copies of uploaded images with the
+ * standard ImageIO and Java2D APIs.
+ */
+public final class ImageResizeUtils {
+
+    private ImageResizeUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Decodes an image, skipping source pixels when it is much larger than
+     * needed. Subsampled decoding keeps a 5MB photo from being expanded to its
+     * full resolution in memory only to be scaled down again.
+     *
+     * @param source        the image file
+     * @param targetMaxSize the longest side the caller will scale down to
+     * @return the decoded image, at least {@code targetMaxSize} on its longest
+     *         side when the source is larger, or null if the format is not
+     *         supported
+     * @throws IOException if the file cannot be read
+     */
+    public static BufferedImage readScaled(Path source, int targetMaxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / targetMaxSize);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales an image so that its longest side is at most {@code maxSize},
+     * keeping the aspect ratio. Large reductions are done in halving steps,
+     * which looks much better than a single bilinear pass. Transparent areas
+     * are filled with white since the result is stored as JPEG.
+     *
+     * @param source  the image to scale
+     * @param maxSize the maximum length of the longest side
+     * @return a new RGB image
+     */
+    public static BufferedImage resize(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Writes an image as JPEG. The file is written under a temporary name and
+     * then moved into place, so readers never see a partially written image.
+     *
+     * @param image   the image to write
+     * @param target  the destination file
+     * @param quality the JPEG quality between 0 and 1
+     * @throws IOException if writing fails
+     */
+    public static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        Path tempFile = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+}
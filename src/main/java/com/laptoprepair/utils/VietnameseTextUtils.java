@@ -0,0 +1,39 @@
+package com.laptoprepair.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for accent-insensitive text handling.
+ * Folds Vietnamese diacritics so that "nguyen" matches "Nguyễn".
+ */
+public final class VietnameseTextUtils {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private VietnameseTextUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Folds text for search: strips diacritics, maps đ/Đ to d, lowercases and
+     * collapses whitespace.
+     * 
+     * @param text the text to fold
+     * @return folded text, or null if the input is null
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
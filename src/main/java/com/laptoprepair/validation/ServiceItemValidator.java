@@ -4,17 +4,11 @@ import com.laptoprepair.exception.CSVImportException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.repository.ServiceItemRepository;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -37,9 +31,6 @@ public class ServiceItemValidator {
     private static final List<String> ACCEPTED_CSV_MIME_TYPES = Arrays.asList(
             "text/csv", "application/csv", "text/plain");
 
-    // Maximum CSV file size (5MB)
-    private static final long MAX_CSV_FILE_SIZE = 5_000_000L;
-
     public void validateUniqueNameOnCreate(String name) {
         if (repo.findByName(name).isPresent()) {
             throw new ValidationException("Tên dịch vụ đã tồn tại. Vui lòng chọn tên khác");
@@ -59,8 +50,6 @@ public class ServiceItemValidator {
 
         validateFileExtension(file);
         validateFileMimeType(file);
-        validateFileSize(file);
-        validateCSVStructure(file);
     }
 
     /**
@@ -90,54 +79,23 @@ public class ServiceItemValidator {
     }
 
     /**
-     * Validates the file size
+     * Validates that a CSV record has every expected column. Called on the first
+     * data row during the import pass, so the file is only read once.
      */
-    private void validateFileSize(MultipartFile file) throws CSVImportException {
-        if (file.getSize() > MAX_CSV_FILE_SIZE) {
-            throw new CSVImportException("File CSV quá lớn. Kích thước tối đa cho phép: " +
-                    (MAX_CSV_FILE_SIZE / 1_000_000) + "MB");
+    public void validateCSVColumns(CSVRecord csvRecord) throws CSVImportException {
+        if (csvRecord.size() < EXPECTED_CSV_HEADERS.size()) {
+            throw new CSVImportException("File CSV thiếu hoặc sai tên cột. " +
+                    "Các cột bắt buộc phải có tên chính xác: " + String.join(", ", EXPECTED_CSV_HEADERS));
         }
     }
 
     /**
-     * Validates the CSV file structure and headers using the same format as the
-     * actual import
+     * Validates that the CSV file had at least one data row after the header.
      */
-    private void validateCSVStructure(MultipartFile file) throws CSVImportException {
-        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
-                CSVParser parser = new CSVParser(reader, CSVFormat.Builder.create()
-                        .setHeader("name", "price", "vatRate", "warrantyDays", "active")
-                        .setSkipHeaderRecord(true)
-                        .build())) {
-
-            // Try to read first data record to ensure file has data after header
-            boolean hasDataRows = parser.iterator().hasNext();
-            if (!hasDataRows) {
-                throw new CSVImportException(
-                        "File CSV không có dữ liệu. Vui lòng thêm ít nhất một dòng dữ liệu sau header.");
-            }
-
-            // Try to access each expected field from first record to validate header
-            // structure
-            CSVRecord firstRecord = parser.iterator().next();
-            try {
-                firstRecord.get("name");
-                firstRecord.get("price");
-                firstRecord.get("vatRate");
-                firstRecord.get("warrantyDays");
-                firstRecord.get("active");
-            } catch (IllegalArgumentException e) {
-                throw new CSVImportException("File CSV thiếu hoặc sai tên cột. " +
-                        "Các cột bắt buộc phải có tên chính xác: name, price, vatRate, warrantyDays, active");
-            }
-
-        } catch (IOException e) {
-            throw new CSVImportException("Lỗi đọc file CSV: " + e.getMessage());
-        } catch (CSVImportException e) {
-            // Re-throw our custom exceptions
-            throw e;
-        } catch (Exception e) {
-            throw new CSVImportException("Định dạng file CSV không hợp lệ: " + e.getMessage());
+    public void validateCSVHasData(int dataRows) throws CSVImportException {
+        if (dataRows == 0) {
+            throw new CSVImportException(
+                    "File CSV không có dữ liệu. Vui lòng thêm ít nhất một dòng dữ liệu sau header.");
         }
     }
 
@@ -6,4 +6,7 @@ CREATE TABLE IF NOT EXISTS SPRING_AI_CHAT_MEMORY (
 );
 
 CREATE INDEX IF NOT EXISTS SPRING_AI_CHAT_MEMORY_CONVERSATION_ID_TIMESTAMP_IDX
-ON SPRING_AI_CHAT_MEMORY(conversation_id, "timestamp");
\ No newline at end of file
+ON SPRING_AI_CHAT_MEMORY(conversation_id, "timestamp");
+
+CREATE INDEX IF NOT EXISTS SPRING_AI_CHAT_MEMORY_TIMESTAMP_IDX
+ON SPRING_AI_CHAT_MEMORY("timestamp");
\ No newline at end of file
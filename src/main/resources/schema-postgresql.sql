@@ -0,0 +1,20 @@
+-- =================================================================================================
+-- POSTGRESQL-ONLY SEARCH INDEXES FOR LAPTOP REPAIR APPLICATION
+-- Apply after schema.sql (or set spring.sql.init.platform=postgresql).
+-- The prod profile runs with spring.sql.init.mode=never, so in production this script is NOT run
+-- by the app: apply it by hand (psql -f schema-postgresql.sql) as a user allowed to create the
+-- pg_trgm extension, then restart the app. Connections opened before the index existed can keep
+-- a cached plan that scans the whole table. See load-test/README.md for measured search times.
+-- H2 (dev) has no pg_trgm and falls back to a sequential LIKE scan over request.search_text.
+-- =================================================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Trigram index so that search_text LIKE '%term%' (terms of 3+ characters) uses an index scan
+-- instead of scanning every request
+CREATE INDEX IF NOT EXISTS idx_request_search_text_trgm
+ON request USING gin (search_text gin_trgm_ops);
+
+-- =================================================================================================
+-- END OF POSTGRESQL SEARCH INDEXES
+-- =================================================================================================
@@ -34,12 +34,31 @@ CREATE TABLE IF NOT EXISTS request (
     description VARCHAR(1000) NOT NULL CHECK (LENGTH(description) >= 10),
     status VARCHAR(50) CHECK (status IN ('APPROVE_QUOTED','CANCELLED','COMPLETED','IN_PROGRESS','QUOTED','SCHEDULED','UNDER_WARRANTY')),
     completed_at TIMESTAMP,
+    subtotal NUMERIC(38,2),
+    vat_amount NUMERIC(38,2),
+    total NUMERIC(38,2),
+    search_text VARCHAR(1000),
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP,
     updated_at TIMESTAMP,
     created_by VARCHAR(255),
     updated_by VARCHAR(255)
 );
 
+-- Denormalized request totals (for databases created before these columns existed).
+-- Left NULL on purpose so the startup backfill job can find and populate them.
+ALTER TABLE request ADD COLUMN IF NOT EXISTS subtotal NUMERIC(38,2);
+ALTER TABLE request ADD COLUMN IF NOT EXISTS vat_amount NUMERIC(38,2);
+ALTER TABLE request ADD COLUMN IF NOT EXISTS total NUMERIC(38,2);
+
+-- Accent-folded search text (name, phone, device, serial) maintained by the application.
+-- Left NULL on purpose so the startup reindex job can find and populate it.
+-- PostgreSQL trigram index for this column lives in schema-postgresql.sql.
+ALTER TABLE request ADD COLUMN IF NOT EXISTS search_text VARCHAR(1000);
+
+-- Optimistic lock version, incremented by Hibernate on every update of a request.
+ALTER TABLE request ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 -- Request Items table
 CREATE TABLE IF NOT EXISTS request_items (
     id UUID PRIMARY KEY,
@@ -83,6 +102,60 @@ CREATE TABLE IF NOT EXISTS request_images (
     FOREIGN KEY (request_id) REFERENCES request(id)
 );
 
+-- Background Job table (CSV imports and other long-running tasks)
+CREATE TABLE IF NOT EXISTS background_job (
+    id UUID PRIMARY KEY,
+    type VARCHAR(50) NOT NULL CHECK (type IN ('SERVICE_ITEM_IMPORT')),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('QUEUED','RUNNING','COMPLETED','FAILED')),
+    name VARCHAR(255),
+    total_units BIGINT NOT NULL,
+    processed_units BIGINT NOT NULL,
+    processed_items INTEGER NOT NULL,
+    succeeded_items INTEGER NOT NULL,
+    error_count INTEGER NOT NULL,
+    error_log VARCHAR(10000),
+    message VARCHAR(1000),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    owner_instance UUID,
+    lease_expires_at TIMESTAMP,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255)
+);
+
+-- Owning instance and lease, so replicas sharing the table only fail jobs of stopped instances
+ALTER TABLE background_job ADD COLUMN IF NOT EXISTS owner_instance UUID;
+ALTER TABLE background_job ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP;
+
+-- Email outbox table (notifications queued in the same transaction as the request change)
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id UUID PRIMARY KEY,
+    idempotency_key VARCHAR(200) NOT NULL UNIQUE,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING','SENT','FAILED')),
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    claim_token UUID,
+    last_error VARCHAR(1000),
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255)
+);
+
+-- Rate limit counters shared by app instances (app.rate-limiter.store=jdbc), one row per key and minute
+CREATE TABLE IF NOT EXISTS rate_limit_counter (
+    limit_key VARCHAR(255) NOT NULL,
+    window_start BIGINT NOT NULL,
+    request_count INTEGER NOT NULL,
+    PRIMARY KEY (limit_key, window_start)
+);
+
 -- -------------------------------------------------------------------------------------------------
 -- Section 2: SPRING AI CHAT MEMORY TABLE
 -- -------------------------------------------------------------------------------------------------
@@ -108,15 +181,30 @@ CREATE INDEX IF NOT EXISTS idx_service_item_name ON service_item(name);
 CREATE INDEX IF NOT EXISTS idx_request_id ON request(id);
 CREATE INDEX IF NOT EXISTS idx_request_status ON request(status);
 CREATE INDEX IF NOT EXISTS idx_request_appointment_date ON request(appointment_date);
+CREATE INDEX IF NOT EXISTS idx_request_appointment_date_id ON request(appointment_date DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_request_phone ON request(phone);
 CREATE INDEX IF NOT EXISTS idx_request_email ON request(email);
 CREATE INDEX IF NOT EXISTS idx_request_serial_number ON request(serial_number);
 CREATE INDEX IF NOT EXISTS idx_request_brand_model ON request(brand_model);
 
+-- Background Job indexes (used by BackgroundJobRepository)
+CREATE INDEX IF NOT EXISTS idx_background_job_status ON background_job(status);
+
+-- Email Outbox indexes (used by EmailOutboxRepository)
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_claim_token ON email_outbox(claim_token);
+
+-- Rate limit counter indexes (used by JdbcRateLimitStore cleanup)
+CREATE INDEX IF NOT EXISTS idx_rate_limit_counter_window_start ON rate_limit_counter(window_start);
+
 -- Spring AI Chat Memory indexes
 CREATE INDEX IF NOT EXISTS SPRING_AI_CHAT_MEMORY_CONVERSATION_ID_TIMESTAMP_IDX
 ON SPRING_AI_CHAT_MEMORY(conversation_id, "timestamp");
 
+-- Lets the chat memory retention job find the oldest messages without scanning the table
+CREATE INDEX IF NOT EXISTS SPRING_AI_CHAT_MEMORY_TIMESTAMP_IDX
+ON SPRING_AI_CHAT_MEMORY("timestamp");
+
 -- =================================================================================================
 -- END OF SCHEMA CREATION SCRIPT
 -- =================================================================================================
\ No newline at end of file
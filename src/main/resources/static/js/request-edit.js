@@ -73,10 +73,10 @@ function searchAndUpdateDatalist(query) {
     // Returns early if the query is too short.
     if (query.length < 2) return updateDatalist([]);
 
-    // Fetches service items from the API based on the query.
-    fetch(`/staff/service-items/search?q=${encodeURIComponent(query)}&size=20&page=0`)
+    // Fetches matching service item suggestions from the autocomplete API.
+    fetch(`/staff/service-items/suggest?q=${encodeURIComponent(query)}&limit=20`)
         .then(res => res.json())
-        .then(data => updateDatalist(data.content || []))
+        .then(data => updateDatalist(Array.isArray(data) ? data : []))
         .catch(() => { });
 }
 
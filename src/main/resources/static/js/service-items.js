@@ -31,8 +31,65 @@ document.addEventListener('DOMContentLoaded', function () {
 
     // Initialize simple CSV file validation
     initializeCSVValidation();
+
+    // Follow a background import started from this page
+    initializeImportJobProgress();
 });
 
+/**
+ * Polls the background import job and updates the progress card until the job finishes.
+ */
+function initializeImportJobProgress() {
+    const card = document.getElementById('importJobCard');
+    if (!card) {
+        return;
+    }
+
+    const bar = document.getElementById('importJobBar');
+    const statusBadge = document.getElementById('importJobStatus');
+    const message = document.getElementById('importJobMessage');
+    const errorLog = document.getElementById('importJobErrorLog');
+
+    const poll = () => {
+        fetch(`/staff/jobs/${card.dataset.jobId}`, { headers: { 'Accept': 'application/json' } })
+            .then(response => response.ok ? response.json() : Promise.reject(response.status))
+            .then(job => {
+                document.getElementById('importJobName').textContent = job.name || '';
+                document.getElementById('importJobProcessed').textContent = job.processedItems;
+                document.getElementById('importJobSucceeded').textContent = job.succeededItems;
+                document.getElementById('importJobErrors').textContent = job.errorCount;
+                statusBadge.className = job.badgeClass;
+                statusBadge.textContent = job.statusLabel;
+
+                // Percent is null while the total size is unknown
+                const percent = job.percent ?? 0;
+                bar.style.width = `${percent}%`;
+                bar.textContent = `${percent}%`;
+
+                if (job.errorLog) {
+                    errorLog.textContent = job.errorLog;
+                    errorLog.classList.remove('d-none');
+                }
+
+                if (!job.finished) {
+                    setTimeout(poll, 1000);
+                    return;
+                }
+
+                bar.classList.remove('progress-bar-animated', 'progress-bar-striped');
+                bar.classList.add(job.status === 'COMPLETED' ? 'bg-success' : 'bg-danger');
+                message.textContent = job.message || '';
+                message.className = `small mt-2 ${job.status === 'COMPLETED' ? 'text-success' : 'text-danger'}`;
+            })
+            .catch(() => {
+                message.textContent = 'Không thể lấy trạng thái import. Vui lòng tải lại trang.';
+                message.className = 'small mt-2 text-danger';
+            });
+    };
+
+    poll();
+}
+
 /**
  * Simple CSV file validation
  */
@@ -61,10 +118,10 @@ function initializeCSVValidation() {
             return;
         }
 
-        // Check file size (5MB max)
-        if (file.size > 5 * 1024 * 1024) {
+        // Check file size (100MB max)
+        if (file.size > 100 * 1024 * 1024) {
             event.preventDefault();
-            alert('File CSV quá lớn. Kích thước tối đa cho phép: 5MB');
+            alert('File CSV quá lớn. Kích thước tối đa cho phép: 100MB');
             return;
         }
     });
@@ -0,0 +1,80 @@
+package com.laptoprepair.config;
+
+import com.laptoprepair.service.EmailSender;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that health stays public while the Prometheus scrape endpoint only
+ * answers to the scrape credentials. Metrics export is off in tests unless
+ * observability is auto-configured, and without it there is no scrape endpoint.
+ */
+@SpringBootTest(properties = "app.security.metrics.users=prometheus:scrape-secret")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    // Email senders exist for the dev and prod profiles only
+    @MockBean
+    private EmailSender emailSender;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_Anonymous_ShouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_Anonymous_ShouldRequireCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_WrongPassword_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_StaffUser_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("staff", "password")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(user("staff").roles("STAFF")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_ScrapeCredentials_ShouldServeMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("application=\"laptop-repair\"")))
+                .andExpect(content().string(containsString("repair_cache_gets_total")))
+                .andExpect(content().string(containsString("cache=\"chat-response\",result=\"hit\"")))
+                .andExpect(content().string(containsString("cache=\"service-catalog\",result=\"miss\"")));
+    }
+
+    @Test
+    void staffPages_ScrapeCredentials_ShouldNotLogIn() throws Exception {
+        mockMvc.perform(get("/staff/requests/list").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().is3xxRedirection());
+    }
+}
\ No newline at end of file
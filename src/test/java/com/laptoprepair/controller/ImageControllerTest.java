@@ -0,0 +1,287 @@
+package com.laptoprepair.controller;
+
+import com.laptoprepair.exception.NotFoundException;
+import com.laptoprepair.service.ImageService;
+import com.laptoprepair.service.ImageService.StoredImage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the conditional GET and byte-range handling of image responses,
+ * which {@code FileResponseUtils} implements by hand to keep sendfile.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImageControllerTest {
+
+    private static final UUID REQUEST_ID = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430d1");
+    private static final String URL = "/images/" + REQUEST_ID + "/photo.jpg";
+    private static final String BODY = "0123456789";
+    private static final Instant MODIFIED = Instant.parse("2025-06-01T10:15:30Z");
+    private static final String MODIFIED_DATE = DateTimeFormatter.RFC_1123_DATE_TIME
+            .format(MODIFIED.atZone(ZoneOffset.UTC));
+    private static final String ETAG = "\"" + Long.toHexString(BODY.length()) + "-"
+            + Long.toHexString(MODIFIED.toEpochMilli()) + "\"";
+
+    @Mock
+    private ImageService imageService;
+
+    @TempDir
+    private Path uploadDir;
+
+    private MockMvc mockMvc;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(uploadDir.resolve("photo.jpg"), BODY, StandardCharsets.US_ASCII);
+        Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImageController(imageService)).build();
+    }
+
+    @Test
+    void image_UTC001_PlainGet_ShouldSendWholeFileWithValidators() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, BODY.length()))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, MODIFIED.toEpochMilli()))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    void image_UTC002_VariantNotGeneratedYet_ShouldNotBeCachedAsImmutable() throws Exception {
+        // Arrange
+        storedImage(false);
+
+        // Act & Assert
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void image_UTC003_UnknownImage_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(imageService.findStoredImage(REQUEST_ID, "photo.jpg")).thenThrow(new NotFoundException("Không tìm thấy"));
+
+        // Act & Assert
+        mockMvc.perform(get(URL)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void image_UTC004_MatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void image_UTC005_IfModifiedSinceLastModified_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED_DATE))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void image_UTC006_StaleIfNoneMatch_ShouldSendWholeFile() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"a-1\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void image_UTC007_SingleRange_ShouldReturnPartialContent() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4));
+    }
+
+    @Test
+    void image_UTC008_SuffixRange_ShouldReturnLastBytes() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"));
+    }
+
+    @Test
+    void image_UTC009_OpenEndedRangePastEnd_ShouldBeCutToFileLength() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=8-100"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("89"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-9/10"));
+    }
+
+    @Test
+    void image_UTC010_RangeBeyondFile_ShouldReturnRangeNotSatisfiable() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void image_UTC011_SeveralRanges_ShouldSendWholeFile() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,4-5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void image_UTC012_MalformedRange_ShouldSendWholeFile() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "items=0-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void image_UTC013_IfRangeWithCurrentEtag_ShouldReturnPartialContent() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("01"));
+    }
+
+    @Test
+    void image_UTC014_IfRangeWithOldEtag_ShouldSendWholeFile() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, "\"a-1\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void image_UTC015_IfRangeWithLastModifiedDate_ShouldReturnPartialContent() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, MODIFIED_DATE))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("01"));
+    }
+
+    @Test
+    void image_UTC016_IfRangeWithOlderDate_ShouldSendWholeFile() throws Exception {
+        // Arrange
+        storedImage(true);
+        String olderDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(MODIFIED.minusSeconds(60).atZone(ZoneOffset.UTC));
+
+        // Act & Assert
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, olderDate))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void image_UTC017_Head_ShouldSendHeadersWithoutBody() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act & Assert
+        mockMvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, BODY.length()))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void image_UTC018_SendfileSupported_ShouldHandRangeToConnector() throws Exception {
+        // Arrange
+        storedImage(true);
+
+        // Act
+        MvcResult result = mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5")
+                        .requestAttr("org.apache.tomcat.sendfile.support", true))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+
+        // Assert
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(),
+                result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(2L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.start"));
+        // The connector's end is exclusive
+        assertEquals(6L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    private void storedImage(boolean finalContent) {
+        when(imageService.findStoredImage(REQUEST_ID, "photo.jpg")).thenReturn(new StoredImage(file, finalContent));
+    }
+}
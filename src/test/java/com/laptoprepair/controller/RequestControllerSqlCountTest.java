@@ -0,0 +1,80 @@
+package com.laptoprepair.controller;
+
+import com.laptoprepair.sql.SqlCountingTest;
+import com.laptoprepair.sql.SqlStatementCounter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the queries behind the request pages, rendering included, so that a
+ * template or mapping change which loads a collection per row fails the build.
+ */
+class RequestControllerSqlCountTest extends SqlCountingTest {
+
+    // Seeded request with several items and history entries
+    private static final String REQUEST_ID = "6ba7b810-9dad-11d1-80b4-00c04fd430c9";
+
+    private static final RequestPostProcessor STAFF = user("staff").roles("STAFF");
+
+    @Test
+    void list_FirstPage_ShouldNotQueryPerRow() throws Exception {
+        mockMvc.perform(get("/staff/requests/list").param("size", "50").with(STAFF))
+                .andExpect(status().isOk());
+
+        // One page query using the stored totals, one count for the pager
+        SqlStatementCounter.assertSelectCount(2);
+        SqlStatementCounter.assertUpdateCount(0);
+    }
+
+    @Test
+    void list_SizeOutOfRange_ShouldClampInsteadOfFailing() throws Exception {
+        for (String size : new String[] { "0", "-5", "1000" }) {
+            mockMvc.perform(get("/staff/requests/list").param("size", size).with(STAFF))
+                    .andExpect(status().isOk());
+        }
+
+        SqlStatementCounter.assertSelectCount(6);
+    }
+
+    @Test
+    void list_Search_ShouldNotQueryPerRow() throws Exception {
+        mockMvc.perform(get("/staff/requests/list").param("search", "Nguyễn").with(STAFF))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.assertSelectCount(2);
+    }
+
+    @Test
+    void view_Request_ShouldLoadEachCollectionOnce() throws Exception {
+        mockMvc.perform(get("/staff/requests/view/" + REQUEST_ID).with(STAFF))
+                .andExpect(status().isOk());
+
+        // Request, items, images, history
+        SqlStatementCounter.assertSelectCount(4);
+        SqlStatementCounter.assertUpdateCount(0);
+    }
+
+    @Test
+    void edit_Request_ShouldLoadEachCollectionOnce() throws Exception {
+        mockMvc.perform(get("/staff/requests/edit/" + REQUEST_ID).with(STAFF))
+                .andExpect(status().isOk());
+
+        // Request, items, images; the form does not show history
+        SqlStatementCounter.assertSelectCount(3);
+        SqlStatementCounter.assertUpdateCount(0);
+    }
+
+    @Test
+    void publicView_Request_ShouldLoadEachCollectionOnce() throws Exception {
+        mockMvc.perform(get("/public/request/" + REQUEST_ID))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.assertSelectCount(4);
+        SqlStatementCounter.assertUpdateCount(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.laptoprepair.controller;
+
+import com.laptoprepair.entity.BackgroundJob;
+import com.laptoprepair.enums.BackgroundJobStatus;
+import com.laptoprepair.service.BackgroundJobService;
+import com.laptoprepair.sql.SqlCountingTest;
+import com.laptoprepair.sql.SqlStatementCounter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the statements of the service item list and of a CSV import, which
+ * runs on the test thread here. More rows in a chunk may only add JDBC insert
+ * batches, one per {@code hibernate.jdbc.batch_size} new items, and never a
+ * statement per row.
+ */
+class ServiceItemControllerSqlCountTest extends SqlCountingTest {
+
+    private static final RequestPostProcessor STAFF = user("staff").roles("STAFF");
+
+    // Each import sets a new price on the seeded item, so it is always updated
+    private static final AtomicInteger PRICE_CHANGES = new AtomicInteger();
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void list_FirstPage_ShouldNotQueryPerRow() throws Exception {
+        mockMvc.perform(get("/staff/service-items").with(STAFF))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.assertSelectCount(2);
+    }
+
+    @Test
+    void importCsv_NewAndExistingItems_ShouldWriteOneChunkInBatches() throws Exception {
+        UUID jobId = importCsv(csv(20));
+
+        // Names of the catalog, existing items of the chunk; job updates are plain UPDATEs
+        SqlStatementCounter.assertSelectCount(2);
+        // Job, one batch of new items (fewer than the batch size)
+        SqlStatementCounter.assertInsertCount(2);
+        // One batch of existing items; job marked running, its progress, job finished
+        SqlStatementCounter.assertUpdateCount(4);
+        SqlStatementCounter.assertDeleteCount(0);
+        assertCompleted(jobId);
+    }
+
+    @Test
+    void importCsv_MoreRowsInOneChunk_ShouldOnlyAddInsertBatches() throws Exception {
+        UUID smallJobId = importCsv(csv(20));
+        int selects = SqlStatementCounter.selects();
+        int inserts = SqlStatementCounter.inserts();
+        int updates = SqlStatementCounter.updates();
+        SqlStatementCounter.reset();
+
+        UUID largeJobId = importCsv(csv(500));
+
+        SqlStatementCounter.assertSelectCount(selects);
+        // 500 new items go out in full batches instead of the single batch of 20
+        SqlStatementCounter.assertInsertCount(inserts - 1 + 500 / batchSize);
+        SqlStatementCounter.assertUpdateCount(updates);
+        assertCompleted(smallJobId);
+        assertCompleted(largeJobId);
+    }
+
+    private UUID importCsv(String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "service-items.csv", "text/csv",
+                content.getBytes(StandardCharsets.UTF_8));
+        MvcResult result = mockMvc.perform(multipart("/staff/service-items/import").file(file)
+                        .with(STAFF).with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+
+        String jobId = UriComponentsBuilder.fromUriString(result.getResponse().getRedirectedUrl())
+                .build().getQueryParams().getFirst("importJob");
+        return UUID.fromString(jobId);
+    }
+
+    private void assertCompleted(UUID jobId) {
+        BackgroundJob job = backgroundJobService.findById(jobId);
+        assertEquals(BackgroundJobStatus.COMPLETED, job.getStatus(), job.getMessage());
+    }
+
+    /**
+     * Builds a CSV updating one seeded item and adding new ones with names not
+     * used by earlier imports.
+     */
+    private static String csv(int newItems) {
+        StringBuilder csv = new StringBuilder("name,price,vatRate,warrantyDays,active\n");
+        int price = 160000 + PRICE_CHANGES.incrementAndGet() * 1000;
+        csv.append("[NC] Công thay thế pin,").append(price).append(",0.10,7,true\n");
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < newItems; i++) {
+            csv.append("[LK] Linh kiện ").append(prefix).append(' ').append(i).append(",100000,0.08,30,true\n");
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.laptoprepair.entity;
+
+import org.hibernate.generator.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private final UuidV7Generator generator = new UuidV7Generator();
+
+    @Test
+    void generate_UTC001_NewId_ShouldSetVersion7AndVariantBits() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID id = UuidV7Generator.generate();
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        // The first 48 bits are the Unix time in milliseconds
+        assertTrue(id.getMostSignificantBits() >>> 16 >= before);
+    }
+
+    @Test
+    void generate_UTC002_ManyIds_ShouldIncreaseWithinTheSameMillisecond() {
+        // Arrange
+        int count = 10_000;
+        UUID[] ids = new UUID[count];
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            ids[i] = UuidV7Generator.generate();
+        }
+
+        // Assert
+        int sameMillisecond = 0;
+        for (int i = 1; i < count; i++) {
+            long previous = ids[i - 1].getMostSignificantBits();
+            long current = ids[i].getMostSignificantBits();
+            assertTrue(current > previous, "id " + i + " does not sort after the one before it");
+            if (current >>> 16 == previous >>> 16) {
+                sameMillisecond++;
+            }
+        }
+        assertTrue(sameMillisecond > 0);
+    }
+
+    @Test
+    void generate_UTC003_RandomUuidEntity_ShouldGetVersion4Id() {
+        // Act
+        Object requestId = generator.generate(null, new Request(), null, EventType.INSERT);
+        Object itemId = generator.generate(null, new ServiceItem(), null, EventType.INSERT);
+
+        // Assert
+        assertEquals(4, ((UUID) requestId).version());
+        assertEquals(7, ((UUID) itemId).version());
+    }
+}
@@ -0,0 +1,141 @@
+package com.laptoprepair.interceptor;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the store's upsert and cleanup statements against PostgreSQL, with the
+ * table created from {@code schema.sql}. {@link JdbcRateLimitStoreTest} covers
+ * the counting logic on a simulated table; this test checks the SQL itself.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcRateLimitStorePostgresTest {
+
+    private static final long WINDOW_START = 1_800_000_000_000L;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong clock = new AtomicLong(WINDOW_START + 1000);
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void clearCounters() {
+        jdbcTemplate.update("DELETE FROM rate_limit_counter");
+    }
+
+    @Test
+    void flush_UTC001_NewKeys_ShouldInsertOneRowPerKey() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+        acquire(store, "public:1.1.1.1", 10, 3);
+        acquire(store, "chat:2.2.2.2", 10, 2);
+
+        // Act
+        store.flush();
+
+        // Assert
+        assertEquals(3, countOf("public:1.1.1.1", WINDOW_START));
+        assertEquals(2, countOf("chat:2.2.2.2", WINDOW_START));
+    }
+
+    @Test
+    void flush_UTC002_TwoInstances_ShouldAddToSharedRowAndReturnTotal() {
+        // Arrange
+        JdbcRateLimitStore first = newStore();
+        JdbcRateLimitStore second = newStore();
+        acquire(first, "public:1.1.1.1", 10, 6);
+        first.flush();
+        acquire(second, "public:1.1.1.1", 10, 1);
+
+        // Act
+        second.flush();
+        int allowedOnSecond = acquire(second, "public:1.1.1.1", 10, 10);
+
+        // Assert
+        assertEquals(3, allowedOnSecond);
+        assertEquals(7, countOf("public:1.1.1.1", WINDOW_START));
+    }
+
+    @Test
+    void flush_UTC003_SameKeyInTwoWindows_ShouldUpdateBothRowsInOneFlush() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+        acquire(store, "public:1.1.1.1", 10, 4);
+        clock.addAndGet(60_000);
+        acquire(store, "public:1.1.1.1", 10, 1);
+
+        // Act
+        store.flush();
+
+        // Assert
+        assertEquals(4, countOf("public:1.1.1.1", WINDOW_START));
+        assertEquals(1, countOf("public:1.1.1.1", WINDOW_START + 60_000));
+    }
+
+    @Test
+    void evictIdle_UTC004_OldWindows_ShouldDeleteExpiredRows() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+        acquire(store, "public:1.1.1.1", 10, 1);
+        store.flush();
+        clock.addAndGet(120_000);
+        acquire(store, "public:1.1.1.1", 10, 1);
+        store.flush();
+
+        // Act
+        store.evictIdle();
+
+        // Assert
+        assertEquals(0, rowsOf("public:1.1.1.1", WINDOW_START));
+        assertEquals(1, countOf("public:1.1.1.1", WINDOW_START + 120_000));
+    }
+
+    private JdbcRateLimitStore newStore() {
+        return new JdbcRateLimitStore(jdbcTemplate, 1000, clock::get);
+    }
+
+    private int acquire(JdbcRateLimitStore store, String key, int limit, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (store.tryAcquire(key, limit)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private int countOf(String key, long window) {
+        return jdbcTemplate.queryForObject(
+                "SELECT request_count FROM rate_limit_counter WHERE limit_key = ? AND window_start = ?",
+                Integer.class, key, window);
+    }
+
+    private int rowsOf(String key, long window) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rate_limit_counter WHERE limit_key = ? AND window_start = ?",
+                Integer.class, key, window);
+    }
+}
@@ -0,0 +1,154 @@
+package com.laptoprepair.interceptor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcRateLimitStoreTest {
+
+    private static final long WINDOW_START = 1_800_000_000_000L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    // Simulated rate_limit_counter table shared by the store instances, by "key@window"
+    private final Map<String, Integer> database = new HashMap<>();
+    private final AtomicLong clock = new AtomicLong(WINDOW_START + 1000);
+    private boolean databaseDown;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().doAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            List<Object[]> columns = new ArrayList<>();
+            Connection connection = mock(Connection.class);
+            when(connection.createArrayOf(anyString(), any())).thenAnswer(call -> {
+                columns.add(call.getArgument(1));
+                return mock(Array.class);
+            });
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.getConnection()).thenReturn(connection);
+            ((PreparedStatementSetter) invocation.getArgument(1)).setValues(statement);
+
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < columns.get(0).length; i++) {
+                String key = (String) columns.get(0)[i];
+                long window = (Long) columns.get(1)[i];
+                int total = database.merge(key + "@" + window, (Integer) columns.get(2)[i], Integer::sum);
+                ResultSet row = mock(ResultSet.class);
+                when(row.getString(1)).thenReturn(key);
+                when(row.getLong(2)).thenReturn(window);
+                when(row.getInt(3)).thenReturn(total);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void tryAcquire_UTC001_WithinLimit_ShouldDecideWithoutDatabase() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+
+        // Act
+        int allowed = acquire(store, "public:1.1.1.1", 3, 5);
+
+        // Assert
+        assertEquals(3, allowed);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_UTC002_TwoInstances_ShouldShareLimitThroughDatabase() {
+        // Arrange
+        JdbcRateLimitStore first = newStore();
+        JdbcRateLimitStore second = newStore();
+        acquire(first, "public:1.1.1.1", 10, 6);
+        first.flush();
+        acquire(second, "public:1.1.1.1", 10, 1);
+
+        // Act
+        second.flush();
+        int allowedOnSecond = acquire(second, "public:1.1.1.1", 10, 10);
+        second.flush();
+        first.tryAcquire("public:1.1.1.1", 10);
+        first.flush();
+
+        // Assert
+        assertEquals(3, allowedOnSecond);
+        assertEquals(11, database.get("public:1.1.1.1@" + WINDOW_START));
+        assertFalse(first.tryAcquire("public:1.1.1.1", 10));
+        assertFalse(second.tryAcquire("public:1.1.1.1", 10));
+    }
+
+    @Test
+    void flush_UTC003_DatabaseDown_ShouldKeepCountsForNextFlush() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+        acquire(store, "chat:1.1.1.1", 5, 2);
+        databaseDown = true;
+        store.flush();
+
+        // Act
+        databaseDown = false;
+        store.flush();
+
+        // Assert
+        assertEquals(2, database.get("chat:1.1.1.1@" + WINDOW_START));
+    }
+
+    @Test
+    void tryAcquire_UTC004_NextWindow_ShouldStartNewCountAndFlushPreviousWindow() {
+        // Arrange
+        JdbcRateLimitStore store = newStore();
+        acquire(store, "public:1.1.1.1", 3, 3);
+        assertFalse(store.tryAcquire("public:1.1.1.1", 3));
+
+        // Act
+        clock.addAndGet(60_000);
+        boolean allowed = store.tryAcquire("public:1.1.1.1", 3);
+        store.flush();
+
+        // Assert
+        assertTrue(allowed);
+        assertEquals(3, database.get("public:1.1.1.1@" + WINDOW_START));
+        assertEquals(1, database.get("public:1.1.1.1@" + (WINDOW_START + 60_000)));
+    }
+
+    private JdbcRateLimitStore newStore() {
+        return new JdbcRateLimitStore(jdbcTemplate, 1000, clock::get);
+    }
+
+    private int acquire(JdbcRateLimitStore store, String key, int limit, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (store.tryAcquire(key, limit)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,90 @@
+package com.laptoprepair.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(new InMemoryRateLimitStore(new TokenBucketTable(60_000, 1000, clock::get)),
+                meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "publicMaxRequestsPerMinute", 3);
+        ReflectionTestUtils.setField(rateLimiter, "chatMaxRequestsPerMinute", 2);
+        rateLimiter.setRouteLimits("");
+    }
+
+    @Test
+    void isAllowed_UTC001_PublicRoutes_ShouldShareOneLimit() {
+        // Act
+        boolean submit = rateLimiter.isAllowed(request("/submit", "1.1.1.1"), "public");
+        boolean lookup = rateLimiter.isAllowed(request("/lookup", "1.1.1.1"), "public");
+        boolean recover = rateLimiter.isAllowed(request("/recover", "1.1.1.1"), "public");
+        boolean login = rateLimiter.isAllowed(request("/login", "1.1.1.1"), "public");
+
+        // Assert
+        assertTrue(submit && lookup && recover);
+        assertFalse(login);
+        assertTrue(rateLimiter.isAllowed(request("/login", "2.2.2.2"), "public"));
+        assertTrue(rateLimiter.isAllowed(request("/api/chat/stream", "1.1.1.1"), "chat"));
+        assertEquals(1.0, meterRegistry.get("repair.rate.limiter.rejections").tag("limit", "public")
+                .counter().count());
+    }
+
+    @Test
+    void isAllowed_UTC002_RouteLimit_ShouldUseOwnBucketAndLimit() {
+        // Arrange
+        rateLimiter.setRouteLimits("/login=1, /submit = 5, invalid");
+
+        // Act
+        boolean firstLogin = rateLimiter.isAllowed(request("/login", "1.1.1.1"), "public");
+        boolean secondLogin = rateLimiter.isAllowed(request("/login", "1.1.1.1"), "public");
+        int submits = 0;
+        for (int i = 0; i < 6; i++) {
+            if (rateLimiter.isAllowed(request("/submit", "1.1.1.1"), "public")) {
+                submits++;
+            }
+        }
+
+        // Assert
+        assertTrue(firstLogin);
+        assertFalse(secondLogin);
+        assertEquals(5, submits);
+        assertTrue(rateLimiter.isAllowed(request("/lookup", "1.1.1.1"), "public"));
+    }
+
+    @Test
+    void isAllowed_UTC003_RotatedForwardedFor_ShouldNotGetFreshBucket() {
+        // Act
+        int allowed = 0;
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("/api/chat/stream", "203.0.113.7");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            if (rateLimiter.isAllowed(request, "chat")) {
+                allowed++;
+            }
+        }
+
+        // Assert
+        assertEquals(2, allowed);
+        assertTrue(rateLimiter.isAllowed(request("/api/chat/stream", "198.51.100.0"), "chat"));
+    }
+
+    private MockHttpServletRequest request(String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,125 @@
+package com.laptoprepair.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void tryAcquire_UTC001_BurstAboveCapacity_ShouldDenyExtraRequests() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(WINDOW_MILLIS, 100, clock::get);
+
+        // Act
+        int allowed = 0;
+        for (int i = 0; i < 15; i++) {
+            if (table.tryAcquire("public:1.2.3.4", 10)) {
+                allowed++;
+            }
+        }
+
+        // Assert
+        assertEquals(10, allowed);
+        assertTrue(table.tryAcquire("public:5.6.7.8", 10));
+    }
+
+    @Test
+    void tryAcquire_UTC002_TimePasses_ShouldRefillProportionally() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(WINDOW_MILLIS, 100, clock::get);
+        for (int i = 0; i < 10; i++) {
+            table.tryAcquire("chat:1.2.3.4", 10);
+        }
+        assertFalse(table.tryAcquire("chat:1.2.3.4", 10));
+
+        // Act: 10 per minute refills one token every 6 seconds, checked in small steps
+        int allowed = 0;
+        for (int second = 1; second <= 12; second++) {
+            clock.addAndGet(1000);
+            if (table.tryAcquire("chat:1.2.3.4", 10)) {
+                allowed++;
+            }
+        }
+
+        // Assert
+        assertEquals(2, allowed);
+    }
+
+    @Test
+    void tryAcquire_UTC003_ManyKeys_ShouldStayBoundedAndKeepRecentKeys() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(WINDOW_MILLIS, 1000, clock::get);
+        for (int i = 0; i < 10; i++) {
+            table.tryAcquire("public:victim", 10);
+        }
+
+        // Act: spoofed client keys arrive while the real client keeps sending
+        for (int i = 0; i < 20_000; i++) {
+            clock.incrementAndGet();
+            table.tryAcquire("public:spoofed-" + i, 10);
+            if (i % 500 == 0) {
+                table.tryAcquire("public:victim", 10);
+            }
+        }
+
+        // Assert
+        assertTrue(table.size() <= 1000);
+        assertFalse(table.tryAcquire("public:victim", 10));
+    }
+
+    @Test
+    void evictIdle_UTC004_BucketIdleForWindow_ShouldBeRemoved() {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(WINDOW_MILLIS, 100, clock::get);
+        table.tryAcquire("public:old", 10);
+        clock.addAndGet(WINDOW_MILLIS / 2);
+        table.tryAcquire("public:recent", 10);
+
+        // Act
+        clock.addAndGet(WINDOW_MILLIS / 2);
+        table.evictIdle();
+
+        // Assert
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void tryAcquire_UTC005_ConcurrentCallers_ShouldNotOverGrant() throws Exception {
+        // Arrange
+        TokenBucketTable table = new TokenBucketTable(WINDOW_MILLIS, 100, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+
+        // Act
+        for (int thread = 0; thread < 16; thread++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (table.tryAcquire("public:shared", 500)) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(500, allowed.get());
+    }
+}
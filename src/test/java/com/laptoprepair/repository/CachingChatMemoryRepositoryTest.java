@@ -0,0 +1,217 @@
+package com.laptoprepair.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingChatMemoryRepositoryTest {
+
+    private static final String INSERT_SQL = "INSERT INTO SPRING_AI_CHAT_MEMORY VALUES (?, ?, ?, ?)";
+
+    @Mock
+    private ChatMemoryRepository delegate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CachingChatMemoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingChatMemoryRepository(delegate, jdbcTemplate, INSERT_SQL, 100, 10_000, 60_000);
+    }
+
+    @Test
+    void findByConversationId_UTC001_CachedConversation_ShouldReadDatabaseOnce() {
+        // Arrange
+        when(delegate.findByConversationId("c1")).thenReturn(List.of(new UserMessage("Xin chào")));
+
+        // Act
+        repository.findByConversationId("c1");
+        int userMessages = repository.countUserMessages("c1");
+        List<Message> messages = repository.findByConversationId("c1");
+
+        // Assert
+        assertEquals(1, messages.size());
+        assertEquals(1, userMessages);
+        verify(delegate, times(1)).findByConversationId("c1");
+    }
+
+    @Test
+    void findByConversationId_UTC002_ServedByAnotherInstance_ShouldReloadBeforeCounting() {
+        // Arrange - every cache hit is checked against the database
+        repository = new CachingChatMemoryRepository(delegate, jdbcTemplate, INSERT_SQL, 100, 10_000, 0);
+        Message question = new UserMessage("Máy tôi không lên nguồn");
+        Message answer = new AssistantMessage("Bạn hãy mang máy đến cửa hàng");
+        List<Message> otherInstanceTurn = List.of(question, answer, new UserMessage("Cửa hàng ở đâu?"),
+                new AssistantMessage("Số 1 Lê Lợi"));
+        when(jdbcTemplate.queryForMap(anyString(), eq("c1")))
+                .thenReturn(storedStamp(2, 1000))
+                .thenReturn(storedStamp(4, 2000));
+        when(delegate.findByConversationId("c1"))
+                .thenReturn(List.of(question, answer))
+                .thenReturn(otherInstanceTurn);
+        repository.findByConversationId("c1");
+
+        // Act
+        int userMessages = repository.countUserMessages("c1");
+
+        // Assert
+        assertEquals(2, userMessages);
+        assertEquals(otherInstanceTurn, repository.findByConversationId("c1"));
+    }
+
+    @Test
+    void findByConversationId_UTC004_StoredRowsUnchanged_ShouldNotReload() {
+        // Arrange - every cache hit is checked against the database
+        repository = new CachingChatMemoryRepository(delegate, jdbcTemplate, INSERT_SQL, 100, 10_000, 0);
+        when(jdbcTemplate.queryForMap(anyString(), eq("c1"))).thenReturn(storedStamp(1, 1000));
+        when(delegate.findByConversationId("c1")).thenReturn(List.of(new UserMessage("Xin chào")));
+        repository.findByConversationId("c1");
+
+        // Act
+        int userMessages = repository.countUserMessages("c1");
+        repository.findByConversationId("c1");
+
+        // Assert
+        assertEquals(1, userMessages);
+        verify(delegate, times(1)).findByConversationId("c1");
+        verify(jdbcTemplate, times(3)).queryForMap(anyString(), eq("c1"));
+    }
+
+    @Test
+    void findByConversationId_UTC003_UnwrittenMessages_ShouldNotReload() {
+        // Arrange
+        repository = new CachingChatMemoryRepository(delegate, jdbcTemplate, INSERT_SQL, 100, 10_000, 0);
+        repository.startConversation("c1");
+        repository.saveAll("c1", List.of(new UserMessage("Máy tôi không lên nguồn")));
+
+        // Act
+        List<Message> messages = repository.findByConversationId("c1");
+
+        // Assert
+        assertEquals(1, messages.size());
+        verifyNoInteractions(delegate, jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_UTC002_CompletedTurn_ShouldWriteNewMessagesInOneBatch() {
+        // Arrange
+        repository.startConversation("c1");
+        List<Message> messages = new ArrayList<>();
+        messages.add(new UserMessage("Máy tôi không lên nguồn"));
+        repository.saveAll("c1", messages);
+        repository.flush();
+        messages.add(new AssistantMessage("Bạn hãy mang máy đến cửa hàng"));
+        repository.saveAll("c1", messages);
+
+        // Act
+        repository.flush();
+        repository.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(INSERT_SQL), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals("USER", rows.getValue().get(0)[2]);
+        assertEquals("ASSISTANT", rows.getValue().get(1)[2]);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void flush_UTC003_WindowDroppedMessages_ShouldRewriteConversation() {
+        // Arrange
+        Message oldQuestion = new UserMessage("Câu hỏi cũ");
+        Message oldAnswer = new AssistantMessage("Trả lời cũ");
+        when(delegate.findByConversationId("c1")).thenReturn(List.of(oldQuestion, oldAnswer));
+        List<Message> trimmed = List.of(oldAnswer, new UserMessage("Câu hỏi mới"), new AssistantMessage("Trả lời mới"));
+        repository.saveAll("c1", trimmed);
+
+        // Act
+        repository.flush();
+
+        // Assert
+        verify(delegate).saveAll("c1", trimmed);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(1, repository.countUserMessages("c1"));
+    }
+
+    @Test
+    void flush_UTC004_DatabaseDown_ShouldRetryOnNextFlush() {
+        // Arrange
+        repository.startConversation("c1");
+        repository.saveAll("c1", List.of(new UserMessage("Xin chào"), new AssistantMessage("Chào bạn")));
+        when(jdbcTemplate.batchUpdate(eq(INSERT_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[] { 1, 1 });
+        repository.flush();
+
+        // Act
+        repository.flush();
+        repository.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(INSERT_SQL), anyList());
+    }
+
+    @Test
+    void flush_UTC005_UnansweredTurn_ShouldWaitUntilShutdown() {
+        // Arrange
+        repository.startConversation("c1");
+        repository.saveAll("c1", List.of(new UserMessage("Xin chào")));
+
+        // Act
+        repository.flush();
+        verifyNoInteractions(jdbcTemplate);
+        repository.flushAll();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_SQL), anyList());
+        assertEquals(1, repository.countUserMessages("c1"));
+    }
+
+    @Test
+    void findByConversationId_UTC005_WrittenConversation_ShouldCompareWithWrittenRows() {
+        // Arrange - every cache hit is checked against the database
+        repository = new CachingChatMemoryRepository(delegate, jdbcTemplate, INSERT_SQL, 100, 10_000, 0);
+        repository.startConversation("c1");
+        repository.saveAll("c1", List.of(new UserMessage("Xin chào"), new AssistantMessage("Chào bạn")));
+        repository.flush();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_SQL), rows.capture());
+        Timestamp lastWritten = (Timestamp) rows.getValue().get(1)[3];
+        when(jdbcTemplate.queryForMap(anyString(), eq("c1"))).thenReturn(storedStamp(2, lastWritten.getTime()));
+
+        // Act
+        List<Message> messages = repository.findByConversationId("c1");
+
+        // Assert
+        assertEquals(2, messages.size());
+        verifyNoInteractions(delegate);
+    }
+
+    private static Map<String, Object> storedStamp(long count, long lastTimestamp) {
+        return Map.of("message_count", count, "last_timestamp", new Timestamp(lastTimestamp));
+    }
+}
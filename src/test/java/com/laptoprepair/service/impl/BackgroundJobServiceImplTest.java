@@ -0,0 +1,197 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.entity.BackgroundJob;
+import com.laptoprepair.enums.BackgroundJobStatus;
+import com.laptoprepair.enums.BackgroundJobType;
+import com.laptoprepair.exception.ValidationException;
+import com.laptoprepair.repository.BackgroundJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackgroundJobServiceImplTest {
+
+        @Mock
+        private BackgroundJobRepository jobRepository;
+
+        private BackgroundJobServiceImpl backgroundJobService;
+
+        @BeforeEach
+        void setUp() {
+                // Run jobs inline so the outcome can be asserted directly
+                backgroundJobService = new BackgroundJobServiceImpl(jobRepository, Runnable::run,
+                                new VietnamTimeProvider());
+        }
+
+        @Test
+        void submit_UTC001_TaskSucceeds_ShouldCompleteWithProgressAndErrors() {
+                // Arrange
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> {
+                        BackgroundJob job = invocation.getArgument(0);
+                        if (job.getId() == null) {
+                                job.setId(UUID.randomUUID());
+                        }
+                        return job;
+                });
+                when(jobRepository.markRunning(any(UUID.class), any(UUID.class), any(), any())).thenReturn(1);
+                when(jobRepository.updateProgress(any(UUID.class), any(UUID.class), eq(100L), eq(5), eq(4), eq(1),
+                                eq("Dòng 3: Dữ liệu số không hợp lệ\n"), any())).thenReturn(1);
+                when(jobRepository.finish(any(UUID.class), any(UUID.class), eq(BackgroundJobStatus.COMPLETED),
+                                eq("Đã import 4 dịch vụ"), eq(1), anyString(), any())).thenReturn(1);
+
+                // Act
+                BackgroundJob job = backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT, "items.csv",
+                                100, progress -> {
+                                        progress.recordError("Dòng 3: Dữ liệu số không hợp lệ");
+                                        progress.update(100, 5, 4);
+                                        return "Đã import 4 dịch vụ";
+                                });
+
+                // Assert
+                assertEquals(BackgroundJobStatus.COMPLETED, job.getStatus());
+                assertEquals("Đã import 4 dịch vụ", job.getMessage());
+                assertEquals(5, job.getProcessedItems());
+                assertEquals(4, job.getSucceededItems());
+                assertEquals(1, job.getErrorCount());
+                assertEquals("Dòng 3: Dữ liệu số không hợp lệ\n", job.getErrorLog());
+                assertEquals(100, job.getPercent());
+                assertNotNull(job.getStartedAt());
+                assertNotNull(job.getFinishedAt());
+        }
+
+        @Test
+        void submit_UTC002_TaskThrows_ShouldMarkJobFailed() {
+                // Arrange
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                when(jobRepository.markRunning(any(), any(UUID.class), any(), any())).thenReturn(1);
+                when(jobRepository.finish(any(), any(UUID.class), eq(BackgroundJobStatus.FAILED),
+                                eq("File CSV không có dữ liệu"), eq(0), isNull(), any())).thenReturn(1);
+
+                // Act
+                BackgroundJob job = backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT, "items.csv",
+                                100, progress -> {
+                                        throw new IllegalStateException("File CSV không có dữ liệu");
+                                });
+
+                // Assert
+                assertEquals(BackgroundJobStatus.FAILED, job.getStatus());
+                assertEquals("File CSV không có dữ liệu", job.getMessage());
+                assertNotNull(job.getFinishedAt());
+        }
+
+        @Test
+        void submit_UTC003_QueueFull_ShouldMarkJobFailedAndThrowValidationException() {
+                // Arrange
+                backgroundJobService = new BackgroundJobServiceImpl(jobRepository, task -> {
+                        throw new TaskRejectedException("Queue full");
+                }, new VietnamTimeProvider());
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // Act & Assert
+                assertThrows(ValidationException.class, () -> backgroundJobService.submit(
+                                BackgroundJobType.SERVICE_ITEM_IMPORT, "items.csv", 100, progress -> "unused"));
+                ArgumentCaptor<BackgroundJob> jobCaptor = ArgumentCaptor.forClass(BackgroundJob.class);
+                verify(jobRepository, times(2)).save(jobCaptor.capture());
+                assertEquals(BackgroundJobStatus.FAILED, jobCaptor.getValue().getStatus());
+                assertNotNull(jobCaptor.getValue().getFinishedAt());
+        }
+
+        @Test
+        void submit_UTC004_FailedByOtherInstance_ShouldStopTaskWithoutRevivingJob() {
+                // Arrange
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                when(jobRepository.markRunning(any(), any(UUID.class), any(), any())).thenReturn(1);
+                // Another instance failed the job as interrupted, so no conditional write applies
+                when(jobRepository.updateProgress(any(), any(UUID.class), anyLong(), anyInt(), anyInt(), anyInt(),
+                                any(), any())).thenReturn(0);
+                when(jobRepository.finish(any(), any(UUID.class), any(), any(), anyInt(), any(), any()))
+                                .thenReturn(0);
+                int[] updates = { 0 };
+
+                // Act
+                backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT, "items.csv", 100, progress -> {
+                        progress.update(10, 1, 1);
+                        updates[0]++;
+                        progress.update(20, 2, 2);
+                        return "unused";
+                });
+
+                // Assert
+                assertEquals(0, updates[0]);
+                verify(jobRepository).finish(any(), any(UUID.class), eq(BackgroundJobStatus.FAILED), anyString(),
+                                anyInt(), any(), any());
+                verify(jobRepository, times(1)).save(any(BackgroundJob.class));
+        }
+
+        @Test
+        void submit_UTC005_FailedBeforeStart_ShouldNotRunTask() {
+                // Arrange
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                when(jobRepository.markRunning(any(), any(UUID.class), any(), any())).thenReturn(0);
+                boolean[] ran = { false };
+
+                // Act
+                BackgroundJob job = backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT, "items.csv",
+                                100, progress -> {
+                                        ran[0] = true;
+                                        return "unused";
+                                });
+
+                // Assert
+                assertFalse(ran[0]);
+                assertEquals(BackgroundJobStatus.QUEUED, job.getStatus());
+                verify(jobRepository, never()).finish(any(), any(), any(), any(), anyInt(), any(), any());
+        }
+
+        @Test
+        void failInterruptedJobs_UTC001_OnStartup_ShouldFailOnlyExpiredQueuedAndRunningJobs() {
+                // Arrange
+                when(jobRepository.failExpiredJobs(eq(List.of(BackgroundJobStatus.QUEUED,
+                                BackgroundJobStatus.RUNNING)), anyString(), any())).thenReturn(2);
+
+                // Act
+                backgroundJobService.failInterruptedJobs();
+
+                // Assert
+                verify(jobRepository).failExpiredJobs(eq(List.of(BackgroundJobStatus.QUEUED,
+                                BackgroundJobStatus.RUNNING)), anyString(), any());
+                verify(jobRepository, never()).renewLeases(any(), any(), any());
+        }
+
+        @Test
+        void heartbeat_UTC001_ShouldRenewOwnJobsOnlyThenFailExpired() {
+                // Arrange
+                when(jobRepository.save(any(BackgroundJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                LocalDateTime submittedAt = new VietnamTimeProvider().now();
+                BackgroundJob job = backgroundJobService.submit(BackgroundJobType.SERVICE_ITEM_IMPORT,
+                                "items.csv", 100, progress -> "Đã import 0 dịch vụ");
+
+                // Act
+                backgroundJobService.heartbeat();
+
+                // Assert
+                assertNotNull(job.getOwnerInstance());
+                assertTrue(job.getLeaseExpiresAt().isAfter(submittedAt.plusSeconds(60)));
+                ArgumentCaptor<LocalDateTime> leaseCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+                InOrder inOrder = inOrder(jobRepository);
+                inOrder.verify(jobRepository).renewLeases(eq(job.getOwnerInstance()), eq(List.of(
+                                BackgroundJobStatus.QUEUED, BackgroundJobStatus.RUNNING)), leaseCaptor.capture());
+                inOrder.verify(jobRepository).failExpiredJobs(anyList(), anyString(), any());
+                assertTrue(leaseCaptor.getValue().isAfter(submittedAt.plusSeconds(60)));
+        }
+}
@@ -0,0 +1,101 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.repository.CachingChatMemoryRepository;
+import com.laptoprepair.service.ChatMemoryRetentionService.RetentionReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMemoryRetentionServiceImplTest {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private CachingChatMemoryRepository chatMemoryRepository;
+
+        @InjectMocks
+        private ChatMemoryRetentionServiceImpl chatMemoryRetentionService;
+
+        @Captor
+        private ArgumentCaptor<List<Object[]>> batchArgs;
+
+        @BeforeEach
+        void setUp() {
+                ReflectionTestUtils.setField(chatMemoryRetentionService, "batchSize", 2);
+                when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(10L, 5L);
+                when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any())).thenReturn(false);
+        }
+
+        @Test
+        void deleteIdleConversations_UTC001_IdleConversations_ShouldDeleteInBatches() {
+                // Arrange
+                when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), eq(2)))
+                                .thenReturn(List.of("a", "a"), List.of("b"));
+                when(chatMemoryRepository.evict(any())).thenAnswer(invocation -> List.copyOf(
+                                invocation.<Set<String>>getArgument(0)));
+                when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                                .thenReturn(new int[] { 3 }, new int[] { 2 });
+
+                // Act
+                RetentionReport report = chatMemoryRetentionService.deleteIdleConversations();
+
+                // Assert
+                assertEquals(2, report.conversationsDeleted());
+                assertEquals(5, report.rowsDeleted());
+                assertEquals(10, report.rowsBefore());
+                assertEquals(5, report.rowsAfter());
+                assertNull(report.tableBytesBefore());
+                verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batchArgs.capture());
+                assertEquals(1, batchArgs.getAllValues().get(0).size());
+                assertEquals("a", batchArgs.getAllValues().get(0).get(0)[0]);
+        }
+
+        @Test
+        void deleteIdleConversations_UTC002_ConversationInUse_ShouldKeepIt() {
+                // Arrange
+                when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), eq(2)))
+                                .thenReturn(List.of("a", "a"));
+                when(chatMemoryRepository.evict(any())).thenReturn(List.of());
+
+                // Act
+                RetentionReport report = chatMemoryRetentionService.deleteIdleConversations();
+
+                // Assert
+                assertEquals(0, report.conversationsDeleted());
+                verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        }
+
+        @Test
+        void deleteIdleConversations_UTC003_ResumedBeforeDelete_ShouldNotCount() {
+                // Arrange
+                when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any(), eq(2)))
+                                .thenReturn(List.of("a"));
+                when(chatMemoryRepository.evict(any())).thenReturn(List.of("a"));
+                when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0 });
+
+                // Act
+                RetentionReport report = chatMemoryRetentionService.deleteIdleConversations();
+
+                // Assert
+                assertEquals(0, report.conversationsDeleted());
+                assertEquals(0, report.rowsDeleted());
+        }
+}
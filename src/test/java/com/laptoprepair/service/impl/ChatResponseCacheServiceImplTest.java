@@ -0,0 +1,167 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.service.ChatResponseCacheService.ResponseCacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatResponseCacheServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Mock
+    private VietnamTimeProvider vietnamTimeProvider;
+
+    private ChatResponseCacheServiceImpl chatResponseCacheService;
+
+    @BeforeEach
+    void setUp() {
+        chatResponseCacheService = new ChatResponseCacheServiceImpl(vietnamTimeProvider);
+        ReflectionTestUtils.setField(chatResponseCacheService, "enabled", true);
+        ReflectionTestUtils.setField(chatResponseCacheService, "maxEntries", 2);
+        ReflectionTestUtils.setField(chatResponseCacheService, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(chatResponseCacheService, "similarityThreshold", 0.9);
+        chatResponseCacheService.setDistinguishingTerms("asus, acer, Dell, inspiron");
+        lenient().when(vietnamTimeProvider.now()).thenReturn(NOW);
+    }
+
+    @Test
+    void findAnswer_UTC001_RecordedAnswer_ShouldReplaySameChunks() {
+        // Arrange
+        record("Cửa hàng mở cửa mấy giờ?", "Cửa hàng ", "mở cửa ", "từ 8h đến 18h.");
+
+        // Act
+        List<String> chunks = chatResponseCacheService.findAnswer("  cửa hàng mở cửa MẤY GIỜ ");
+        List<String> replayed = chatResponseCacheService.replay(chunks)
+                .map(response -> response.getResult().getOutput().getText())
+                .collectList()
+                .block();
+
+        // Assert
+        assertEquals(List.of("Cửa hàng ", "mở cửa ", "từ 8h đến 18h."), replayed);
+        ResponseCacheStats stats = chatResponseCacheService.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(0, stats.misses());
+    }
+
+    @Test
+    void findAnswer_UTC002_SimilarQuestion_ShouldHitAboveThresholdOnly() {
+        // Arrange
+        record("Chính sách bảo hành như thế nào", "Bảo hành 3 tháng.");
+
+        // Act
+        List<String> withoutDiacritics = chatResponseCacheService.findAnswer("chinh sach bao hanh nhu the nao");
+        List<String> otherQuestion = chatResponseCacheService.findAnswer("Giá thay màn hình bao nhiêu");
+
+        // Assert
+        assertEquals(List.of("Bảo hành 3 tháng."), withoutDiacritics);
+        assertNull(otherQuestion);
+        ResponseCacheStats stats = chatResponseCacheService.getStats();
+        assertEquals(1, stats.similarHits());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void findAnswer_UTC003_Expired_ShouldMissAndEvict() {
+        // Arrange
+        record("Giờ mở cửa", "8h - 18h");
+        when(vietnamTimeProvider.now()).thenReturn(NOW.plusMinutes(61));
+
+        // Act
+        List<String> chunks = chatResponseCacheService.findAnswer("Giờ mở cửa");
+
+        // Assert
+        assertNull(chunks);
+        assertEquals(0, chatResponseCacheService.getStats().size());
+        assertEquals(1, chatResponseCacheService.getStats().evictions());
+    }
+
+    @Test
+    void record_UTC004_StreamFailed_ShouldNotCache() {
+        // Arrange
+        Flux<ChatResponse> failing = Flux.concat(Flux.just(response("Cửa hàng ")),
+                Flux.error(new IllegalStateException("timeout")));
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> chatResponseCacheService.record("Giờ mở cửa", failing).blockLast());
+
+        // Assert
+        assertNull(chatResponseCacheService.findAnswer("Giờ mở cửa"));
+    }
+
+    @Test
+    void record_UTC005_OverMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        record("Giờ mở cửa", "8h - 18h");
+        record("Địa chỉ cửa hàng", "123 Lê Lợi");
+        chatResponseCacheService.findAnswer("Giờ mở cửa");
+
+        // Act
+        record("Có sửa MacBook không", "Có");
+
+        // Assert
+        assertNotNull(chatResponseCacheService.findAnswer("Giờ mở cửa"));
+        assertNull(chatResponseCacheService.findAnswer("Địa chỉ cửa hàng"));
+        assertEquals(2, chatResponseCacheService.getStats().size());
+    }
+
+    @Test
+    void findAnswer_UTC006_OtherYearModelOrBrand_ShouldNotHitSimilar() {
+        // Arrange
+        record("Máy Dell Inspiron 15 mua năm 2021 thì còn bảo hành không?", "Đã hết bảo hành.");
+        record("Giá thay pin laptop Asus bao nhiêu?", "Khoảng 800.000đ.");
+
+        // Act
+        List<String> otherYear = chatResponseCacheService.findAnswer("Máy Dell Inspiron 15 mua năm 2023 thì còn bảo hành không?");
+        List<String> otherModel = chatResponseCacheService.findAnswer("Máy Dell Inspiron 14 mua năm 2021 thì còn bảo hành không?");
+        List<String> otherBrand = chatResponseCacheService.findAnswer("Giá thay pin laptop Acer bao nhiêu?");
+        List<String> withoutDiacritics = chatResponseCacheService.findAnswer("gia thay pin laptop asus bao nhieu");
+
+        // Assert
+        assertNull(otherYear);
+        assertNull(otherModel);
+        assertNull(otherBrand);
+        assertEquals(List.of("Khoảng 800.000đ."), withoutDiacritics);
+    }
+
+    @Test
+    void findAnswer_UTC007_SimilarityDisabled_ShouldHitSameQuestionOnly() {
+        // Arrange
+        ReflectionTestUtils.setField(chatResponseCacheService, "similarityThreshold", 0.0);
+        record("Chính sách bảo hành như thế nào", "Bảo hành 3 tháng.");
+
+        // Act
+        List<String> sameQuestion = chatResponseCacheService.findAnswer("chính sách bảo hành, như thế nào?");
+        List<String> withoutDiacritics = chatResponseCacheService.findAnswer("chinh sach bao hanh nhu the nao");
+
+        // Assert
+        assertEquals(List.of("Bảo hành 3 tháng."), sameQuestion);
+        assertNull(withoutDiacritics);
+        assertEquals(0, chatResponseCacheService.getStats().similarHits());
+    }
+
+    private void record(String question, String... chunks) {
+        Flux<ChatResponse> responses = Flux.fromArray(chunks).map(this::response);
+        chatResponseCacheService.record(question, responses).blockLast();
+    }
+
+    private ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,244 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.config.VietnamTimeProvider;
+import com.laptoprepair.entity.EmailOutbox;
+import com.laptoprepair.enums.EmailOutboxStatus;
+import com.laptoprepair.repository.EmailOutboxRepository;
+import com.laptoprepair.service.EmailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceImplTest {
+
+        @Mock
+        private EmailOutboxRepository outboxRepository;
+
+        @Mock
+        private EmailSender emailSender;
+
+        @Mock
+        private VietnamTimeProvider vietnamTimeProvider;
+
+        private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 15, 9, 0);
+
+        private MeterRegistry meterRegistry;
+        private EmailOutboxServiceImpl emailOutboxService;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                // Dispatch inline so deliveries can be asserted directly
+                emailOutboxService = new EmailOutboxServiceImpl(outboxRepository, emailSender, Runnable::run,
+                                vietnamTimeProvider, meterRegistry);
+                lenient().when(vietnamTimeProvider.now()).thenReturn(NOW);
+                ReflectionTestUtils.setField(emailOutboxService, "maxAttempts", 3);
+                ReflectionTestUtils.setField(emailOutboxService, "batchWindowMillis", 0L);
+        }
+
+        @Test
+        void enqueue_UTC001_NewEmail_ShouldStorePendingEmailAndDispatch() {
+                // Arrange
+                when(outboxRepository.existsByIdempotencyKey("confirmation:1")).thenReturn(false);
+                when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+                // Act
+                emailOutboxService.enqueue("confirmation:1", " john@example.com ", "Xác nhận", "Nội dung");
+
+                // Assert
+                ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+                verify(outboxRepository).save(captor.capture());
+                EmailOutbox saved = captor.getValue();
+                assertEquals("confirmation:1", saved.getIdempotencyKey());
+                assertEquals("john@example.com", saved.getRecipient());
+                assertEquals(EmailOutboxStatus.PENDING, saved.getStatus());
+                assertEquals(NOW, saved.getNextAttemptAt());
+                verify(outboxRepository).findDueIds(any(LocalDateTime.class), any(Pageable.class));
+        }
+
+        @Test
+        void enqueue_UTC002_DuplicateKey_ShouldNotStoreAgain() {
+                // Arrange
+                when(outboxRepository.existsByIdempotencyKey("confirmation:1")).thenReturn(true);
+
+                // Act
+                emailOutboxService.enqueue("confirmation:1", "john@example.com", "Xác nhận", "Nội dung");
+
+                // Assert
+                verify(outboxRepository, never()).save(any());
+        }
+
+        @Test
+        void enqueue_UTC003_InsideTransaction_ShouldDispatchOnlyAfterCommit() {
+                // Arrange
+                when(outboxRepository.existsByIdempotencyKey("update:1")).thenReturn(false);
+                when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                        // Act
+                        emailOutboxService.enqueue("update:1", "john@example.com", "Cập nhật", "Nội dung");
+
+                        // Assert
+                        verify(outboxRepository).save(any(EmailOutbox.class));
+                        verify(outboxRepository, never()).findDueIds(any(), any());
+                        TransactionSynchronizationManager.getSynchronizations()
+                                        .forEach(TransactionSynchronization::afterCommit);
+                        verify(outboxRepository).findDueIds(any(LocalDateTime.class), any(Pageable.class));
+                } finally {
+                        TransactionSynchronizationManager.clearSynchronization();
+                }
+        }
+
+        @Test
+        void enqueue_UTC004_ExecutorRejectsDispatch_ShouldKeepEmailForPollAndCountRejection() {
+                // Arrange
+                emailOutboxService = new EmailOutboxServiceImpl(outboxRepository, emailSender, task -> {
+                        throw new TaskRejectedException("Email executor queue is full");
+                }, vietnamTimeProvider, meterRegistry);
+                when(outboxRepository.existsByIdempotencyKey("confirmation:1")).thenReturn(false);
+
+                // Act
+                emailOutboxService.enqueue("confirmation:1", "john@example.com", "Xác nhận", "Nội dung");
+
+                // Assert
+                verify(outboxRepository).save(any(EmailOutbox.class));
+                verify(emailSender, never()).send(anyList());
+                assertEquals(1.0, meterRegistry.get("repair.emails.dispatch.rejected").counter().count());
+        }
+
+        @Test
+        void dispatchPending_UTC001_SendSucceeds_ShouldMarkSent() throws Exception {
+                // Arrange
+                EmailOutbox email = mockClaimedEmail(0);
+                when(emailSender.send(List.of(email))).thenReturn(Map.of());
+
+                // Act
+                int sent = emailOutboxService.dispatchPending();
+
+                // Assert
+                assertEquals(1, sent);
+                assertEquals(EmailOutboxStatus.SENT, email.getStatus());
+                assertEquals(NOW, email.getSentAt());
+                assertNull(email.getClaimToken());
+                verify(outboxRepository).saveAll(List.of(email));
+        }
+
+        @Test
+        void dispatchPending_UTC002_SendFails_ShouldRetryWithExponentialBackoff() throws Exception {
+                // Arrange
+                EmailOutbox email = mockClaimedEmail(1);
+                when(emailSender.send(List.of(email)))
+                                .thenReturn(Map.of(email.getId(), new IOException("SendGrid API error. Status: 503")));
+
+                // Act
+                int sent = emailOutboxService.dispatchPending();
+
+                // Assert
+                assertEquals(0, sent);
+                assertEquals(EmailOutboxStatus.PENDING, email.getStatus());
+                assertEquals(2, email.getAttempts());
+                assertEquals("SendGrid API error. Status: 503", email.getLastError());
+                // Second failure waits twice the initial 30 second backoff
+                assertEquals(NOW.plusSeconds(60), email.getNextAttemptAt());
+                verify(outboxRepository).saveAll(List.of(email));
+        }
+
+        @Test
+        void dispatchPending_UTC003_MaxAttemptsReached_ShouldMarkFailed() throws Exception {
+                // Arrange
+                EmailOutbox email = mockClaimedEmail(2);
+                when(emailSender.send(List.of(email)))
+                                .thenReturn(Map.of(email.getId(), new IOException("Connection refused")));
+
+                // Act
+                emailOutboxService.dispatchPending();
+
+                // Assert
+                assertEquals(EmailOutboxStatus.FAILED, email.getStatus());
+                assertEquals(3, email.getAttempts());
+                verify(outboxRepository).saveAll(List.of(email));
+        }
+
+        @Test
+        void dispatchPending_UTC004_Batch_ShouldSendInOneCallAndRetryOnlyFailedEmails() {
+                // Arrange
+                EmailOutbox sentEmail = newEmail(0);
+                EmailOutbox failedEmail = newEmail(0);
+                when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                                .thenReturn(List.of(sentEmail.getId(), failedEmail.getId()));
+                when(outboxRepository.findByClaimToken(any(UUID.class))).thenReturn(List.of(sentEmail, failedEmail));
+                when(emailSender.send(List.of(sentEmail, failedEmail)))
+                                .thenReturn(Map.of(failedEmail.getId(), new IOException("Mailbox unavailable")));
+
+                // Act
+                int sent = emailOutboxService.dispatchPending();
+
+                // Assert
+                assertEquals(1, sent);
+                verify(emailSender, times(1)).send(anyList());
+                assertEquals(EmailOutboxStatus.SENT, sentEmail.getStatus());
+                assertEquals(EmailOutboxStatus.PENDING, failedEmail.getStatus());
+                assertEquals(1, failedEmail.getAttempts());
+                assertEquals(NOW.plusSeconds(30), failedEmail.getNextAttemptAt());
+                assertEquals(1.0, meterRegistry.get("repair.emails").tag("outcome", "sent").counter().count());
+                assertEquals(1.0, meterRegistry.get("repair.emails").tag("outcome", "retried").counter().count());
+                assertEquals(0.0, meterRegistry.get("repair.emails").tag("outcome", "failed").counter().count());
+        }
+
+        @Test
+        void dispatchPending_UTC005_SenderThrows_ShouldRetryWholeBatch() {
+                // Arrange
+                EmailOutbox email = mockClaimedEmail(0);
+                when(emailSender.send(List.of(email))).thenThrow(new IllegalStateException("Transport closed"));
+
+                // Act
+                int sent = emailOutboxService.dispatchPending();
+
+                // Assert
+                assertEquals(0, sent);
+                assertEquals(1, email.getAttempts());
+                assertEquals("Transport closed", email.getLastError());
+                verify(outboxRepository).saveAll(List.of(email));
+        }
+
+        private EmailOutbox mockClaimedEmail(int attempts) {
+                EmailOutbox email = newEmail(attempts);
+                when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                                .thenReturn(List.of(email.getId()));
+                when(outboxRepository.findByClaimToken(any(UUID.class))).thenReturn(List.of(email));
+                return email;
+        }
+
+        private EmailOutbox newEmail(int attempts) {
+                EmailOutbox email = new EmailOutbox();
+                email.setId(UUID.randomUUID());
+                email.setIdempotencyKey("confirmation:" + email.getId());
+                email.setRecipient("john@example.com");
+                email.setSubject("Xác nhận");
+                email.setBody("Nội dung");
+                email.setAttempts(attempts);
+                email.setClaimToken(UUID.randomUUID());
+                return email;
+        }
+}
@@ -0,0 +1,90 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.EmailOutbox;
+import com.laptoprepair.service.EmailSender;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailSenderImplSMTPTest {
+
+        @Mock
+        private JavaMailSender mailSender;
+
+        private EmailSenderImplSMTP emailSender;
+
+        @BeforeEach
+        void setUp() {
+                emailSender = new EmailSenderImplSMTP(mailSender);
+                ReflectionTestUtils.setField(emailSender, "fromEmail", "noreply@shoplaptop.com");
+                ReflectionTestUtils.setField(emailSender, "ccEmail", "admin@shoplaptop.com");
+                when(mailSender.createMimeMessage())
+                                .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        }
+
+        @Test
+        void send_UTC001_Batch_ShouldSendAllMessagesInOneCall() throws Exception {
+                // Arrange
+                EmailOutbox first = newEmail("a@example.com");
+                EmailOutbox second = newEmail("b@example.com");
+
+                // Act
+                Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+                // Assert
+                assertTrue(failures.isEmpty());
+                ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+                verify(mailSender, times(1)).send(captor.capture());
+                MimeMessage[] messages = captor.getValue();
+                assertEquals(2, messages.length);
+                assertEquals("a@example.com", messages[0].getAllRecipients()[0].toString());
+                assertEquals(first.getIdempotencyKey(), messages[0].getHeader(EmailSender.IDEMPOTENCY_KEY_HEADER)[0]);
+                assertEquals("b@example.com", messages[1].getAllRecipients()[0].toString());
+        }
+
+        @Test
+        void send_UTC002_OneMessageRejected_ShouldReportOnlyThatEmail() {
+                // Arrange
+                EmailOutbox sent = newEmail("a@example.com");
+                EmailOutbox rejected = newEmail("b@example.com");
+                doAnswer(invocation -> {
+                        MimeMessage secondMessage = invocation.getArgument(1);
+                        throw new MailSendException(Map.of(secondMessage, new Exception("550 Mailbox unavailable")));
+                }).when(mailSender).send(any(MimeMessage[].class));
+
+                // Act
+                Map<UUID, Exception> failures = emailSender.send(List.of(sent, rejected));
+
+                // Assert
+                assertEquals(1, failures.size());
+                assertEquals("550 Mailbox unavailable", failures.get(rejected.getId()).getMessage());
+        }
+
+        private EmailOutbox newEmail(String recipient) {
+                EmailOutbox email = new EmailOutbox();
+                email.setId(UUID.randomUUID());
+                email.setIdempotencyKey("confirmation:" + email.getId());
+                email.setRecipient(recipient);
+                email.setSubject("Xác nhận yêu cầu sửa chữa");
+                email.setBody("Yêu cầu của bạn đã được tiếp nhận.");
+                return email;
+        }
+}
@@ -0,0 +1,220 @@
+package com.laptoprepair.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laptoprepair.config.EmailConfig;
+import com.laptoprepair.entity.EmailOutbox;
+import com.sendgrid.SendGrid;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailSenderImplTest {
+
+    private static final String INVALID_RECIPIENT = "khong-hop-le";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> receivedRequests = new CopyOnWriteArrayList<>();
+
+    private HttpServer sendGridStandIn;
+    private CloseableHttpClient httpClient;
+    private EmailSenderImpl emailSender;
+    private int responseStatus = 202;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Local stand-in for the SendGrid API that records each mail/send call
+        sendGridStandIn = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        sendGridStandIn.createContext("/v3/mail/send", exchange -> {
+            JsonNode mail = objectMapper.readTree(exchange.getRequestBody());
+            receivedRequests.add(mail);
+            // Like SendGrid, refuse the whole request when any recipient is invalid
+            boolean invalidRecipient = mail.findValuesAsText("email").contains(INVALID_RECIPIENT);
+            exchange.sendResponseHeaders(invalidRecipient ? 400 : responseStatus, -1);
+            exchange.close();
+        });
+        sendGridStandIn.start();
+
+        EmailConfig emailConfig = new EmailConfig();
+        ReflectionTestUtils.setField(emailConfig, "sendGridApiKey", "test-key");
+        ReflectionTestUtils.setField(emailConfig, "sendGridHost", "localhost:" + sendGridStandIn.getAddress().getPort());
+        ReflectionTestUtils.setField(emailConfig, "sendGridPlainHttp", true);
+        ReflectionTestUtils.setField(emailConfig, "maxConnections", 2);
+        ReflectionTestUtils.setField(emailConfig, "connectTimeoutMillis", 1000);
+        ReflectionTestUtils.setField(emailConfig, "socketTimeoutMillis", 1000);
+        httpClient = emailConfig.sendGridHttpClient();
+        SendGrid sendGrid = emailConfig.sendGrid(httpClient);
+
+        emailSender = new EmailSenderImpl(sendGrid);
+        ReflectionTestUtils.setField(emailSender, "fromEmail", "noreply@shoplaptop.com");
+        ReflectionTestUtils.setField(emailSender, "ccEmail", "admin@shoplaptop.com");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        sendGridStandIn.stop(0);
+    }
+
+    @Test
+    void send_UTC001_Batch_ShouldSendOneRequestWithPersonalizationPerEmail() {
+        // Arrange
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Yêu cầu của bạn đã được tiếp nhận.");
+        EmailOutbox second = newEmail("b@example.com", "Cập nhật", "Yêu cầu sửa chữa của bạn đã được cập nhật.");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        assertEquals(1, receivedRequests.size());
+        JsonNode mail = receivedRequests.get(0);
+        assertEquals("-body-", mail.at("/content/0/value").asText());
+        JsonNode personalizations = mail.get("personalizations");
+        assertEquals(2, personalizations.size());
+        assertEquals("a@example.com", personalizations.at("/0/to/0/email").asText());
+        assertEquals("admin@shoplaptop.com", personalizations.at("/0/cc/0/email").asText());
+        assertEquals("Xác nhận", personalizations.at("/0/subject").asText());
+        assertEquals("Yêu cầu của bạn đã được tiếp nhận.", personalizations.at("/0/substitutions/-body-").asText());
+        assertEquals(first.getIdempotencyKey(), personalizations.at("/0/headers/X-Idempotency-Key").asText());
+        assertEquals("b@example.com", personalizations.at("/1/to/0/email").asText());
+        assertEquals("Cập nhật", personalizations.at("/1/subject").asText());
+    }
+
+    @Test
+    void send_UTC002_ApiError_ShouldReportEveryEmailAsFailed() {
+        // Arrange
+        responseStatus = 503;
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Nội dung");
+        EmailOutbox second = newEmail("b@example.com", "Xác nhận", "Nội dung");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+        // Assert
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(first.getId()).getMessage().contains("503"));
+        assertTrue(failures.containsKey(second.getId()));
+    }
+
+    @Test
+    void send_UTC003_LargeBody_ShouldBeSentInSeparateRequest() {
+        // Arrange
+        EmailOutbox small = newEmail("a@example.com", "Cập nhật", "Nội dung");
+        EmailOutbox large = newEmail("b@example.com", "Cập nhật", "x".repeat(20000));
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(small, large));
+
+        // Assert
+        assertTrue(failures.isEmpty());
+        assertEquals(2, receivedRequests.size());
+        JsonNode largeMail = receivedRequests.get(0);
+        assertEquals(20000, largeMail.at("/content/0/value").asText().length());
+        assertEquals(1, receivedRequests.get(1).get("personalizations").size());
+    }
+
+    @Test
+    void send_UTC004_RecipientIsCcAddress_ShouldNotAddCc() {
+        // Arrange
+        EmailOutbox email = newEmail("admin@shoplaptop.com", "Xác nhận", "Nội dung");
+
+        // Act
+        emailSender.send(List.of(email));
+
+        // Assert
+        assertTrue(receivedRequests.get(0).at("/personalizations/0/cc").isMissingNode());
+    }
+
+    @Test
+    void send_UTC005_BatchRejectedForOneRecipient_ShouldFailOnlyThatEmail() {
+        // Arrange
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Nội dung");
+        EmailOutbox invalid = newEmail(INVALID_RECIPIENT, "Xác nhận", "Nội dung");
+        EmailOutbox third = newEmail("c@example.com", "Xác nhận", "Nội dung");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, invalid, third));
+
+        // Assert
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(invalid.getId()).getMessage().contains("400"));
+        // The rejected batch, then one request per email
+        assertEquals(4, receivedRequests.size());
+        assertEquals(3, receivedRequests.get(0).get("personalizations").size());
+        for (JsonNode single : receivedRequests.subList(1, 4)) {
+            assertEquals(1, single.get("personalizations").size());
+        }
+    }
+
+    @Test
+    void send_UTC006_RateLimited_ShouldFailWholeBatchWithoutSplitting() {
+        // Arrange
+        responseStatus = 429;
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Nội dung");
+        EmailOutbox second = newEmail("b@example.com", "Xác nhận", "Nội dung");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+        // Assert
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(first.getId()).getMessage().contains("429"));
+        assertEquals(1, receivedRequests.size());
+    }
+
+    @Test
+    void send_UTC007_Unauthorized_ShouldFailWholeBatchWithoutSplitting() {
+        // Arrange
+        responseStatus = 401;
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Nội dung");
+        EmailOutbox second = newEmail("b@example.com", "Xác nhận", "Nội dung");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+        // Assert
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(second.getId()).getMessage().contains("401"));
+        assertEquals(1, receivedRequests.size());
+    }
+
+    @Test
+    void send_UTC008_BatchTooLarge_ShouldSendEmailsOneByOne() {
+        // Arrange
+        responseStatus = 413;
+        EmailOutbox first = newEmail("a@example.com", "Xác nhận", "Nội dung");
+        EmailOutbox second = newEmail("b@example.com", "Xác nhận", "Nội dung");
+
+        // Act
+        Map<UUID, Exception> failures = emailSender.send(List.of(first, second));
+
+        // Assert
+        // The stand-in refuses every request, so each email fails after its own attempt
+        assertEquals(2, failures.size());
+        assertEquals(3, receivedRequests.size());
+        assertEquals(1, receivedRequests.get(1).get("personalizations").size());
+        assertEquals(1, receivedRequests.get(2).get("personalizations").size());
+    }
+
+    private EmailOutbox newEmail(String recipient, String subject, String body) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(UUID.randomUUID());
+        email.setIdempotencyKey("confirmation:" + email.getId());
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        return email;
+    }
+}
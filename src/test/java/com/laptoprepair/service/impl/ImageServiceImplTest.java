@@ -2,19 +2,28 @@ package com.laptoprepair.service.impl;
 
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.entity.RequestImage;
+import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.service.FileStorageService;
+import com.laptoprepair.service.ImageService.StoredImage;
+import com.laptoprepair.service.ImageVariantService;
 import com.laptoprepair.validation.ImageValidator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -31,6 +40,9 @@ class ImageServiceImplTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private ImageVariantService imageVariantService;
+
     private ImageServiceImpl imageService;
 
     private UUID requestId;
@@ -49,7 +61,14 @@ class ImageServiceImplTest {
         ReflectionTestUtils.setField(imageValidator, "maxImages", 5);
 
         // Manual dependency injection
-        imageService = new ImageServiceImpl(imageValidator, fileStorageService);
+        imageService = new ImageServiceImpl(imageValidator, fileStorageService, imageVariantService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -74,6 +93,8 @@ class ImageServiceImplTest {
 
         verify(fileStorageService).createDir(requestId);
         verify(fileStorageService, times(2)).save(eq(requestId), any(MultipartFile.class));
+        verify(imageVariantService).generateVariants(requestId, "generated_filename_1.jpg");
+        verify(imageVariantService).generateVariants(requestId, "generated_filename_2.jpg");
     }
 
     @Test
@@ -157,6 +178,7 @@ class ImageServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("imgB.jpg", result.get(0).getFilename());
         verify(fileStorageService).deleteIfExists(requestId, "imgA.jpg");
+        verify(imageVariantService).deleteVariants(requestId, "imgA.jpg");
     }
 
     @Test
@@ -219,6 +241,78 @@ class ImageServiceImplTest {
         verify(fileStorageService).deleteIfExists(requestId, "nonExistent.jpg");
     }
 
+    @Test
+    void deleteImages_UTC006_InTransaction_ShouldDeleteFilesOnlyAfterCommit() throws Exception {
+        List<RequestImage> images = new ArrayList<>();
+        images.add(createRequestImage("imgA.jpg"));
+        images.add(createRequestImage("imgB.jpg"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        List<RequestImage> result = imageService.deleteImages(requestId, images, new String[] { "imgA.jpg" });
+
+        assertEquals(1, result.size());
+        verify(fileStorageService, never()).deleteIfExists(any(UUID.class), anyString());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        verify(fileStorageService).deleteIfExists(requestId, "imgA.jpg");
+        verify(imageVariantService).deleteVariants(requestId, "imgA.jpg");
+    }
+
+    @Test
+    void uploadImages_UTC006_TransactionRolledBack_ShouldRemoveUploadsWithoutVariants() throws Exception {
+        MultipartFile[] newImages = {
+                new MockMultipartFile("file1", "new.jpg", "image/jpeg", "test content".getBytes())
+        };
+        when(fileStorageService.save(eq(requestId), any(MultipartFile.class))).thenReturn("generated.jpg");
+        TransactionSynchronizationManager.initSynchronization();
+
+        List<RequestImage> result = imageService.uploadImages(requestId, currentImages, newImages, request);
+
+        assertEquals(1, result.size());
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        verify(fileStorageService).deleteIfExists(requestId, "generated.jpg");
+        verify(imageVariantService).deleteVariants(requestId, "generated.jpg");
+        verify(imageVariantService, never()).generateVariants(any(UUID.class), anyString());
+    }
+
+    @Test
+    void findStoredImage_UTC001_ExistingVariant_ShouldReturnFinalVariant(@TempDir Path uploadDir) throws Exception {
+        Path thumbnail = Files.createFile(uploadDir.resolve("photo_thumb.jpg"));
+        when(fileStorageService.getPath(requestId, "photo_thumb.jpg")).thenReturn(thumbnail);
+
+        StoredImage result = imageService.findStoredImage(requestId, "photo_thumb.jpg");
+
+        assertEquals(thumbnail, result.path());
+        assertTrue(result.finalContent());
+    }
+
+    @Test
+    void findStoredImage_UTC002_VariantNotGeneratedYet_ShouldFallBackToOriginal(@TempDir Path uploadDir)
+            throws Exception {
+        Path original = Files.createFile(uploadDir.resolve("photo.png"));
+        when(fileStorageService.getPath(eq(requestId), anyString()))
+                .thenAnswer(invocation -> uploadDir.resolve(invocation.<String>getArgument(1)));
+
+        StoredImage result = imageService.findStoredImage(requestId, "photo_medium.jpg");
+
+        assertEquals(original, result.path());
+        assertFalse(result.finalContent());
+    }
+
+    @Test
+    void findStoredImage_UTC003_PathTraversal_ShouldThrowNotFoundException() {
+        assertThrows(NotFoundException.class, () -> imageService.findStoredImage(requestId, "..%2F..%2Fsecret.jpg"));
+        assertThrows(NotFoundException.class, () -> imageService.findStoredImage(requestId, "../secret.jpg"));
+        verify(fileStorageService, never()).getPath(any(UUID.class), anyString());
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
     private List<RequestImage> createRequestImages(int count) {
         List<RequestImage> images = new ArrayList<>();
         for (int i = 1; i <= count; i++) {
@@ -0,0 +1,123 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.service.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceImplTest {
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @TempDir
+    private Path uploadDir;
+
+    private ImageVariantServiceImpl imageVariantService;
+    private UUID requestId;
+    private Path requestDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageVariantService = new ImageVariantServiceImpl(fileStorageService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(imageVariantService, "uploadDir", uploadDir.toString());
+
+        requestId = UUID.randomUUID();
+        requestDir = Files.createDirectory(uploadDir.resolve(requestId.toString()));
+    }
+
+    @Test
+    void generateVariants_UTC001_LargePng_ShouldWriteScaledJpegVariants() throws Exception {
+        // Arrange
+        writePng("photo.png", 2000, 1000);
+        mockPaths();
+
+        // Act
+        imageVariantService.generateVariants(requestId, "photo.png");
+
+        // Assert
+        BufferedImage medium = ImageIO.read(requestDir.resolve("photo_medium.jpg").toFile());
+        BufferedImage thumbnail = ImageIO.read(requestDir.resolve("photo_thumb.jpg").toFile());
+        assertEquals(1280, medium.getWidth());
+        assertEquals(640, medium.getHeight());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(160, thumbnail.getHeight());
+    }
+
+    @Test
+    void generateVariants_UTC002_SmallImage_ShouldNotUpscale() throws Exception {
+        // Arrange
+        writePng("small.png", 200, 100);
+        mockPaths();
+
+        // Act
+        imageVariantService.generateVariants(requestId, "small.png");
+
+        // Assert
+        BufferedImage thumbnail = ImageIO.read(requestDir.resolve("small_thumb.jpg").toFile());
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(100, thumbnail.getHeight());
+    }
+
+    @Test
+    void generateVariants_UTC003_UnsupportedFile_ShouldLeaveOriginalOnly() throws Exception {
+        // Arrange
+        Files.writeString(requestDir.resolve("broken.jpg"), "not an image");
+        mockPaths();
+
+        // Act & Assert
+        assertDoesNotThrow(() -> imageVariantService.generateVariants(requestId, "broken.jpg"));
+        assertFalse(Files.exists(requestDir.resolve("broken_thumb.jpg")));
+        assertFalse(Files.exists(requestDir.resolve("broken_medium.jpg")));
+    }
+
+    @Test
+    void generateMissingVariants_UTC001_ExistingImageWithoutVariants_ShouldGenerateThem() throws Exception {
+        // Arrange
+        writePng("old.png", 800, 600);
+        mockPaths();
+
+        // Act
+        imageVariantService.generateMissingVariants();
+
+        // Assert
+        assertTrue(Files.exists(requestDir.resolve("old_thumb.jpg")));
+        assertTrue(Files.exists(requestDir.resolve("old_medium.jpg")));
+    }
+
+    @Test
+    void deleteVariants_UTC001_ShouldDeleteEveryVariant() throws Exception {
+        // Act
+        imageVariantService.deleteVariants(requestId, "photo.png");
+
+        // Assert
+        verify(fileStorageService).deleteIfExists(requestId, "photo_thumb.jpg");
+        verify(fileStorageService).deleteIfExists(requestId, "photo_medium.jpg");
+    }
+
+    private void mockPaths() {
+        when(fileStorageService.getPath(eq(requestId), anyString()))
+                .thenAnswer(invocation -> requestDir.resolve(invocation.<String>getArgument(1)));
+    }
+
+    private void writePng(String filename, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", requestDir.resolve(filename).toFile());
+    }
+}
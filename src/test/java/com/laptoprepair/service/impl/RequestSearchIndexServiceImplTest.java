@@ -0,0 +1,84 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.repository.RequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSearchIndexServiceImplTest {
+
+        @Mock
+        private RequestRepository reqRepo;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private RequestSearchIndexServiceImpl requestSearchIndexService;
+
+        @BeforeEach
+        void setUp() {
+                requestSearchIndexService = new RequestSearchIndexServiceImpl(reqRepo, transactionManager);
+        }
+
+        @Test
+        void reindexMissing_UTC001_RequestsWithoutSearchText_ShouldPopulateFoldedText() {
+                // Arrange
+                Request request = new Request();
+                request.setId(UUID.randomUUID());
+                request.setName("Đặng Thị Hương");
+                request.setPhone("0901234567");
+                request.setBrandModel("Dell XPS 13");
+                request.setSerialNumber("SN-ĐX01");
+
+                when(reqRepo.findIdsWithMissingSearchText(any(Pageable.class)))
+                                .thenReturn(List.of(request.getId()))
+                                .thenReturn(List.of());
+                when(reqRepo.findAllById(List.of(request.getId()))).thenReturn(List.of(request));
+                when(reqRepo.updateMissingSearchText(request.getId(),
+                                "dang thi huong 0901234567 dell xps 13 sn-dx01")).thenReturn(1);
+
+                // Act
+                int updated = requestSearchIndexService.reindexMissing();
+
+                // Assert - only the search text column is written, never the whole entity
+                assertEquals(1, updated);
+                assertNull(request.getSearchText());
+                verify(reqRepo, never()).saveAll(anyList());
+        }
+
+        @Test
+        void reindexOnStartup_UTC001_ReindexFails_ShouldNotAbortStartup() {
+                // Arrange
+                when(reqRepo.findIdsWithMissingSearchText(any(Pageable.class)))
+                                .thenThrow(new IllegalStateException("Connection refused"));
+
+                // Act & Assert
+                assertDoesNotThrow(() -> requestSearchIndexService.reindexOnStartup());
+        }
+
+        @Test
+        void reindexMissing_UTC002_NothingToReindex_ShouldNotSave() {
+                // Arrange
+                when(reqRepo.findIdsWithMissingSearchText(any(Pageable.class))).thenReturn(List.of());
+
+                // Act
+                int updated = requestSearchIndexService.reindexMissing();
+
+                // Assert
+                assertEquals(0, updated);
+                verify(reqRepo, never()).saveAll(anyList());
+        }
+}
@@ -0,0 +1,122 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.entity.RequestItem;
+import com.laptoprepair.entity.ServiceItem;
+import com.laptoprepair.enums.RequestStatus;
+import com.laptoprepair.service.RequestService;
+import com.laptoprepair.service.ServiceCatalogService;
+import com.laptoprepair.sql.SqlCountingTest;
+import com.laptoprepair.sql.SqlStatementCounter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts the SQL round trips of creating and updating a request against H2,
+ * so that a change which writes child rows one statement at a time, or adds a
+ * flush, fails the build.
+ */
+@WithMockUser(username = "staff", roles = "STAFF")
+class RequestServiceImplStatementCountTest extends SqlCountingTest {
+
+        private static final UUID CLEANING = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        private static final UUID WINDOWS = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+        private static final UUID KEYBOARD = UUID.fromString("550e8400-e29b-41d4-a716-446655440009");
+        private static final UUID RAM = UUID.fromString("550e8400-e29b-41d4-a716-446655440012");
+
+        @Autowired
+        private RequestService requestService;
+
+        @Autowired
+        private ServiceCatalogService serviceCatalogService;
+
+        @BeforeEach
+        void setUp() {
+                // Load the service catalog cache outside the measured calls
+                serviceCatalogService.findActiveByIds(List.of(CLEANING));
+                SqlStatementCounter.reset();
+        }
+
+        @Test
+        void create_UTC001_RequestWithItems_ShouldInsertEachTableInOneBatch() {
+                // Arrange
+                Request request = newRequest(CLEANING, WINDOWS, RAM);
+
+                // Act
+                requestService.create(request, null, "Khách cần lấy máy trong ngày");
+
+                // Assert - request, request_items (3 rows), request_history, email_outbox
+                SqlStatementCounter.assertInsertCount(4);
+                SqlStatementCounter.assertUpdateCount(0);
+                SqlStatementCounter.assertDeleteCount(0);
+                // Outbox duplicate check only
+                SqlStatementCounter.assertSelectCount(1);
+        }
+
+        @Test
+        void update_UTC001_ItemsChangedAddedAndRemoved_ShouldBatchItemStatements() {
+                // Arrange
+                Request created = requestService.create(newRequest(CLEANING, WINDOWS, RAM), null, null);
+
+                Request form = new Request();
+                BeanUtils.copyProperties(created, form, "items", "images", "history");
+                form.setStatus(RequestStatus.QUOTED);
+                for (RequestItem item : created.getItems().subList(0, 2)) {
+                        RequestItem posted = new RequestItem();
+                        BeanUtils.copyProperties(item, posted, "request");
+                        form.getItems().add(posted);
+                }
+                form.getItems().get(0).setQuantity(2);
+                form.getItems().get(1).setQuantity(3);
+                form.getItems().add(newItem(KEYBOARD));
+                SqlStatementCounter.reset();
+
+                // Act
+                requestService.update(created.getId(), form, null, null, null);
+
+                // Assert - request with items, images, outbox duplicate check
+                SqlStatementCounter.assertSelectCount(3);
+                // request_items (1 row), request_history, email_outbox
+                SqlStatementCounter.assertInsertCount(3);
+                // request, request_items (2 rows)
+                SqlStatementCounter.assertUpdateCount(2);
+                SqlStatementCounter.assertDeleteCount(1);
+        }
+
+        private Request newRequest(UUID... serviceItemIds) {
+                Request request = new Request();
+                request.setName("Nguyễn Văn An");
+                request.setPhone("0901234567");
+                request.setEmail("an.nguyen@email.com");
+                request.setBrandModel("Dell Inspiron 15");
+                request.setAppointmentDate(LocalDateTime.now().plusDays(1));
+                request.setDescription("Máy chạy chậm, cần vệ sinh và nâng cấp RAM");
+                for (UUID serviceItemId : serviceItemIds) {
+                        request.getItems().add(newItem(serviceItemId));
+                }
+                return request;
+        }
+
+        // Items as the form posts them: a snapshot of the catalog entry
+        private RequestItem newItem(UUID serviceItemId) {
+                ServiceItem serviceItem = serviceCatalogService.findActiveByIds(List.of(serviceItemId)).get(0);
+                RequestItem item = new RequestItem();
+                item.setServiceItemId(serviceItemId);
+                item.setName(serviceItem.getName());
+                item.setPrice(serviceItem.getPrice());
+                item.setVatRate(serviceItem.getVatRate());
+                item.setWarrantyDays(serviceItem.getWarrantyDays());
+                item.setQuantity(1);
+                item.setDiscount(BigDecimal.ZERO);
+                return item;
+        }
+}
\ No newline at end of file
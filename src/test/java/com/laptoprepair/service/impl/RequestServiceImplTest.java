@@ -1,34 +1,45 @@
 package com.laptoprepair.service.impl;
 
+import com.laptoprepair.dto.CursorPage;
+import com.laptoprepair.dto.RequestCursor;
 import com.laptoprepair.entity.Request;
 import com.laptoprepair.entity.RequestItem;
 import com.laptoprepair.entity.RequestImage;
 import com.laptoprepair.entity.ServiceItem;
 import com.laptoprepair.enums.RequestStatus;
+import com.laptoprepair.exception.ConflictException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.repository.RequestRepository;
-import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.RequestRepository.RequestExportRow;
 import com.laptoprepair.service.EmailService;
 import com.laptoprepair.service.HistoryService;
 import com.laptoprepair.service.ImageService;
+import com.laptoprepair.service.ServiceCatalogService;
 import com.laptoprepair.config.VietnamTimeProvider;
 import com.laptoprepair.validation.RequestValidator;
 
-import java.util.concurrent.CompletableFuture;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,7 +52,7 @@ class RequestServiceImplTest {
         private RequestRepository reqRepo;
 
         @Mock
-        private ServiceItemRepository serviceItemRepository;
+        private ServiceCatalogService serviceCatalogService;
 
         @Mock
         private HistoryService historyService;
@@ -56,6 +67,7 @@ class RequestServiceImplTest {
         private VietnamTimeProvider vietnamTimeProvider;
 
         private RequestValidator requestValidator;
+        private MeterRegistry meterRegistry;
         private RequestServiceImpl requestService;
 
         // Test data
@@ -66,10 +78,12 @@ class RequestServiceImplTest {
                 // Create real validator with mock HistoryService dependency
                 requestValidator = new RequestValidator(historyService);
 
+                meterRegistry = new SimpleMeterRegistry();
+
                 // Create service with all dependencies
-                requestService = new RequestServiceImpl(reqRepo, serviceItemRepository,
+                requestService = new RequestServiceImpl(reqRepo, serviceCatalogService,
                                 historyService, imageService, emailService,
-                                requestValidator, vietnamTimeProvider);
+                                requestValidator, vietnamTimeProvider, meterRegistry);
 
                 testRequest = new Request();
                 testRequest.setName("John Doe");
@@ -98,8 +112,6 @@ class RequestServiceImplTest {
                 when(reqRepo.save(any(Request.class))).thenReturn(savedRequest);
                 doNothing().when(historyService).addRequestHistoryRecord(any(Request.class), eq("Tạo mới yêu cầu"),
                                 eq("Khách"));
-                when(emailService.sendConfirmationEmail(any(Request.class)))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // Act
                 Request result = requestService.publicCreate(testRequest);
@@ -147,8 +159,6 @@ class RequestServiceImplTest {
                 when(reqRepo.save(any(Request.class))).thenReturn(savedRequest);
                 doNothing().when(historyService).addRequestHistoryRecord(any(Request.class), eq("Tạo mới yêu cầu"),
                                 eq("Khách"));
-                when(emailService.sendConfirmationEmail(any(Request.class)))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // Act
                 Request result = requestService.publicCreate(testRequest);
@@ -174,6 +184,7 @@ class RequestServiceImplTest {
                 // Existing request
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>());
                 existingRequest.setImages(new ArrayList<>());
 
@@ -182,6 +193,7 @@ class RequestServiceImplTest {
                 incomingRequest.setName("John Doe");
                 incomingRequest.setPhone("0901234567");
                 incomingRequest.setStatus(RequestStatus.QUOTED);
+                incomingRequest.setVersion(1L);
 
                 // Create request items
                 RequestItem item1 = new RequestItem();
@@ -230,7 +242,7 @@ class RequestServiceImplTest {
                 // Mock repository and service behaviors - real validator will handle
                 // validations
                 when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
-                when(serviceItemRepository.findAllByIdInAndActive(anyList()))
+                when(serviceCatalogService.findActiveByIds(anyList()))
                                 .thenReturn(List.of(serviceItem1, serviceItem2));
                 when(imageService.updateRequestServiceImages(any(Request.class), any(MultipartFile[].class),
                                 any(String[].class)))
@@ -239,8 +251,6 @@ class RequestServiceImplTest {
                                 .thenReturn("Status changed");
                 when(reqRepo.save(any(Request.class))).thenReturn(existingRequest);
                 doNothing().when(historyService).addRequestHistoryRecord(any(Request.class), anyString(), anyString());
-                when(emailService.sendUpdateEmail(any(Request.class), anyString()))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // Act
                 Request result = requestService.update(requestId, incomingRequest, newImages, toDelete, note);
@@ -253,7 +263,7 @@ class RequestServiceImplTest {
 
                 // Verify interactions
                 verify(reqRepo).findByIdWithItems(requestId);
-                verify(serviceItemRepository).findAllByIdInAndActive(anyList());
+                verify(serviceCatalogService).findActiveByIds(anyList());
                 verify(reqRepo).save(any(Request.class));
         }
 
@@ -300,11 +310,13 @@ class RequestServiceImplTest {
 
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.IN_PROGRESS);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>(List.of(requestItem)));
                 existingRequest.setImages(new ArrayList<>());
 
                 Request incomingRequest = new Request();
                 incomingRequest.setStatus(RequestStatus.COMPLETED);
+                incomingRequest.setVersion(1L);
                 incomingRequest.setItems(new ArrayList<>(List.of(requestItem)));
 
                 LocalDateTime completionTime = LocalDateTime.of(2025, 8, 27, 15, 33);
@@ -313,15 +325,13 @@ class RequestServiceImplTest {
                 // validations
                 when(vietnamTimeProvider.now()).thenReturn(completionTime);
                 when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
-                when(serviceItemRepository.findAllByIdInAndActive(anyList())).thenReturn(List.of(serviceItem));
+                when(serviceCatalogService.findActiveByIds(anyList())).thenReturn(List.of(serviceItem));
                 when(historyService.computeRequestChanges(any(Request.class), any(Request.class)))
                                 .thenReturn("Trạng thái: IN_PROGRESS → COMPLETED");
                 when(reqRepo.save(any(Request.class))).thenReturn(existingRequest);
                 when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
                                 .thenReturn(new ArrayList<>());
                 doNothing().when(historyService).addRequestHistoryRecord(any(Request.class), anyString(), anyString());
-                when(emailService.sendUpdateEmail(any(Request.class), anyString()))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // Act
                 Request result = requestService.update(requestId, incomingRequest, null, null, null);
@@ -343,11 +353,13 @@ class RequestServiceImplTest {
 
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.CANCELLED);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>());
                 existingRequest.setImages(new ArrayList<>());
 
                 Request incomingRequest = new Request();
                 incomingRequest.setStatus(RequestStatus.IN_PROGRESS);
+                incomingRequest.setVersion(1L);
 
                 // Mock repository - real validator will automatically throw exception for
                 // CANCELLED transition
@@ -373,11 +385,13 @@ class RequestServiceImplTest {
 
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>());
                 existingRequest.setImages(new ArrayList<>());
 
                 Request incomingRequest = new Request();
                 incomingRequest.setStatus(RequestStatus.SCHEDULED);
+                incomingRequest.setVersion(1L);
                 incomingRequest.setItems(new ArrayList<>());
 
                 // Mock repository and service behaviors - real validator will pass for valid
@@ -388,8 +402,6 @@ class RequestServiceImplTest {
                 when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
                                 .thenReturn(new ArrayList<>());
                 doNothing().when(historyService).addRequestHistoryRecord(any(Request.class), anyString(), anyString());
-                when(emailService.sendUpdateEmail(any(Request.class), anyString()))
-                                .thenReturn(CompletableFuture.completedFuture(null));
 
                 // Act
                 Request result = requestService.update(requestId, incomingRequest, null, null, note);
@@ -409,6 +421,7 @@ class RequestServiceImplTest {
 
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>());
                 existingRequest.setImages(new ArrayList<>());
 
@@ -423,6 +436,7 @@ class RequestServiceImplTest {
 
                 Request incomingRequest = new Request();
                 incomingRequest.setStatus(RequestStatus.SCHEDULED);
+                incomingRequest.setVersion(1L);
                 incomingRequest.setItems(new ArrayList<>(List.of(item)));
 
                 ServiceItem serviceItem = new ServiceItem();
@@ -434,7 +448,7 @@ class RequestServiceImplTest {
 
                 // Mock repository and services - service logic will detect inconsistency
                 when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
-                when(serviceItemRepository.findAllByIdInAndActive(anyList())).thenReturn(List.of(serviceItem));
+                when(serviceCatalogService.findActiveByIds(anyList())).thenReturn(List.of(serviceItem));
                 when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
                                 .thenReturn(new ArrayList<>());
 
@@ -447,7 +461,7 @@ class RequestServiceImplTest {
 
                 // Verify repository was called but no save occurred due to validation failure
                 verify(reqRepo).findByIdWithItems(requestId);
-                verify(serviceItemRepository).findAllByIdInAndActive(anyList());
+                verify(serviceCatalogService).findActiveByIds(anyList());
                 verify(reqRepo, never()).save(any(Request.class));
         }
 
@@ -458,11 +472,13 @@ class RequestServiceImplTest {
 
                 Request existingRequest = new Request();
                 existingRequest.setStatus(RequestStatus.COMPLETED);
+                existingRequest.setVersion(1L);
                 existingRequest.setItems(new ArrayList<>(List.of(new RequestItem())));
                 existingRequest.setImages(new ArrayList<>());
 
                 Request incomingRequest = new Request();
                 incomingRequest.setStatus(RequestStatus.COMPLETED);
+                incomingRequest.setVersion(1L);
                 incomingRequest.setItems(new ArrayList<>(List.of(new RequestItem(), new RequestItem()))); // Different
                                                                                                           // number of
                                                                                                           // items
@@ -485,4 +501,367 @@ class RequestServiceImplTest {
                 verify(historyService).areRequestItemsEqual(any(), any());
                 verify(reqRepo, never()).save(any(Request.class));
         }
+
+        @Test
+        void update_UTC008_ItemsChanged_ShouldRecalculateStoredTotals() {
+                // Arrange
+                UUID requestId = UUID.randomUUID();
+
+                Request existingRequest = new Request();
+                existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
+                existingRequest.setItems(new ArrayList<>());
+                existingRequest.setImages(new ArrayList<>());
+
+                RequestItem item = new RequestItem();
+                item.setServiceItemId(UUID.randomUUID());
+                item.setName("Service Item");
+                item.setPrice(BigDecimal.valueOf(100000));
+                item.setVatRate(BigDecimal.valueOf(0.1));
+                item.setWarrantyDays(30);
+                item.setQuantity(2);
+                item.setDiscount(BigDecimal.valueOf(10000));
+
+                Request incomingRequest = new Request();
+                incomingRequest.setStatus(RequestStatus.QUOTED);
+                incomingRequest.setVersion(1L);
+                incomingRequest.setItems(new ArrayList<>(List.of(item)));
+
+                ServiceItem serviceItem = new ServiceItem();
+                serviceItem.setId(item.getServiceItemId());
+                serviceItem.setName("Service Item");
+                serviceItem.setPrice(BigDecimal.valueOf(100000));
+                serviceItem.setVatRate(BigDecimal.valueOf(0.1));
+                serviceItem.setWarrantyDays(30);
+
+                when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
+                when(serviceCatalogService.findActiveByIds(anyList())).thenReturn(List.of(serviceItem));
+                when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
+                                .thenReturn(new ArrayList<>());
+                when(historyService.computeRequestChanges(any(Request.class), any(Request.class)))
+                                .thenReturn("Cập nhật hạng mục sửa chữa");
+                when(reqRepo.save(any(Request.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // Act
+                Request result = requestService.update(requestId, incomingRequest, null, null, null);
+
+                // Assert - (100000 - 10000) * 2 = 180000 net, 18000 VAT
+                assertEquals(0, BigDecimal.valueOf(180000).compareTo(result.getSubtotal()));
+                assertEquals(0, BigDecimal.valueOf(18000).compareTo(result.getVatAmount()));
+                assertEquals(0, BigDecimal.valueOf(198000).compareTo(result.getTotal()));
+        }
+
+        @Test
+        void update_UTC009_StaleVersion_ShouldThrowConflictExceptionWithoutSaving() {
+                // Arrange
+                UUID requestId = UUID.randomUUID();
+
+                Request existingRequest = new Request();
+                existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(3L);
+                existingRequest.setItems(new ArrayList<>());
+                existingRequest.setImages(new ArrayList<>());
+
+                Request incomingRequest = new Request();
+                incomingRequest.setStatus(RequestStatus.QUOTED);
+                incomingRequest.setVersion(2L);
+
+                when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
+
+                // Act & Assert
+                assertThrows(ConflictException.class,
+                                () -> requestService.update(requestId, incomingRequest, null, null, null));
+                assertEquals(RequestStatus.SCHEDULED, existingRequest.getStatus());
+                verify(reqRepo, never()).save(any(Request.class));
+                verify(emailService, never()).sendUpdateEmail(any(Request.class), anyString());
+        }
+
+        @Test
+        void update_UTC010_ItemsSubmittedWithIds_ShouldUpdateOnlyChangedItemsInPlace() {
+                // Arrange
+                UUID requestId = UUID.randomUUID();
+                RequestItem unchanged = requestItem(UUID.randomUUID(), "Vệ sinh máy", 1);
+                RequestItem changed = requestItem(UUID.randomUUID(), "Thay bàn phím", 1);
+                RequestItem removed = requestItem(UUID.randomUUID(), "Thay pin", 1);
+                LocalDateTime loadedAt = LocalDateTime.now().minusDays(1);
+                unchanged.setUpdatedAt(loadedAt);
+
+                Request existingRequest = new Request();
+                existingRequest.setStatus(RequestStatus.QUOTED);
+                existingRequest.setVersion(1L);
+                existingRequest.setItems(new ArrayList<>(List.of(unchanged, changed, removed)));
+                existingRequest.setImages(new ArrayList<>());
+                existingRequest.getItems().forEach(item -> item.setRequest(existingRequest));
+
+                RequestItem postedUnchanged = requestItem(unchanged.getId(), "Vệ sinh máy", 1);
+                RequestItem postedChanged = requestItem(changed.getId(), "Thay bàn phím", 3);
+                Request incomingRequest = new Request();
+                incomingRequest.setStatus(RequestStatus.QUOTED);
+                incomingRequest.setVersion(1L);
+                incomingRequest.setItems(new ArrayList<>(List.of(postedUnchanged, postedChanged)));
+
+                when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
+                when(serviceCatalogService.findActiveByIds(anyList())).thenReturn(List.of(
+                                serviceItem(unchanged), serviceItem(changed)));
+                when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
+                                .thenReturn(new ArrayList<>());
+                when(historyService.computeRequestChanges(any(Request.class), any(Request.class)))
+                                .thenReturn("Cập nhật hạng mục sửa chữa");
+                when(reqRepo.save(any(Request.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // Act
+                Request result = requestService.update(requestId, incomingRequest, null, null, null);
+
+                // Assert - the managed rows are kept, the removed one is dropped
+                assertEquals(2, result.getItems().size());
+                assertSame(unchanged, result.getItems().get(0));
+                assertSame(changed, result.getItems().get(1));
+                assertEquals(loadedAt, unchanged.getUpdatedAt());
+                assertEquals(3, changed.getQuantity());
+                assertSame(existingRequest, changed.getRequest());
+                assertFalse(result.getItems().contains(removed));
+                verify(reqRepo).flush();
+        }
+
+        @Test
+        void update_UTC011_ConcurrentCommitBeforeFlush_ShouldThrowConflictException() {
+                // Arrange
+                UUID requestId = UUID.randomUUID();
+
+                Request existingRequest = new Request();
+                existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
+                existingRequest.setItems(new ArrayList<>());
+                existingRequest.setImages(new ArrayList<>());
+
+                Request incomingRequest = new Request();
+                incomingRequest.setStatus(RequestStatus.SCHEDULED);
+                incomingRequest.setVersion(1L);
+                incomingRequest.setDescription("Máy không lên nguồn");
+
+                when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
+                when(imageService.updateRequestServiceImages(any(Request.class), isNull(), isNull()))
+                                .thenReturn(new ArrayList<>());
+                when(historyService.computeRequestChanges(any(Request.class), any(Request.class)))
+                                .thenReturn("Cập nhật mô tả");
+                when(reqRepo.save(any(Request.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                doThrow(new OptimisticLockingFailureException("Row was updated")).when(reqRepo).flush();
+
+                // Act & Assert
+                assertThrows(ConflictException.class,
+                                () -> requestService.update(requestId, incomingRequest, null, null, null));
+                verify(emailService, never()).sendUpdateEmail(any(Request.class), anyString());
+        }
+
+        @Test
+        void update_UTC012_MissingVersion_ShouldThrowConflictExceptionWithoutSaving() {
+                // Arrange
+                UUID requestId = UUID.randomUUID();
+
+                Request existingRequest = new Request();
+                existingRequest.setStatus(RequestStatus.SCHEDULED);
+                existingRequest.setVersion(1L);
+                existingRequest.setItems(new ArrayList<>());
+                existingRequest.setImages(new ArrayList<>());
+
+                // Posted without the hidden version field
+                Request incomingRequest = new Request();
+                incomingRequest.setStatus(RequestStatus.QUOTED);
+
+                when(reqRepo.findByIdWithItems(requestId)).thenReturn(Optional.of(existingRequest));
+
+                // Act & Assert
+                assertThrows(ConflictException.class,
+                                () -> requestService.update(requestId, incomingRequest, null, null, null));
+                assertEquals(RequestStatus.SCHEDULED, existingRequest.getStatus());
+                verify(imageService, never()).updateRequestServiceImages(any(), any(), any());
+                verify(reqRepo, never()).save(any(Request.class));
+        }
+
+        private RequestItem requestItem(UUID id, String name, int quantity) {
+                RequestItem item = new RequestItem();
+                item.setId(id);
+                item.setServiceItemId(UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)));
+                item.setName(name);
+                item.setPrice(BigDecimal.valueOf(200000));
+                item.setVatRate(BigDecimal.valueOf(0.1));
+                item.setWarrantyDays(30);
+                item.setQuantity(quantity);
+                item.setDiscount(BigDecimal.ZERO);
+                return item;
+        }
+
+        private ServiceItem serviceItem(RequestItem item) {
+                ServiceItem serviceItem = new ServiceItem();
+                serviceItem.setId(item.getServiceItemId());
+                serviceItem.setName(item.getName());
+                serviceItem.setPrice(item.getPrice());
+                serviceItem.setVatRate(item.getVatRate());
+                serviceItem.setWarrantyDays(item.getWarrantyDays());
+                return serviceItem;
+        }
+
+        // ===== LIST BY CURSOR METHOD TESTS =====
+
+        @Test
+        void listByCursor_UTC001_FirstPageWithMoreRows_ShouldReturnNextCursorAndCount() {
+                // Arrange
+                List<Request> rows = createListRows(3);
+                when(reqRepo.findFirstKeysetPage(isNull(), isNull(), any(Pageable.class)))
+                                .thenReturn(new ArrayList<>(rows));
+                when(reqRepo.countWithFilters(isNull(), isNull())).thenReturn(3L);
+
+                // Act
+                CursorPage<Request> result = requestService.listByCursor(" ", null, null, 2, true);
+
+                // Assert
+                assertEquals(2, result.getNumberOfElements());
+                assertTrue(result.hasNext());
+                assertFalse(result.hasPrevious());
+                assertEquals(3L, result.getTotalElements());
+
+                RequestCursor next = RequestCursor.decode(result.getNextCursor());
+                assertFalse(next.backward());
+                assertEquals(rows.get(1).getId(), next.id());
+                assertEquals(rows.get(1).getAppointmentDate(), next.appointmentDate());
+        }
+
+        @Test
+        void listByCursor_UTC002_BackwardCursor_ShouldReturnRowsInDescendingOrder() {
+                // Arrange
+                List<Request> rows = createListRows(3);
+                RequestCursor cursor = RequestCursor.before(rows.get(2), 0);
+                // Repository returns rows closest to the cursor first (ascending order)
+                when(reqRepo.findKeysetPageBefore(isNull(), eq("SCHEDULED"), eq(cursor.appointmentDate()),
+                                eq(cursor.id()), any(Pageable.class)))
+                                .thenReturn(new ArrayList<>(List.of(rows.get(1), rows.get(0))));
+
+                // Act
+                CursorPage<Request> result = requestService.listByCursor(null, RequestStatus.SCHEDULED,
+                                cursor.encode(), 2, false);
+
+                // Assert
+                assertEquals(List.of(rows.get(0), rows.get(1)), result.getContent());
+                assertFalse(result.hasPrevious());
+                assertTrue(result.hasNext());
+                assertNull(result.getTotalElements());
+                verify(reqRepo, never()).countWithFilters(any(), any());
+        }
+
+        @Test
+        void listByCursor_UTC003_MalformedCursor_ShouldThrowValidationException() {
+                // Act & Assert
+                assertThrows(ValidationException.class,
+                                () -> requestService.listByCursor(null, null, "not-a-cursor", 10, false));
+                verifyNoInteractions(reqRepo);
+        }
+
+        @Test
+        void listByCursor_UTC004_AccentedSearch_ShouldFoldTermAndEncodeRankInCursor() {
+                // Arrange
+                List<Request> rows = createListRows(3);
+                rows.get(0).setName("Nguyễn Văn An");
+                rows.get(1).setName("Trần Thị Nguyệt");
+                rows.forEach(Request::updateSearchText);
+                when(reqRepo.findFirstSearchPage(eq("nguyen"), isNull(), any(Pageable.class)))
+                                .thenReturn(new ArrayList<>(rows));
+
+                // Act
+                CursorPage<Request> result = requestService.listByCursor("  NGUYỄN ", null, null, 2, false);
+
+                // Assert
+                assertEquals(List.of(rows.get(0), rows.get(1)), result.getContent());
+                RequestCursor next = RequestCursor.decode(result.getNextCursor());
+                assertEquals(rows.get(1).getId(), next.id());
+                // "nguyen" only appears inside "nguyet", so the second row is a plain contains match
+                assertEquals(2, next.rank());
+                verify(reqRepo, never()).findFirstKeysetPage(any(), any(), any(Pageable.class));
+        }
+
+        @Test
+        void listByCursor_UTC005_SearchForwardCursor_ShouldContinueFromRankedPosition() {
+                // Arrange
+                List<Request> rows = createListRows(2);
+                RequestCursor cursor = RequestCursor.after(rows.get(0), 1);
+                when(reqRepo.findSearchPageAfter(eq("abc123"), isNull(), eq(1), eq(cursor.appointmentDate()),
+                                eq(cursor.id()), any(Pageable.class)))
+                                .thenReturn(new ArrayList<>(List.of(rows.get(1))));
+
+                // Act
+                CursorPage<Request> result = requestService.listByCursor("ABC123", null, cursor.encode(), 2, false);
+
+                // Assert
+                assertEquals(List.of(rows.get(1)), result.getContent());
+                assertFalse(result.hasNext());
+                assertTrue(result.hasPrevious());
+        }
+
+        @Test
+        void listByCursor_UTC006_WildcardCharacters_ShouldEscapeTermForLikeOnly() {
+                // Arrange
+                List<Request> rows = createListRows(3);
+                rows.get(0).setSerialNumber("A_B%1");
+                rows.forEach(Request::updateSearchText);
+                when(reqRepo.findFirstSearchPage(eq("a\\_b\\%1"), isNull(), any(Pageable.class)))
+                                .thenReturn(new ArrayList<>(rows));
+                when(reqRepo.countWithFilters(eq("a\\_b\\%1"), isNull())).thenReturn(3L);
+
+                // Act
+                CursorPage<Request> result = requestService.listByCursor("A_B%1", null, null, 1, true);
+
+                // Assert
+                assertEquals(List.of(rows.get(0)), result.getContent());
+                // The rank in the cursor compares the plain term, so the exact serial stays in the first tier
+                assertEquals(0, RequestCursor.decode(result.getNextCursor()).rank());
+        }
+
+        // ===== EXPORT CSV METHOD TESTS =====
+
+        @Test
+        void exportCSV_UTC001_DateRange_ShouldQueryWholeDaysAndWriteTotals() throws Exception {
+                // Arrange
+                UUID id = UUID.randomUUID();
+                RequestExportRow row = mock(RequestExportRow.class);
+                when(row.getId()).thenReturn(id);
+                when(row.getCreatedAt()).thenReturn(LocalDateTime.of(2025, 7, 1, 8, 30));
+                when(row.getName()).thenReturn("Nguyễn Văn An");
+                when(row.getPhone()).thenReturn("0901234567");
+                when(row.getStatus()).thenReturn(RequestStatus.COMPLETED);
+                when(row.getAppointmentDate()).thenReturn(LocalDateTime.of(2025, 7, 2, 9, 0));
+                when(row.getSubtotal()).thenReturn(new BigDecimal("200000"));
+                when(row.getVatAmount()).thenReturn(new BigDecimal("20000"));
+                when(row.getTotal()).thenReturn(new BigDecimal("220000"));
+                when(reqRepo.streamExportRows(RequestStatus.COMPLETED, LocalDateTime.of(2025, 7, 1, 0, 0),
+                                LocalDateTime.of(2025, 8, 1, 0, 0)))
+                                .thenReturn(Stream.of(row));
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                // Act
+                requestService.exportCSV(RequestStatus.COMPLETED, LocalDate.of(2025, 7, 1),
+                                LocalDate.of(2025, 7, 31), out);
+
+                // Assert
+                String csv = out.toString(StandardCharsets.UTF_8).substring(1);
+                String[] lines = csv.split("\r\n");
+                assertEquals("id,createdAt,customerName,phone,email,device,status,appointmentDate,"
+                                + "completedAt,subtotal,vatAmount,total", lines[0]);
+                assertEquals(id + ",2025-07-01 08:30:00,Nguyễn Văn An,0901234567,,,Hoàn thành,"
+                                + "2025-07-02 09:00:00,,200000,20000,220000", lines[1]);
+                assertEquals(1.0, meterRegistry.get("repair.csv.rows")
+                                .tags("dataset", "requests", "operation", "export").counter().count());
+                assertEquals(1L, meterRegistry.get("repair.csv.duration")
+                                .tags("dataset", "requests", "operation", "export").timer().count());
+        }
+
+        private List<Request> createListRows(int count) {
+                List<Request> rows = new ArrayList<>();
+                LocalDateTime appointment = LocalDateTime.of(2025, 7, 30, 9, 0);
+                for (int i = 0; i < count; i++) {
+                        Request request = new Request();
+                        request.setId(UUID.randomUUID());
+                        request.setAppointmentDate(appointment.minusDays(i));
+                        rows.add(request);
+                }
+                return rows;
+        }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.Request;
+import com.laptoprepair.entity.RequestItem;
+import com.laptoprepair.repository.RequestRepository;
+import com.laptoprepair.service.RequestTotalService.TotalDrift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestTotalServiceImplTest {
+
+        @Mock
+        private RequestRepository reqRepo;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private RequestTotalServiceImpl requestTotalService;
+
+        @BeforeEach
+        void setUp() {
+                requestTotalService = new RequestTotalServiceImpl(reqRepo, transactionManager);
+        }
+
+        @Test
+        void backfillMissingTotals_UTC001_RequestsWithoutTotals_ShouldPopulateTotals() {
+                // Arrange
+                Request request = createRequest(new BigDecimal("100000"), new BigDecimal("0.1"), 2);
+                request.setSubtotal(null);
+                request.setVatAmount(null);
+                request.setTotal(null);
+
+                when(reqRepo.findIdsWithMissingTotals(any(Pageable.class)))
+                                .thenReturn(List.of(request.getId()))
+                                .thenReturn(List.of());
+                when(reqRepo.findAllWithItemsByIdIn(List.of(request.getId()))).thenReturn(List.of(request));
+                when(reqRepo.updateMissingTotals(eq(request.getId()), any(), any(), any())).thenReturn(1);
+
+                // Act
+                int updated = requestTotalService.backfillMissingTotals();
+
+                // Assert - only the totals columns are written, never the whole entity
+                assertEquals(1, updated);
+                verify(reqRepo).updateMissingTotals(eq(request.getId()),
+                                argThat(subtotal -> new BigDecimal("200000").compareTo(subtotal) == 0),
+                                argThat(vatAmount -> new BigDecimal("20000").compareTo(vatAmount) == 0),
+                                argThat(total -> new BigDecimal("220000").compareTo(total) == 0));
+                verify(reqRepo, never()).saveAll(anyList());
+        }
+
+        @Test
+        void backfillMissingTotals_UTC003_FilledByAnotherInstance_ShouldSkipAndFinish() {
+                // Arrange
+                Request request = createRequest(new BigDecimal("100000"), new BigDecimal("0.1"), 1);
+
+                when(reqRepo.findIdsWithMissingTotals(any(Pageable.class)))
+                                .thenReturn(List.of(request.getId()))
+                                .thenReturn(List.of());
+                when(reqRepo.findAllWithItemsByIdIn(List.of(request.getId()))).thenReturn(List.of(request));
+                when(reqRepo.updateMissingTotals(eq(request.getId()), any(), any(), any())).thenReturn(0);
+
+                // Act
+                int updated = requestTotalService.backfillMissingTotals();
+
+                // Assert
+                assertEquals(0, updated);
+                verify(reqRepo, times(2)).findIdsWithMissingTotals(any(Pageable.class));
+        }
+
+        @Test
+        void backfillOnStartup_UTC001_BackfillFails_ShouldNotAbortStartup() {
+                // Arrange
+                when(reqRepo.findIdsWithMissingTotals(any(Pageable.class)))
+                                .thenThrow(new IllegalStateException("Connection refused"));
+
+                // Act & Assert
+                assertDoesNotThrow(() -> requestTotalService.backfillOnStartup());
+        }
+
+        @Test
+        void backfillMissingTotals_UTC002_NothingToBackfill_ShouldNotSave() {
+                // Arrange
+                when(reqRepo.findIdsWithMissingTotals(any(Pageable.class))).thenReturn(List.of());
+
+                // Act
+                int updated = requestTotalService.backfillMissingTotals();
+
+                // Assert
+                assertEquals(0, updated);
+                verify(reqRepo, never()).saveAll(anyList());
+        }
+
+        @Test
+        void checkConsistency_UTC001_StoredTotalDiffers_ShouldReportDrift() {
+                // Arrange
+                Request consistent = createRequest(new BigDecimal("100000"), new BigDecimal("0.1"), 1);
+                consistent.recalculateTotals();
+
+                Request drifted = createRequest(new BigDecimal("100000"), new BigDecimal("0.1"), 1);
+                drifted.recalculateTotals();
+                drifted.setTotal(new BigDecimal("99000"));
+
+                List<UUID> ids = List.of(consistent.getId(), drifted.getId());
+                when(reqRepo.findIdsOrderById(any(Pageable.class))).thenReturn(ids);
+                when(reqRepo.findAllWithItemsByIdIn(ids)).thenReturn(List.of(consistent, drifted));
+
+                // Act
+                List<TotalDrift> drifts = requestTotalService.checkConsistency();
+
+                // Assert
+                assertEquals(1, drifts.size());
+                assertEquals(drifted.getId(), drifts.get(0).requestId());
+                assertEquals(0, new BigDecimal("99000").compareTo(drifts.get(0).storedTotal()));
+                assertEquals(0, new BigDecimal("110000").compareTo(drifts.get(0).computedTotal()));
+                verify(reqRepo, never()).saveAll(anyList());
+        }
+
+        @Test
+        void checkConsistency_UTC002_SeveralBatches_ShouldContinueAfterLastId() {
+                // Arrange
+                ReflectionTestUtils.setField(requestTotalService, "batchSize", 2);
+                List<Request> requests = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                        Request request = createRequest(new BigDecimal("100000"), new BigDecimal("0.1"), 1);
+                        request.recalculateTotals();
+                        requests.add(request);
+                }
+                List<UUID> firstIds = List.of(requests.get(0).getId(), requests.get(1).getId());
+                List<UUID> lastIds = List.of(requests.get(2).getId());
+                when(reqRepo.findIdsOrderById(any(Pageable.class))).thenReturn(firstIds);
+                when(reqRepo.findIdsAfterOrderById(eq(requests.get(1).getId()), any(Pageable.class)))
+                                .thenReturn(lastIds);
+                when(reqRepo.findAllWithItemsByIdIn(firstIds)).thenReturn(requests.subList(0, 2));
+                when(reqRepo.findAllWithItemsByIdIn(lastIds)).thenReturn(requests.subList(2, 3));
+
+                // Act
+                List<TotalDrift> drifts = requestTotalService.checkConsistency();
+
+                // Assert
+                assertTrue(drifts.isEmpty());
+                verify(reqRepo).findIdsOrderById(argThat(pageable -> pageable.getOffset() == 0));
+                verify(reqRepo).findIdsAfterOrderById(eq(requests.get(1).getId()),
+                                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 2));
+        }
+
+        private Request createRequest(BigDecimal price, BigDecimal vatRate, int quantity) {
+                Request request = new Request();
+                request.setId(UUID.randomUUID());
+
+                RequestItem item = new RequestItem();
+                item.setServiceItemId(UUID.randomUUID());
+                item.setName("Service Item");
+                item.setPrice(price);
+                item.setVatRate(vatRate);
+                item.setQuantity(quantity);
+                item.setDiscount(BigDecimal.ZERO);
+                item.setRequest(request);
+
+                request.setItems(new ArrayList<>(List.of(item)));
+                return request;
+        }
+}
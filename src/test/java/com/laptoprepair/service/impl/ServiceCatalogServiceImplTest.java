@@ -0,0 +1,201 @@
+package com.laptoprepair.service.impl;
+
+import com.laptoprepair.entity.ServiceItem;
+import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.ServiceItemRepository.CatalogVersion;
+import com.laptoprepair.service.ServiceCatalogService.CatalogStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceCatalogServiceImplTest {
+
+        @Mock
+        private ServiceItemRepository serviceItemRepository;
+
+        private ServiceCatalogServiceImpl serviceCatalogService;
+
+        private ServiceItem cleaning;
+        private ServiceItem screen;
+        private ServiceItem inactiveBattery;
+
+        @BeforeEach
+        void setUp() {
+                serviceCatalogService = new ServiceCatalogServiceImpl(serviceItemRepository);
+
+                cleaning = createServiceItem("Vệ sinh laptop", true);
+                screen = createServiceItem("Thay màn hình", true);
+                inactiveBattery = createServiceItem("Thay pin", false);
+        }
+
+        @Test
+        void findActiveByIds_UTC001_RepeatedLookups_ShouldLoadCatalogOnce() {
+                // Arrange
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning, screen, inactiveBattery));
+
+                // Act
+                List<ServiceItem> first = serviceCatalogService.findActiveByIds(
+                                List.of(cleaning.getId(), inactiveBattery.getId()));
+                List<ServiceItem> second = serviceCatalogService.findActiveByIds(List.of(screen.getId()));
+
+                // Assert
+                assertEquals(1, first.size());
+                assertEquals(cleaning.getId(), first.get(0).getId());
+                assertEquals(screen.getId(), second.get(0).getId());
+                verify(serviceItemRepository, times(1)).findAll();
+
+                CatalogStats stats = serviceCatalogService.getStats();
+                assertEquals(1, stats.misses());
+                assertEquals(1, stats.hits());
+                assertEquals(3, stats.size());
+        }
+
+        @Test
+        void invalidate_UTC001_AfterInvalidate_ShouldReloadCatalog() {
+                // Arrange
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning));
+                serviceCatalogService.findActiveByIds(List.of(cleaning.getId()));
+
+                // Act
+                serviceCatalogService.invalidate();
+                serviceCatalogService.findActiveByIds(List.of(cleaning.getId()));
+
+                // Assert
+                verify(serviceItemRepository, times(2)).findAll();
+                assertEquals(2, serviceCatalogService.getStats().misses());
+                assertEquals(1, serviceCatalogService.getStats().invalidations());
+        }
+
+        @Test
+        void findActiveByIds_UTC002_UnchangedInDatabase_ShouldKeepSnapshot() {
+                // Arrange - every lookup checks the snapshot
+                ReflectionTestUtils.setField(serviceCatalogService, "revalidateAfterMillis", 0L);
+                cleaning.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning, screen));
+                CatalogVersion stored = catalogVersion(2, cleaning.getUpdatedAt());
+                when(serviceItemRepository.findCatalogVersion()).thenReturn(stored);
+                serviceCatalogService.findActiveByIds(List.of(cleaning.getId()));
+
+                // Act
+                List<ServiceItem> result = serviceCatalogService.findActiveByIds(List.of(screen.getId()));
+
+                // Assert
+                assertEquals(1, result.size());
+                verify(serviceItemRepository, times(1)).findAll();
+                verify(serviceItemRepository).findCatalogVersion();
+        }
+
+        @Test
+        void findActiveByIds_UTC003_ItemAddedByAnotherInstance_ShouldReloadSnapshot() {
+                // Arrange - every lookup checks the snapshot
+                ReflectionTestUtils.setField(serviceCatalogService, "revalidateAfterMillis", 0L);
+                screen.setUpdatedAt(LocalDateTime.of(2025, 6, 2, 9, 0));
+                when(serviceItemRepository.findAll())
+                                .thenReturn(List.of(cleaning))
+                                .thenReturn(List.of(cleaning, screen));
+                CatalogVersion stored = catalogVersion(2, screen.getUpdatedAt());
+                when(serviceItemRepository.findCatalogVersion()).thenReturn(stored);
+                serviceCatalogService.findActiveByIds(List.of(cleaning.getId()));
+
+                // Act
+                List<ServiceItem> result = serviceCatalogService.findActiveByIds(List.of(screen.getId()));
+
+                // Assert
+                assertEquals(screen.getId(), result.get(0).getId());
+                verify(serviceItemRepository, times(2)).findAll();
+                assertEquals(2, serviceCatalogService.getStats().misses());
+        }
+
+        @Test
+        void searchActive_UTC001_UnaccentedKeyword_ShouldMatchActiveItemsOrderedByName() {
+                // Arrange
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning, screen, inactiveBattery));
+
+                // Act
+                Page<ServiceItem> result = serviceCatalogService.searchActive("THAY", PageRequest.of(0, 10));
+
+                // Assert
+                assertEquals(1, result.getTotalElements());
+                assertEquals("Thay màn hình", result.getContent().get(0).getName());
+        }
+
+        @Test
+        void searchActive_UTC002_SecondPage_ShouldSliceResults() {
+                // Arrange
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning, screen, inactiveBattery));
+
+                // Act
+                Page<ServiceItem> result = serviceCatalogService.searchActive(null, PageRequest.of(1, 1));
+
+                // Assert
+                assertEquals(2, result.getTotalElements());
+                assertEquals(2, result.getTotalPages());
+                assertEquals("Vệ sinh laptop", result.getContent().get(0).getName());
+        }
+
+        @Test
+        void suggestActive_UTC001_WordPrefixes_ShouldRankNameStartFirstAndSkipInactive() {
+                // Arrange
+                ServiceItem keyboard = createServiceItem("Thay bàn phím laptop", true);
+                ServiceItem screenCleaning = createServiceItem("Vệ sinh màn hình", true);
+                when(serviceItemRepository.findAll())
+                                .thenReturn(List.of(cleaning, screen, inactiveBattery, keyboard, screenCleaning));
+
+                // Act
+                List<ServiceItem> byWord = serviceCatalogService.suggestActive("man h", 10);
+                List<ServiceItem> byStart = serviceCatalogService.suggestActive("thay", 10);
+
+                // Assert
+                assertEquals(List.of("Thay màn hình", "Vệ sinh màn hình"),
+                                byWord.stream().map(ServiceItem::getName).toList());
+                assertEquals(List.of("Thay bàn phím laptop", "Thay màn hình"),
+                                byStart.stream().map(ServiceItem::getName).toList());
+        }
+
+        @Test
+        void suggestActive_UTC002_MidWordQueryAndLimit_ShouldFallBackToSubstringWithinLimit() {
+                // Arrange
+                when(serviceItemRepository.findAll()).thenReturn(List.of(cleaning, screen, inactiveBattery));
+
+                // Act
+                List<ServiceItem> midWord = serviceCatalogService.suggestActive("ptop", 10);
+                List<ServiceItem> limited = serviceCatalogService.suggestActive("h", 1);
+
+                // Assert
+                assertEquals(List.of(cleaning.getId()), midWord.stream().map(ServiceItem::getId).toList());
+                assertEquals(1, limited.size());
+                assertTrue(serviceCatalogService.suggestActive("  ", 10).isEmpty());
+        }
+
+        private static CatalogVersion catalogVersion(long itemCount, LocalDateTime lastUpdatedAt) {
+                CatalogVersion version = mock(CatalogVersion.class);
+                when(version.getItemCount()).thenReturn(itemCount);
+                when(version.getLastUpdatedAt()).thenReturn(lastUpdatedAt);
+                return version;
+        }
+
+        private ServiceItem createServiceItem(String name, boolean active) {
+                ServiceItem serviceItem = new ServiceItem();
+                serviceItem.setId(UUID.randomUUID());
+                serviceItem.setName(name);
+                serviceItem.setPrice(new BigDecimal("100000"));
+                serviceItem.setVatRate(new BigDecimal("0.10"));
+                serviceItem.setWarrantyDays(30);
+                serviceItem.setActive(active);
+                return serviceItem;
+        }
+}
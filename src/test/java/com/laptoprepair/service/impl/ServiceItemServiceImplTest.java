@@ -1,22 +1,39 @@
 package com.laptoprepair.service.impl;
 
+import com.laptoprepair.entity.BackgroundJob;
 import com.laptoprepair.entity.ServiceItem;
+import com.laptoprepair.enums.BackgroundJobType;
 import com.laptoprepair.exception.CSVImportException;
 import com.laptoprepair.exception.NotFoundException;
 import com.laptoprepair.exception.ValidationException;
 import com.laptoprepair.repository.ServiceItemRepository;
+import com.laptoprepair.repository.ServiceItemRepository.ServiceItemExportRow;
+import com.laptoprepair.service.BackgroundJobService;
+import com.laptoprepair.service.BackgroundJobService.JobProgress;
+import com.laptoprepair.service.BackgroundJobService.JobTask;
+import com.laptoprepair.service.ServiceCatalogService;
 import com.laptoprepair.validation.ServiceItemValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import jakarta.persistence.EntityManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,7 +45,26 @@ class ServiceItemServiceImplTest {
         @Mock
         private ServiceItemRepository serviceItemRepository;
 
+        @Mock
+        private ServiceCatalogService serviceCatalogService;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        @Mock
+        private EntityManager entityManager;
+
+        @Mock
+        private BackgroundJobService backgroundJobService;
+
+        @Mock
+        private JobProgress jobProgress;
+
+        @Captor
+        private ArgumentCaptor<List<ServiceItem>> savedItemsCaptor;
+
         private ServiceItemValidator serviceItemValidator;
+        private MeterRegistry meterRegistry;
         private ServiceItemServiceImpl serviceItemService;
 
         private ServiceItem testServiceItem;
@@ -39,8 +75,12 @@ class ServiceItemServiceImplTest {
                 // Create real validator with mock repository
                 serviceItemValidator = new ServiceItemValidator(serviceItemRepository);
 
+                meterRegistry = new SimpleMeterRegistry();
+
                 // Create service with mock repository and real validator
-                serviceItemService = new ServiceItemServiceImpl(serviceItemRepository, serviceItemValidator);
+                serviceItemService = new ServiceItemServiceImpl(serviceItemRepository, serviceItemValidator,
+                                serviceCatalogService, transactionManager, entityManager, backgroundJobService,
+                                meterRegistry);
 
                 testServiceItemId = UUID.randomUUID();
                 testServiceItem = new ServiceItem();
@@ -80,6 +120,7 @@ class ServiceItemServiceImplTest {
                 // Verify validator called repository to check uniqueness
                 verify(serviceItemRepository).findByName("Laptop Cleaning");
                 verify(serviceItemRepository).save(inputServiceItem);
+                verify(serviceCatalogService).invalidate();
         }
 
         @Test
@@ -104,6 +145,7 @@ class ServiceItemServiceImplTest {
                 // Verify validator called repository to check uniqueness but didn't call save
                 verify(serviceItemRepository).findByName("Existing Service Name");
                 verify(serviceItemRepository, never()).save(any(ServiceItem.class));
+                verify(serviceCatalogService, never()).invalidate();
         }
 
         @Test
@@ -243,17 +285,23 @@ class ServiceItemServiceImplTest {
                                 csvContent.getBytes());
 
                 // Mock repository to simulate all items are new (don't exist yet)
-                when(serviceItemRepository.findByName(eq("New Service A"))).thenReturn(Optional.empty());
-                when(serviceItemRepository.findByName(eq("New Service B"))).thenReturn(Optional.empty());
+                when(serviceItemRepository.findAllKeys()).thenReturn(List.of());
                 when(serviceItemRepository.saveAll(anyList())).thenReturn(List.of());
 
                 // Act & Assert
                 assertDoesNotThrow(() -> serviceItemService.importCSV(file));
 
-                // Verify repository interactions
-                verify(serviceItemRepository).findByName("New Service A");
-                verify(serviceItemRepository).findByName("New Service B");
-                verify(serviceItemRepository).saveAll(anyList());
+                // Verify repository interactions: one bulk lookup, no per-row queries
+                verify(serviceItemRepository).findAllKeys();
+                verify(serviceItemRepository, never()).findByName(anyString());
+                verify(serviceItemRepository, never()).findAllById(anyList());
+                verify(serviceItemRepository).saveAll(savedItemsCaptor.capture());
+                assertEquals(List.of("New Service A", "New Service B"),
+                                savedItemsCaptor.getValue().stream().map(ServiceItem::getName).toList());
+                verify(entityManager).flush();
+                verify(serviceCatalogService).invalidate();
+                assertEquals(2.0, meterRegistry.get("repair.csv.rows")
+                                .tags("dataset", "service_items", "operation", "import").counter().count());
         }
 
         @Test
@@ -270,18 +318,59 @@ class ServiceItemServiceImplTest {
                 existingServiceC.setName("Existing Service C");
 
                 // Mock repository to simulate mixed scenario: one existing, one new
-                when(serviceItemRepository.findByName(eq("Existing Service C")))
-                                .thenReturn(Optional.of(existingServiceC));
-                when(serviceItemRepository.findByName(eq("New Service D"))).thenReturn(Optional.empty());
+                when(serviceItemRepository.findAllKeys()).thenReturn(List.of(serviceItemKey(existingServiceC)));
+                when(serviceItemRepository.findAllById(List.of(existingServiceC.getId())))
+                                .thenReturn(List.of(existingServiceC));
                 when(serviceItemRepository.saveAll(anyList())).thenReturn(List.of());
 
                 // Act & Assert
                 assertDoesNotThrow(() -> serviceItemService.importCSV(file));
 
-                // Verify repository interactions
-                verify(serviceItemRepository).findByName("Existing Service C");
-                verify(serviceItemRepository).findByName("New Service D");
-                verify(serviceItemRepository).saveAll(anyList());
+                // Existing item is updated in place, only the new one is inserted
+                assertEquals(new BigDecimal("150000"), existingServiceC.getPrice());
+                assertEquals(15, existingServiceC.getWarrantyDays());
+                assertFalse(existingServiceC.isActive());
+                verify(serviceItemRepository).saveAll(savedItemsCaptor.capture());
+                assertEquals(List.of("New Service D"),
+                                savedItemsCaptor.getValue().stream().map(ServiceItem::getName).toList());
+                verify(serviceItemRepository, never()).findByName(anyString());
+        }
+
+        @Test
+        void importCSV_UTC006_DuplicateNameInFile_ShouldInsertOnceWithLastRowValues() throws Exception {
+                // Arrange
+                String csvContent = "Name,Price,VatRate,WarrantyDays,Active\n" +
+                                "Service E,100000,0.1,7,true\n" +
+                                "Service E,120000,0.1,14,true";
+                MockMultipartFile file = new MockMultipartFile("test.csv", "test.csv", "text/csv",
+                                csvContent.getBytes());
+
+                when(serviceItemRepository.findAllKeys()).thenReturn(List.of());
+                when(serviceItemRepository.saveAll(anyList())).thenReturn(List.of());
+
+                // Act
+                serviceItemService.importCSV(file);
+
+                // Assert
+                verify(serviceItemRepository).saveAll(savedItemsCaptor.capture());
+                List<ServiceItem> saved = savedItemsCaptor.getValue();
+                assertEquals(1, saved.size());
+                assertEquals(new BigDecimal("120000"), saved.get(0).getPrice());
+                assertEquals(14, saved.get(0).getWarrantyDays());
+        }
+
+        @Test
+        void importCSV_UTC007_HeaderOnly_ShouldThrowNoDataException() {
+                // Arrange
+                MockMultipartFile file = new MockMultipartFile("test.csv", "test.csv", "text/csv",
+                                "Name,Price,VatRate,WarrantyDays,Active\n".getBytes());
+                when(serviceItemRepository.findAllKeys()).thenReturn(List.of());
+
+                // Act & Assert
+                CSVImportException exception = assertThrows(CSVImportException.class,
+                                () -> serviceItemService.importCSV(file));
+                assertTrue(exception.getMessage().startsWith("File CSV không có dữ liệu"));
+                verify(serviceItemRepository, never()).saveAll(anyList());
         }
 
         @Test
@@ -328,4 +417,89 @@ class ServiceItemServiceImplTest {
 
                 assertEquals("Giá dịch vụ phải lớn hơn 0", exception.getMessage());
         }
+
+        @Test
+        void submitImportJob_UTC001_InvalidRows_ShouldSkipAndRecordErrors() throws Exception {
+                // Arrange
+                String csvContent = "Name,Price,VatRate,WarrantyDays,Active\n" +
+                                "Service F,100000,0.1,7,true\n" +
+                                "Service G,abc,0.1,7,true\n" +
+                                "Service H,0,0.1,7,true\n" +
+                                "Service I,200000,0.1,30,true";
+                MockMultipartFile file = new MockMultipartFile("test.csv", "test.csv", "text/csv",
+                                csvContent.getBytes());
+
+                when(serviceItemRepository.findAllKeys()).thenReturn(List.of());
+                when(serviceItemRepository.saveAll(anyList())).thenReturn(List.of());
+                // Run the job inline instead of on the job executor
+                when(backgroundJobService.submit(eq(BackgroundJobType.SERVICE_ITEM_IMPORT), eq("test.csv"),
+                                eq(file.getSize()), any())).thenAnswer(invocation -> {
+                                        JobTask task = invocation.getArgument(3);
+                                        BackgroundJob job = new BackgroundJob();
+                                        job.setMessage(task.run(jobProgress));
+                                        return job;
+                                });
+
+                // Act
+                BackgroundJob job = serviceItemService.submitImportJob(file);
+
+                // Assert
+                assertEquals("Đã import 2 dịch vụ", job.getMessage());
+                verify(serviceItemRepository).saveAll(savedItemsCaptor.capture());
+                assertEquals(List.of("Service F", "Service I"),
+                                savedItemsCaptor.getValue().stream().map(ServiceItem::getName).toList());
+                verify(jobProgress).recordError("Dòng 3: Dữ liệu số không hợp lệ");
+                verify(jobProgress).recordError("Dòng 4: Giá dịch vụ phải lớn hơn 0");
+                verify(jobProgress).update(file.getSize(), 4, 2);
+                verify(serviceCatalogService).invalidate();
+        }
+
+        @Test
+        void submitImportJob_UTC002_NotACSVFile_ShouldThrowWithoutSubmitting() {
+                // Arrange
+                MockMultipartFile file = new MockMultipartFile("test.xlsx", "test.xlsx", "text/csv",
+                                "data".getBytes());
+
+                // Act & Assert
+                assertThrows(CSVImportException.class, () -> serviceItemService.submitImportJob(file));
+                verify(backgroundJobService, never()).submit(any(), any(), anyLong(), any());
+        }
+
+        @Test
+        void exportCSV_UTC001_StreamedRows_ShouldWriteBomHeaderAndRows() throws Exception {
+                // Arrange
+                ServiceItemExportRow row = mock(ServiceItemExportRow.class);
+                when(row.getName()).thenReturn("Vệ sinh, bảo dưỡng");
+                when(row.getPrice()).thenReturn(new BigDecimal("250000"));
+                when(row.getVatRate()).thenReturn(new BigDecimal("0.10"));
+                when(row.getWarrantyDays()).thenReturn(30);
+                when(row.isActive()).thenReturn(true);
+                when(serviceItemRepository.streamExportRows()).thenReturn(Stream.of(row));
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                // Act
+                serviceItemService.exportCSV(out);
+
+                // Assert
+                byte[] bytes = out.toByteArray();
+                assertArrayEquals(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF },
+                                Arrays.copyOf(bytes, 3));
+                String csv = new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+                assertEquals("name,price,vatRate,warrantyDays,active\r\n" +
+                                "\"Vệ sinh, bảo dưỡng\",250000,0.10,30,true\r\n", csv);
+        }
+
+        private ServiceItemRepository.ServiceItemKey serviceItemKey(ServiceItem serviceItem) {
+                return new ServiceItemRepository.ServiceItemKey() {
+                        @Override
+                        public UUID getId() {
+                                return serviceItem.getId();
+                        }
+
+                        @Override
+                        public String getName() {
+                                return serviceItem.getName();
+                        }
+                };
+        }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.laptoprepair.sql;
+
+import com.laptoprepair.service.EmailSender;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executor;
+
+/**
+ * Base class for tests that count the SQL statements of a full flow against
+ * the H2 database of the test profile, seeded from {@code data.sql}. All
+ * subclasses share one application context.
+ * <p>
+ * The data source is wrapped so that {@link SqlStatementCounter} sees every
+ * JDBC execution. MockMvc requests and background jobs run on the test
+ * thread, so the counter sees every statement they issue. The counter is
+ * reset before each test; call {@link SqlStatementCounter#reset()} again after
+ * any setup that should not be counted. The service catalog is not rechecked
+ * against the database, so its check cannot add a statement to a flow.
+ */
+@SpringBootTest(properties = "app.service-catalog.revalidate-after-millis=86400000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({ SqlCountingTest.CountedDataSource.class, SqlCountingTest.SameThreadJobs.class })
+public abstract class SqlCountingTest {
+
+    // Email senders exist for the dev and prod profiles only
+    @MockBean
+    protected EmailSender emailSender;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @BeforeEach
+    void resetStatementCounter() {
+        SqlStatementCounter.reset();
+    }
+
+    @TestConfiguration
+    static class CountedDataSource {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(new SqlStatementCounter())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @TestConfiguration
+    static class SameThreadJobs {
+
+        // Replaces the job pool, so an import submitted by a request has finished
+        // when the request returns
+        @Bean
+        static BeanPostProcessor sameThreadJobExecutor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "jobTaskExecutor".equals(beanName) ? (Executor) Runnable::run : bean;
+                }
+            };
+        }
+    }
+}
\ No newline at end of file
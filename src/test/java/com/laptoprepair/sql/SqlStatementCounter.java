@@ -0,0 +1,120 @@
+package com.laptoprepair.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Datasource-proxy listener that records each JDBC execution by kind. A
+ * statement executed on its own and a whole {@code executeBatch} both count
+ * once, so each count is the number of round trips to the database.
+ * Executions are kept per thread, so scheduled jobs running in the background
+ * do not disturb a test. {@link SqlCountingTest} puts it in front of the
+ * application's data source.
+ * <p>
+ * The {@code assert...Count} methods fail with the recorded statements of
+ * that kind, which shows the repeated query when an N+1 pattern creeps in.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private enum Kind {
+        SELECT, INSERT, UPDATE, DELETE
+    }
+
+    private static final ThreadLocal<List<Statement>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    private record Statement(Kind kind, String sql) {
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        // A batch of prepared statements carries one query with many parameter sets
+        String sql = queryInfoList.get(0).getQuery();
+        record(execInfo.isBatch() && execInfo.getBatchSize() > 1
+                ? sql + " [batch of " + execInfo.getBatchSize() + "]"
+                : sql);
+    }
+
+    private static void record(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        Kind kind = null;
+        if (statement.startsWith("select") || statement.startsWith("with")) {
+            kind = Kind.SELECT;
+        } else if (statement.startsWith("insert")) {
+            kind = Kind.INSERT;
+        } else if (statement.startsWith("update")) {
+            kind = Kind.UPDATE;
+        } else if (statement.startsWith("delete")) {
+            kind = Kind.DELETE;
+        }
+        if (kind != null) {
+            STATEMENTS.get().add(new Statement(kind, sql));
+        }
+    }
+
+    public static void reset() {
+        STATEMENTS.remove();
+    }
+
+    public static int selects() {
+        return count(Kind.SELECT);
+    }
+
+    public static int inserts() {
+        return count(Kind.INSERT);
+    }
+
+    public static int updates() {
+        return count(Kind.UPDATE);
+    }
+
+    public static int deletes() {
+        return count(Kind.DELETE);
+    }
+
+    public static int total() {
+        return STATEMENTS.get().size();
+    }
+
+    public static void assertSelectCount(int expected) {
+        assertCount(Kind.SELECT, expected);
+    }
+
+    public static void assertInsertCount(int expected) {
+        assertCount(Kind.INSERT, expected);
+    }
+
+    public static void assertUpdateCount(int expected) {
+        assertCount(Kind.UPDATE, expected);
+    }
+
+    public static void assertDeleteCount(int expected) {
+        assertCount(Kind.DELETE, expected);
+    }
+
+    private static int count(Kind kind) {
+        return (int) STATEMENTS.get().stream().filter(statement -> statement.kind() == kind).count();
+    }
+
+    private static void assertCount(Kind kind, int expected) {
+        List<String> statements = STATEMENTS.get().stream()
+                .filter(statement -> statement.kind() == kind)
+                .map(Statement::sql)
+                .toList();
+        assertEquals(expected, statements.size(), () -> "Expected " + expected + " " + kind + " statements but "
+                + statements.size() + " were executed:\n  " + String.join("\n  ", statements));
+    }
+}
\ No newline at end of file